@@ -0,0 +1,61 @@
+package com.example.online_quiz_system.service;
+
+import com.example.online_quiz_system.dto.UserAnswerRequestDTO;
+import com.example.online_quiz_system.entity.QuizAttempt;
+import com.example.online_quiz_system.entity.QuizSubmission;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grading one submitted answer sheet: the per-answer loop of the old {@code submitAndGradeQuiz} (BigDecimal
+ * arithmetic, option streams and a HashMap of answers) against {@link GradingEngine} on a {@link CompiledQuiz}.
+ * Both sides start from the request's answer list; compiling the quiz is left out since it is cached per version.
+ * <p>
+ * Run with {@code mvn -Pjmh test-compile exec:exec}; pass other JMH options with {@code -Djmh.args="..."}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GradingBenchmark {
+
+    @Param({"10", "50", "200"})
+    public int questionCount;
+
+    private QuizSubmission quiz;
+    private CompiledQuiz compiled;
+    private List<UserAnswerRequestDTO> answers;
+    private GradingEngine engine;
+
+    @Setup
+    public void setUp() {
+        quiz = GradingFixtures.quiz(questionCount, 42);
+        answers = GradingFixtures.answers(quiz, 7);
+        compiled = CompiledQuiz.compile(quiz, quiz.getQuestions());
+        engine = new GradingEngine(List.of(new ChoiceQuestionScorer(), new EssayQuestionScorer()));
+    }
+
+    @Benchmark
+    public GradingFixtures.LegacyResult perAnswerLoop() {
+        return GradingFixtures.gradeLegacy(quiz, new QuizAttempt(), answers);
+    }
+
+    @Benchmark
+    public GradingEngine.GradedAttempt gradingEngine() {
+        return engine.grade(compiled, engine.sheetOf(compiled, answers));
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.online_quiz_system.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Gives the admin data export its own async request timeout. A large export streams for longer than the
+ * default timeout allows, while every other async request keeps the default. The timeout is set just before
+ * the streaming task starts, which is the last point at which the request's timeout can still be changed.
+ */
+@Configuration
+public class ExportAsyncTimeoutConfig implements WebMvcConfigurer {
+
+    private static final String EXPORT_PATH = "/api/admin/export/";
+
+    @Value("${app.export.async-timeout-ms:3600000}")
+    private long exportTimeoutMillis;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                HttpServletRequest servletRequest = request.getNativeRequest(HttpServletRequest.class);
+                if (request instanceof AsyncWebRequest asyncRequest && servletRequest != null
+                        && servletRequest.getRequestURI().startsWith(servletRequest.getContextPath() + EXPORT_PATH)) {
+                    asyncRequest.setTimeout(exportTimeoutMillis);
+                }
+            }
+        });
+    }
+}
@@ -86,7 +86,8 @@ public class SecurityConfig {
                         .requestMatchers("/api/oauth2/test/**").permitAll() // OAuth2 test endpoints
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .requestMatchers("/api/user/**").hasRole("USER")
-                        .requestMatchers("/api/quiz-submissions/public").permitAll()
+                        .requestMatchers("/api/quiz-submissions/public", "/api/quiz-submissions/public/scroll",
+                                "/api/quiz-submissions/suggest", "/api/quiz-submissions/facets").permitAll()
                         .requestMatchers("/api/challenges/leaderboard").permitAll() // Cho phép xem bảng xếp hạng công khai
                         .requestMatchers("/api/quiz-submissions/**", "/api/challenges/**", "/api/quizzes/**").authenticated() // Các API còn lại cần đăng nhập
                         .requestMatchers("/oauth2/**", "/login/**", "/oauth2/authorization/**", "/login/oauth2/**").permitAll()
@@ -1,23 +1,34 @@
 package com.example.online_quiz_system.controller;
 
 import com.example.online_quiz_system.dto.AdminDashboardStatsDTO;
+import com.example.online_quiz_system.dto.CacheStatsDTO;
 import com.example.online_quiz_system.dto.UserAdminDTO;
 import com.example.online_quiz_system.dto.UserCreateRequest;
 import com.example.online_quiz_system.dto.UserUpdateRequest;
 import com.example.online_quiz_system.security.UserPrincipal;
 import com.example.online_quiz_system.service.AdminService;
+import com.example.online_quiz_system.service.CatalogQueryCache;
+import com.example.online_quiz_system.service.ChallengeService;
+import com.example.online_quiz_system.service.DataExportService;
+import com.example.online_quiz_system.service.QuestionDuplicateDetector;
 import com.example.online_quiz_system.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.Map;
 
 @RestController
@@ -31,6 +42,18 @@ public class AdminController {
     @Autowired
     private AdminService adminService;
 
+    @Autowired
+    private CatalogQueryCache catalogQueryCache;
+
+    @Autowired
+    private DataExportService dataExportService;
+
+    @Autowired
+    private QuestionDuplicateDetector questionDuplicateDetector;
+
+    @Autowired
+    private ChallengeService challengeService;
+
     @GetMapping("/dashboard-stats")
     public ResponseEntity<AdminDashboardStatsDTO> getDashboardStats() {
         AdminDashboardStatsDTO stats = adminService.getDashboardStats();
@@ -68,6 +91,54 @@ public class AdminController {
         return ResponseEntity.status(201).body(newUser);
     }
 
+    @GetMapping("/cache/catalog")
+    public ResponseEntity<CacheStatsDTO> getCatalogCacheStats() {
+        return ResponseEntity.ok(catalogQueryCache.getStats());
+    }
+
+    @DeleteMapping("/cache/catalog")
+    public ResponseEntity<Void> clearCatalogCache() {
+        catalogQueryCache.clear();
+        return ResponseEntity.noContent().build();
+    }
+
+    /** Reloads today's challenge set on the next request, after challenge templates were edited. */
+    @DeleteMapping("/cache/challenges")
+    public ResponseEntity<Void> clearChallengeCache() {
+        challengeService.evictCachedChallenges();
+        return ResponseEntity.noContent().build();
+    }
+
+    /** Signs and checks for near-duplicates every question that has no MinHash signature yet. */
+    @PostMapping("/duplicates/backfill")
+    public ResponseEntity<Map<String, Integer>> backfillQuestionSignatures() {
+        int signed = questionDuplicateDetector.backfill();
+        if (signed < 0) {
+            return ResponseEntity.status(409).build();
+        }
+        return ResponseEntity.ok(Map.of("signed", signed));
+    }
+
+    /** Streams quizzes, attempts or answers as NDJSON (default) or CSV, optionally filtered. */
+    @GetMapping("/export/{dataset}")
+    public ResponseEntity<StreamingResponseBody> export(
+            @PathVariable String dataset,
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long quizId,
+            @RequestParam(required = false) Long userId) {
+        DataExportService.Dataset exportDataset = DataExportService.parseDataset(dataset);
+        boolean csv = DataExportService.isCsv(format);
+        StreamingResponseBody body = dataExportService.export(exportDataset, csv, from, to, quizId, userId);
+
+        String filename = exportDataset.name().toLowerCase() + (csv ? ".csv" : ".ndjson");
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
     @GetMapping("/stats")
     public ResponseEntity<?> getSystemStats() {
         // Triển khai logic thống kê hệ thống
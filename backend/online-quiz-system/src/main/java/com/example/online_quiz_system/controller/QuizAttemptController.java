@@ -1,8 +1,10 @@
 package com.example.online_quiz_system.controller;
 
+import com.example.online_quiz_system.dto.AttemptResultDTO;
 import com.example.online_quiz_system.dto.QuizAttemptRequestDTO;
 import com.example.online_quiz_system.dto.QuizResultDTO;
 import com.example.online_quiz_system.security.UserPrincipal;
+import com.example.online_quiz_system.service.AttemptSubmissionCoordinator;
 import com.example.online_quiz_system.service.QuizAttemptService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,6 +22,9 @@ public class QuizAttemptController {
     @Autowired
     private QuizAttemptService quizAttemptService;
 
+    @Autowired
+    private AttemptSubmissionCoordinator attemptSubmissionCoordinator;
+
     private Long getCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if(authentication == null || !authentication.isAuthenticated()) {
@@ -31,14 +36,33 @@ public class QuizAttemptController {
 
     @PostMapping("/{attemptId}/submit")
     public ResponseEntity<QuizResultDTO> submitQuizForGrading(@PathVariable Long attemptId,
-                                                              @Valid @RequestBody QuizAttemptRequestDTO attemptRequestDTO){
+                                                              @Valid @RequestBody QuizAttemptRequestDTO attemptRequestDTO,
+                                                              @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey){
         Long userId = getCurrentUserId();
         if (userId == null) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
 
-        QuizResultDTO result = quizAttemptService.submitAndGradeQuiz(attemptId, attemptRequestDTO, userId);
+        QuizResultDTO result = attemptSubmissionCoordinator.submit(attemptId, attemptRequestDTO, userId, idempotencyKey);
         return ResponseEntity.ok(result);
     }
 
+    @GetMapping("/{attemptId}/result")
+    public ResponseEntity<AttemptResultDTO> getAttemptResult(@PathVariable Long attemptId){
+        Long userId = getCurrentUserId();
+        if (userId == null) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+
+        return ResponseEntity.ok(quizAttemptService.getAttemptResult(attemptId, userId));
+    }
+
+    @PutMapping("/{attemptId}/answers")
+    public ResponseEntity<?> saveAnswers(@PathVariable Long attemptId,
+                                         @RequestBody QuizAttemptRequestDTO answersDTO){
+        Long userId = getCurrentUserId();
+        if (userId == null) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+
+        int saved = quizAttemptService.saveAnswers(attemptId, answersDTO, userId);
+        return ResponseEntity.accepted().body(Map.of("saved", saved));
+    }
+
     @PostMapping("/{attemptId}/request-grading")
     public ResponseEntity<?> requestGrading(@PathVariable Long attemptId){
         Long userId = getCurrentUserId();
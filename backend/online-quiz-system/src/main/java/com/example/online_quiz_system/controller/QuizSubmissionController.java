@@ -1,29 +1,67 @@
 package com.example.online_quiz_system.controller;
 
+import com.example.online_quiz_system.dto.BatchModerationRequestDTO;
+import com.example.online_quiz_system.dto.BatchModerationResultDTO;
+import com.example.online_quiz_system.dto.CatalogFacetsDTO;
+import com.example.online_quiz_system.dto.CursorPageDTO;
+import com.example.online_quiz_system.dto.ImportReportDTO;
 import com.example.online_quiz_system.dto.QuizSubmissionDTO;
+import com.example.online_quiz_system.dto.QuizSubmissionDetailDTO;
+import com.example.online_quiz_system.dto.QuizSuggestionDTO;
 import com.example.online_quiz_system.dto.RejectSubmissionDTO;
 import com.example.online_quiz_system.entity.QuizSubmission;
+import com.example.online_quiz_system.repository.QuizSubmissionRepository.SummaryView;
 import com.example.online_quiz_system.security.UserPrincipal;
+import com.example.online_quiz_system.service.CatalogFacetCounter;
+import com.example.online_quiz_system.service.CatalogGeneration;
+import com.example.online_quiz_system.service.QuizImportService;
 import com.example.online_quiz_system.service.QuizSubmissionService;
+import com.example.online_quiz_system.service.QuizTitleSuggester;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
 
 @RestController
 @RequestMapping("api/quiz-submissions")
 public class QuizSubmissionController {
 
+    private static final int MAX_SCROLL_SIZE = 50;
+
     @Autowired
     private QuizSubmissionService submissionService;
 
+    @Autowired
+    private QuizTitleSuggester quizTitleSuggester;
+
+    @Autowired
+    private CatalogFacetCounter catalogFacetCounter;
+
+    @Autowired
+    private CatalogGeneration catalogGeneration;
+
+    @Autowired
+    private QuizImportService quizImportService;
+
+    @Value("${app.http-cache.catalog-max-age-seconds:30}")
+    private long catalogMaxAgeSeconds;
+
     // Helper để lấy userId từ SecurityContext
     private Long getCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -35,6 +73,23 @@ public class QuizSubmissionController {
         return null;
     }
 
+    // Public catalog responses are the same for everyone, so shared caches may keep them briefly
+    private CacheControl catalogCacheControl() {
+        return CacheControl.maxAge(Duration.ofSeconds(catalogMaxAgeSeconds)).cachePublic().mustRevalidate();
+    }
+
+    private <T> ResponseEntity<T> catalogNotModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(catalogCacheControl()).build();
+    }
+
+    private <T> ResponseEntity<T> catalogResponse(String etag, T body) {
+        return ResponseEntity.ok().eTag(etag).cacheControl(catalogCacheControl()).body(body);
+    }
+
+    private static int clampScrollSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SCROLL_SIZE));
+    }
+
     @PostMapping
     public ResponseEntity<QuizSubmission> submitQuiz(@Valid @RequestBody QuizSubmissionDTO dto) {
         Long userId = getCurrentUserId();
@@ -46,56 +101,127 @@ public class QuizSubmissionController {
         return ResponseEntity.ok(submission);
     }
 
+    /**
+     * Bulk import from an NDJSON or CSV upload; the format defaults to the file extension.
+     * Every imported quiz is a PENDING submission of the current user.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportReportDTO> importQuizzes(@RequestParam("file") MultipartFile file,
+                                                         @RequestParam(required = false) String format) throws IOException {
+        Long userId = getCurrentUserId();
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        String effectiveFormat = format;
+        if (effectiveFormat == null && file.getOriginalFilename() != null) {
+            String name = file.getOriginalFilename().toLowerCase();
+            effectiveFormat = name.endsWith(".csv") ? "csv" : name.endsWith(".ndjson") || name.endsWith(".jsonl") ? "ndjson" : null;
+        }
+        try (InputStream input = file.getInputStream()) {
+            return ResponseEntity.ok(quizImportService.importQuizzes(input, effectiveFormat, userId));
+        }
+    }
+
     @GetMapping("/public")
-    public ResponseEntity<Page<QuizSubmission>> getPublicQuizzes(
+    public ResponseEntity<Page<SummaryView>> getPublicQuizzes(
             @RequestParam(required = false) String keyword,
             @RequestParam(required = false) String subject,
             @RequestParam(required = false) String difficulty,
+            @RequestParam(required = false) String sort,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "12") int size) {
+            @RequestParam(defaultValue = "12") int size,
+            WebRequest webRequest) {
+        String etag = catalogGeneration.etag();
+        if (webRequest.checkNotModified(etag)) return catalogNotModified(etag);
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<QuizSubmission> quizzes = submissionService.findPublicQuizzes(keyword, subject, difficulty, pageable);
-        return ResponseEntity.ok(quizzes);
+        Page<SummaryView> quizzes = submissionService.findPublicQuizzes(keyword, subject, difficulty, sort, pageable);
+        return catalogResponse(etag, quizzes);
+    }
+
+    @GetMapping("/public/scroll")
+    public ResponseEntity<CursorPageDTO<SummaryView>> scrollPublicQuizzes(
+            @RequestParam(required = false) String subject,
+            @RequestParam(required = false) String difficulty,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "12") int size,
+            WebRequest webRequest) {
+        String etag = catalogGeneration.etag();
+        if (webRequest.checkNotModified(etag)) return catalogNotModified(etag);
+
+        return catalogResponse(etag, submissionService.scrollPublicQuizzes(subject, difficulty, cursor, clampScrollSize(size)));
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<CatalogFacetsDTO> getCatalogFacets(WebRequest webRequest) {
+        String etag = catalogGeneration.etag();
+        if (webRequest.checkNotModified(etag)) return catalogNotModified(etag);
+
+        return catalogResponse(etag, catalogFacetCounter.getFacets());
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<QuizSuggestionDTO>> suggestQuizzes(@RequestParam String q,
+                                                                  @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(quizTitleSuggester.suggest(q, limit));
     }
 
     @GetMapping("/my-submissions")
-    public ResponseEntity<Page<QuizSubmission>> getSubmissionsByContributor(
+    public ResponseEntity<Page<SummaryView>> getSubmissionsByContributor(
                                                                             @RequestParam(defaultValue = "0") int page,
                                                                             @RequestParam(defaultValue = "10") int size) {
         Long userId = getCurrentUserId();
         if(userId == null) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<QuizSubmission> submissions = submissionService.getSubmissionsByContributor(userId, pageable);
+        Pageable pageable = PageRequest.of(page, size);
+        Page<SummaryView> submissions = submissionService.getSubmissionsByContributor(userId, pageable);
         return ResponseEntity.ok(submissions);
     }
 
+    @GetMapping("/my-submissions/scroll")
+    public ResponseEntity<CursorPageDTO<SummaryView>> scrollSubmissionsByContributor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        Long userId = getCurrentUserId();
+        if(userId == null) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+
+        return ResponseEntity.ok(submissionService.scrollSubmissionsByContributor(userId, cursor, clampScrollSize(size)));
+    }
+
+    @GetMapping("/pending/scroll")
+    public ResponseEntity<CursorPageDTO<SummaryView>> scrollPendingSubmissions(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(submissionService.scrollPendingSubmissions(cursor, clampScrollSize(size)));
+    }
+
     @GetMapping("/pending")
-    public ResponseEntity<Page<QuizSubmission>> getPendingSubmissions(@RequestParam(defaultValue = "0") int page,
+    public ResponseEntity<Page<SummaryView>> getPendingSubmissions(@RequestParam(defaultValue = "0") int page,
                                                                       @RequestParam(defaultValue = "10") int size){
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<QuizSubmission> submissions = submissionService.getPendingSubmissions(pageable);
+        Pageable pageable = PageRequest.of(page, size);
+        Page<SummaryView> submissions = submissionService.getPendingSubmissions(pageable);
         return ResponseEntity.ok(submissions);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<QuizSubmission> getSubmissionDetail(@PathVariable Long id){
-        QuizSubmission submission = submissionService.getSubmissionById(id);
+    public ResponseEntity<QuizSubmissionDetailDTO> getSubmissionDetail(@PathVariable Long id){
+        QuizSubmissionDetailDTO submission = submissionService.getSubmissionDetail(id);
         if(submission == null) return ResponseEntity.notFound().build();
         return ResponseEntity.ok(submission);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<QuizSubmission> updateSubmission(@PathVariable Long id,
-                                                           @Valid @RequestBody QuizSubmissionDTO dto){
+    public ResponseEntity<QuizSubmissionDetailDTO> updateSubmission(@PathVariable Long id,
+                                                                    @Valid @RequestBody QuizSubmissionDTO dto){
         Long userId = getCurrentUserId();
         if (userId == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        QuizSubmission submission = submissionService.updateSubmission(id, dto, userId);
-        return ResponseEntity.ok(submission);
+        submissionService.updateSubmission(id, dto, userId);
+        // the detail view lists only live questions, retired ones stay with the versions that use them
+        return ResponseEntity.ok(submissionService.getSubmissionDetail(id));
     }
 
     @DeleteMapping("/{id}")
@@ -131,4 +257,15 @@ public class QuizSubmissionController {
         QuizSubmission submission = submissionService.rejectSubmission(id, dto.getReason(), adminId);
         return ResponseEntity.ok(submission);
     }
-}
\ No newline at end of file
+
+    /** Approves or rejects a list of submissions in one request; the response has an outcome for every id. */
+    @PostMapping("/moderation/batch")
+    public ResponseEntity<BatchModerationResultDTO> moderateBatch(@Valid @RequestBody BatchModerationRequestDTO request){
+        Long adminId = getCurrentUserId();
+        if (adminId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        return ResponseEntity.ok(submissionService.moderateBatch(request, adminId));
+    }
+}
@@ -1,15 +1,20 @@
 package com.example.online_quiz_system.controller;
 
 import com.example.online_quiz_system.dto.*;
-import com.example.online_quiz_system.entity.QuizAttempt;
 import com.example.online_quiz_system.security.UserPrincipal;
+import com.example.online_quiz_system.service.CompiledQuiz;
+import com.example.online_quiz_system.service.PracticeService;
 import com.example.online_quiz_system.service.QuizAttemptService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/quizzes")
@@ -18,6 +23,9 @@ public class QuizTakingController {
     @Autowired
     private QuizAttemptService quizAttemptService;
 
+    @Autowired
+    private PracticeService practiceService;
+
     private Long getCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if(authentication == null || !authentication.isAuthenticated()) {
@@ -27,15 +35,60 @@ public class QuizTakingController {
         return principal instanceof UserPrincipal ? ((UserPrincipal) principal).getId() : null;
     }
 
+    @PostMapping("/{quizId}/questions/{questionId}/check")
+    public ResponseEntity<AnswerCheckResultDTO> checkAnswer(@PathVariable Long quizId,
+                                                            @PathVariable Long questionId,
+                                                            @RequestBody AnswerCheckRequestDTO request) {
+        Long userId = getCurrentUserId();
+        if (userId == null) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+
+        return ResponseEntity.ok(practiceService.checkAnswer(quizId, questionId, request, userId));
+    }
+
+    /**
+     * Quiz content without answers. The ETag is the compiled quiz version, so a client that already has
+     * the current content gets a 304 without the DTO being built. The content is the same for every user,
+     * so shared caches may keep it too, revalidating on each use.
+     */
+    @GetMapping("/{quizId}")
+    public ResponseEntity<QuizForTakingDTO> getQuizContent(@PathVariable Long quizId, WebRequest webRequest) {
+        CompiledQuiz quiz = quizAttemptService.getPublishedQuiz(quizId);
+        String etag = quiz.getVersionId() != null
+                ? "\"q" + quiz.getQuizId() + "-v" + quiz.getVersionId() + "\""
+                : "\"q" + quiz.getQuizId() + "-" + quiz.getVersion() + "\"";
+        CacheControl cacheControl = CacheControl.noCache().cachePublic();
+        long lastModified = quiz.getVersion() > 0 ? quiz.getVersion() : -1;
+
+        if (webRequest.checkNotModified(etag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(quiz.toTakingDTO());
+    }
+
+    /**
+     * Content of one published version. Versions never change, so the response may be cached for good,
+     * by CDNs as well, and a conditional request always gets a 304.
+     */
+    @GetMapping("/{quizId}/versions/{versionId}")
+    public ResponseEntity<QuizForTakingDTO> getQuizVersionContent(@PathVariable Long quizId,
+                                                                  @PathVariable Long versionId,
+                                                                  WebRequest webRequest) {
+        CompiledQuiz quiz = quizAttemptService.getQuizVersion(quizId, versionId);
+        String etag = "\"q" + quiz.getQuizId() + "-v" + quiz.getVersionId() + "\"";
+        CacheControl cacheControl = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(quiz.toTakingDTO());
+    }
+
     @PostMapping("/{quizId}/start")
     public ResponseEntity<QuizStartResponseDTO> startQuiz(@PathVariable Long quizId) {
         Long userId = getCurrentUserId();
         if (userId == null) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
 
-        QuizAttempt attempt = quizAttemptService.startQuizAttempt(quizId, userId);
-        QuizForTakingDTO quizData = quizAttemptService.getQuizForTaking(quizId);
-
-        QuizStartResponseDTO response = new QuizStartResponseDTO(attempt.getId(), quizData);
+        QuizStartResponseDTO response = quizAttemptService.startOrResumeQuizAttempt(quizId, userId);
         return ResponseEntity.ok(response);
     }
 }
@@ -0,0 +1,9 @@
+package com.example.online_quiz_system.dto;
+
+import lombok.Data;
+
+@Data
+public class AnswerCheckRequestDTO {
+    private Long selectedOptionId;
+    private String answerText;
+}
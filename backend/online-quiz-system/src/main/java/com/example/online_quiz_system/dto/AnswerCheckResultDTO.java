@@ -0,0 +1,15 @@
+package com.example.online_quiz_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnswerCheckResultDTO {
+    private Long questionId;
+    private Boolean isCorrect; // null với câu tự luận (cần chấm tay)
+    private Long correctOptionId;
+    private String explanation;
+}
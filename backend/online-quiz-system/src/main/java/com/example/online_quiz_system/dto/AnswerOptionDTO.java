@@ -5,6 +5,9 @@ import lombok.Data;
 
 @Data
 public class AnswerOptionDTO {
+    // id of an existing option when updating; null for a new one
+    private Long id;
+
     @NotBlank(message = "Đáp án không được để trống")
     private String optionText;
 
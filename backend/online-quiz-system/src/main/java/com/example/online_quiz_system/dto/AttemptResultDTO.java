@@ -0,0 +1,25 @@
+package com.example.online_quiz_system.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Graded result of an attempt as stored in {@code quiz_attempts.result_snapshot} and served by
+ * {@code GET /api/attempts/{id}/result}: everything the review screen needs, without further joins.
+ */
+@Data
+public class AttemptResultDTO {
+    private Long attemptId;
+    private Long quizId;
+    private String quizTitle;
+    private LocalDateTime completedAt;
+    private BigDecimal score;
+    private BigDecimal maxScore;
+    private int correctAnswers;
+    private int totalQuestions;
+    private List<ResultQuestionDTO> questions;
+    private List<ResultAnswerDTO> userAnswers;
+}
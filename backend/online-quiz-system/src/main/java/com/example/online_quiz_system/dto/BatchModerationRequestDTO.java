@@ -0,0 +1,22 @@
+package com.example.online_quiz_system.dto;
+
+import com.example.online_quiz_system.enums.ModerationAction;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchModerationRequestDTO {
+    @NotNull(message = "Thao tác duyệt không được để trống")
+    private ModerationAction action;
+
+    @NotEmpty(message = "Danh sách đề thi không được để trống")
+    @Size(max = 1000, message = "Mỗi lần chỉ duyệt tối đa 1000 đề thi")
+    private List<Long> ids;
+
+    // Bắt buộc khi từ chối
+    private String reason;
+}
@@ -0,0 +1,19 @@
+package com.example.online_quiz_system.dto;
+
+import com.example.online_quiz_system.enums.ModerationAction;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BatchModerationResultDTO {
+    private ModerationAction action;
+    private int requested;
+    private int updated;
+    private int unchanged;
+    private int notFound;
+    // tổng điểm đã cộng cho người đóng góp
+    private int pointsCredited;
+    private List<ModerationOutcomeDTO> outcomes = new ArrayList<>();
+}
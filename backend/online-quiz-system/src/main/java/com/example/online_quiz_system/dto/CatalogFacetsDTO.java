@@ -0,0 +1,19 @@
+package com.example.online_quiz_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/** Number of approved quizzes per subject, per difficulty and per (subject, difficulty) pair. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogFacetsDTO {
+    private long total;
+    private Map<String, Long> subjects;
+    private Map<String, Long> difficulties;
+    private List<FacetCountDTO> counts;
+}
@@ -0,0 +1,15 @@
+package com.example.online_quiz_system.dto;
+
+import com.example.online_quiz_system.enums.DifficultyLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetCountDTO {
+    private String subject;
+    private DifficultyLevel difficultyLevel;
+    private long count;
+}
@@ -0,0 +1,14 @@
+package com.example.online_quiz_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportErrorDTO {
+    private int line;
+    private String title;
+    private String message;
+}
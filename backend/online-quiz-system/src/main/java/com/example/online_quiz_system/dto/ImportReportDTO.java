@@ -0,0 +1,19 @@
+package com.example.online_quiz_system.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ImportReportDTO {
+    private String format;
+    private int totalRecords;
+    private int imported;
+    private int failed;
+    private List<ImportErrorDTO> errors = new ArrayList<>();
+    // true when more records failed than are listed in errors
+    private boolean errorsTruncated;
+    private long durationMs;
+    private double recordsPerSecond;
+}
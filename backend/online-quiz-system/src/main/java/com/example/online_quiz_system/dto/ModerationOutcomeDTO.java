@@ -0,0 +1,14 @@
+package com.example.online_quiz_system.dto;
+
+import com.example.online_quiz_system.enums.ModerationOutcome;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModerationOutcomeDTO {
+    private Long id;
+    private ModerationOutcome outcome;
+}
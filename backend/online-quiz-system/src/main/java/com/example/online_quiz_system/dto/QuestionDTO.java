@@ -10,6 +10,9 @@ import java.util.List;
 
 @Data
 public class QuestionDTO {
+    // id of an existing question when updating; null for a new one
+    private Long id;
+
     @NotBlank(message = "Câu hỏi không được để trống")
     private String questionText;
 
@@ -1,6 +1,5 @@
 package com.example.online_quiz_system.dto;
 
-import com.example.online_quiz_system.entity.SubmissionAnswerOption;
 import lombok.Data;
 
 @Data
@@ -8,7 +7,7 @@ public class QuestionResultDTO {
     private Long questionId;
     private String questionText;
     private UserAnswerRequestDTO userAnswer;
-    private SubmissionAnswerOption correctAnswer;
+    private ResultOptionDTO correctAnswer;
     private Boolean isCorrect;
     private String explanation;
 }
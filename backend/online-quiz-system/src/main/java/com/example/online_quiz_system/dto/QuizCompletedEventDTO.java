@@ -0,0 +1,20 @@
+package com.example.online_quiz_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuizCompletedEventDTO {
+    private Long userId;
+    private Long attemptId;
+    private Long quizId;
+    private int correctAnswers;
+    private int studyTimeMinutes;
+    private int pointsEarned;
+    private BigDecimal score;
+}
@@ -8,10 +8,14 @@ import java.util.List;
 @Data
 public class QuizForTakingDTO {
     private Long id;
+    // Phiên bản bất biến của nội dung; null với bản nháp chưa được duyệt
+    private Long versionId;
     private String title;
     private String description;
     private String subject;
     private DifficultyLevel difficultyLevel;
     private Integer durationMinutes;
+    // Đề tự luyện: kiểm tra từng câu trả về đáp án đúng và lời giải
+    private boolean practiceOnly;
     private List<QuestionForTakingDTO> questions;
 }
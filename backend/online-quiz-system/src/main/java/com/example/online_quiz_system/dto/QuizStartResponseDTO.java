@@ -4,10 +4,17 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class QuizStartResponseDTO {
     private Long attemptId;
     private QuizForTakingDTO quizData;
+    private boolean resumed; // true nếu trả về lượt làm đang dở thay vì tạo mới
+    private LocalDateTime expiresAt;
+    private Long remainingSeconds;
+    private List<UserAnswerRequestDTO> savedAnswers; // câu trả lời đã lưu của lượt làm đang dở
 }
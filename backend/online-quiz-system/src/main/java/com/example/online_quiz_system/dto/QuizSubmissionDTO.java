@@ -26,6 +26,9 @@ public class QuizSubmissionDTO {
 
     private DifficultyLevel difficultyLevel;
 
+    // Đề tự luyện; null khi cập nhật nghĩa là giữ nguyên
+    private Boolean practiceOnly;
+
     @Valid
     private List<QuestionDTO> questions;
 }
@@ -0,0 +1,29 @@
+package com.example.online_quiz_system.dto;
+
+import com.example.online_quiz_system.enums.DifficultyLevel;
+import com.example.online_quiz_system.enums.SubmissionStatus;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class QuizSubmissionDetailDTO {
+    private Long id;
+    private String title;
+    private String description;
+    private String subject;
+    private Integer durationMinutes;
+    private DifficultyLevel difficultyLevel;
+    private boolean practiceOnly;
+    private Long contributorId;
+    private SubmissionStatus status;
+    private String adminFeedback;
+    private Integer questionCount;
+    private Integer duplicateQuestionCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime approvedAt;
+    private Long approvedBy;
+    private List<SubmissionQuestionDetailDTO> questions;
+}
@@ -0,0 +1,15 @@
+package com.example.online_quiz_system.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class ResultAnswerDTO {
+    private Long questionId;
+    private Long selectedOptionId;
+    private String answerText;
+    private Boolean isCorrect;
+    private BigDecimal score;
+    private String feedback;
+}
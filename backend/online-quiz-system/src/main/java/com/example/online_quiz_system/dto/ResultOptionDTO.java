@@ -0,0 +1,14 @@
+package com.example.online_quiz_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultOptionDTO {
+    private Long id;
+    private String optionText;
+    private Boolean isCorrect;
+}
@@ -0,0 +1,17 @@
+package com.example.online_quiz_system.dto;
+
+import com.example.online_quiz_system.enums.QuestionType;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+public class ResultQuestionDTO {
+    private Long id;
+    private String questionText;
+    private QuestionType questionType;
+    private String explanation;
+    private BigDecimal maxScore;
+    private List<ResultOptionDTO> options;
+}
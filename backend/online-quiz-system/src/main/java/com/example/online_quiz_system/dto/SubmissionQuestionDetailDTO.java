@@ -0,0 +1,21 @@
+package com.example.online_quiz_system.dto;
+
+import com.example.online_quiz_system.enums.QuestionType;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+public class SubmissionQuestionDetailDTO {
+    private Long id;
+    private String questionText;
+    private QuestionType questionType;
+    private String explanation;
+    private BigDecimal maxScore;
+    private String essayGuidelines;
+    private List<ResultOptionDTO> answerOptions;
+    // Câu hỏi gần trùng đã có ở đề khác, null nếu không có
+    private Long duplicateOfQuestionId;
+    private Double duplicateSimilarity;
+}
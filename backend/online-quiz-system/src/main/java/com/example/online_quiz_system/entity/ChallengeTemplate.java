@@ -29,12 +29,12 @@ public class ChallengeTemplate {
 
     @Enumerated(EnumType.STRING)
     @JdbcTypeCode(SqlTypes.NAMED_ENUM)
-    @Column(name = "challenge_type", nullable = false)
+    @Column(name = "challenge_type", nullable = false, columnDefinition = "challenge_type")
     private ChallengeType challengeType;
 
     @Enumerated(EnumType.STRING)
     @JdbcTypeCode(SqlTypes.NAMED_ENUM)
-    @Column(name = "difficulty_level", nullable = false)
+    @Column(name = "difficulty_level", nullable = false, columnDefinition = "difficulty_level")
     private DifficultyLevel difficultyLevel;
 
     @Column(name = "target_value", nullable = false)
@@ -10,7 +10,8 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "daily_challenges")
+@Table(name = "daily_challenges",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"challenge_date", "template_id"}))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
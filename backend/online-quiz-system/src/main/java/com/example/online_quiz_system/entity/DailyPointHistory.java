@@ -16,7 +16,8 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class DailyPointHistory {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "daily_point_history_seq")
+    @SequenceGenerator(name = "daily_point_history_seq", sequenceName = "daily_point_history_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "user_id", nullable = false)
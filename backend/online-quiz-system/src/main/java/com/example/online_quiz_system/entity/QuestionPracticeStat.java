@@ -0,0 +1,31 @@
+package com.example.online_quiz_system.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sampled practice-mode check counts per question, written by {@code PracticeAnalytics}.
+ */
+@Entity
+@Table(name = "question_practice_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionPracticeStat {
+    @Id
+    @Column(name = "question_id")
+    private Long questionId;
+
+    @Column(name = "sampled_checks", nullable = false)
+    private Long sampledChecks = 0L;
+
+    @Column(name = "sampled_correct", nullable = false)
+    private Long sampledCorrect = 0L;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
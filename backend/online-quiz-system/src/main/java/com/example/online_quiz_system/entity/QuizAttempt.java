@@ -1,11 +1,14 @@
 package com.example.online_quiz_system.entity;
 
+import com.example.online_quiz_system.dto.AttemptResultDTO;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -28,12 +31,19 @@ public class QuizAttempt {
     @JoinColumn(name = "quiz_submission_id", nullable = false)
     private QuizSubmission quizSubmission;
 
+    // Phiên bản đề thi mà lượt làm bài này dùng; chấm điểm và xem lại luôn dựa trên phiên bản này
+    @Column(name = "quiz_version_id")
+    private Long quizVersionId;
+
     @Column(name = "start_time", nullable = false)
     private LocalDateTime startTime;
 
     @Column(name = "end_time", nullable = false)
     private LocalDateTime endTime;
 
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
     @Column(precision = 5, scale = 2)
     private BigDecimal score;
 
@@ -46,6 +56,15 @@ public class QuizAttempt {
     @Column(nullable = false, length = 20)
     private String status;
 
+    // Idempotency-Key của lần nộp bài đã được xử lý
+    @Column(name = "submit_idempotency_key", length = 100)
+    private String submitIdempotencyKey;
+
+    // Kết quả đã chấm, lưu một lần khi nộp bài để trang xem lại chỉ cần đọc một dòng
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "result_snapshot", columnDefinition = "jsonb")
+    private AttemptResultDTO resultSnapshot;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -11,6 +11,7 @@ import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.type.SqlTypes;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -38,18 +39,48 @@ public class QuizSubmission {
 
     @Enumerated(EnumType.STRING)
     @JdbcTypeCode(SqlTypes.NAMED_ENUM)
-    @Column(name = "difficulty_level")
+    @Column(name = "difficulty_level", columnDefinition = "difficulty_level")
     private DifficultyLevel difficultyLevel;
 
     @Column(name = "contributor_id", nullable = false)
     private Long contributorId;
 
+    // Đề dùng để tự luyện: kiểm tra từng câu trả về ngay đáp án đúng và lời giải
+    @Column(name = "practice_only", nullable = false, columnDefinition = "boolean not null default false")
+    private boolean practiceOnly;
+
     @Enumerated(EnumType.STRING)
     private SubmissionStatus status = SubmissionStatus.PENDING;
 
     @Column(name = "admin_feedback")
     private String adminFeedback;
 
+    // Kept in step with questions so listings never have to load them
+    @Column(name = "question_count", nullable = false)
+    private Integer questionCount = 0;
+
+    // Số câu hỏi bị đánh dấu gần trùng với câu hỏi ở đề khác, để người duyệt thấy ngay trong danh sách
+    @Column(name = "duplicate_question_count", nullable = false,
+            columnDefinition = "integer not null default 0")
+    private Integer duplicateQuestionCount = 0;
+
+    // Popularity counters are written only by QuizPopularityTracker's atomic UPDATE, never by entity saves
+    @Column(name = "attempt_count", insertable = false, updatable = false,
+            columnDefinition = "bigint not null default 0")
+    private Long attemptCount = 0L;
+
+    @Column(name = "score_sum", insertable = false, updatable = false,
+            columnDefinition = "numeric(14,2) not null default 0")
+    private BigDecimal scoreSum = BigDecimal.ZERO;
+
+    @Column(name = "average_score", insertable = false, updatable = false,
+            columnDefinition = "numeric(5,2) not null default 0")
+    private BigDecimal averageScore = BigDecimal.ZERO;
+
+    @Column(name = "trending_score", insertable = false, updatable = false,
+            columnDefinition = "double precision not null default 0")
+    private Double trendingScore = 0.0;
+
     @CreationTimestamp
     @Column(name = "created_at")
     private LocalDateTime createdAt;
@@ -64,6 +95,11 @@ public class QuizSubmission {
     @Column(name = "approved_by")
     private Long approvedBy;
 
+    // Phiên bản bất biến đang được phát hành; null khi đề thi chưa từng được duyệt
+    @Column(name = "current_version_id")
+    private Long currentVersionId;
+
     @OneToMany(mappedBy = "submission", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
+    @OrderBy("position ASC, id ASC")
     private List<SubmissionQuestion> questions = new ArrayList<>();
 }
@@ -0,0 +1,65 @@
+package com.example.online_quiz_system.entity;
+
+import com.example.online_quiz_system.enums.DifficultyLevel;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A published, never-modified snapshot of a quiz. Metadata is copied into the row; questions are
+ * referenced by id, so versions share every question they have in common.
+ */
+@Entity
+@Immutable
+@Table(name = "quiz_versions",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"quiz_submission_id", "version_number"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuizVersion {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "quiz_submission_id", nullable = false)
+    private Long quizSubmissionId;
+
+    @Column(name = "version_number", nullable = false)
+    private Integer versionNumber;
+
+    @Column(nullable = false)
+    private String title;
+
+    private String description;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(name = "duration_minutes", nullable = false)
+    private Integer durationMinutes;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "difficulty_level", length = 20)
+    private DifficultyLevel difficultyLevel;
+
+    @Column(name = "practice_only", nullable = false)
+    private boolean practiceOnly;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    // Thứ tự câu hỏi hiển thị của phiên bản
+    @ElementCollection
+    @CollectionTable(name = "quiz_version_questions", joinColumns = @JoinColumn(name = "quiz_version_id"))
+    @OrderColumn(name = "position")
+    @Column(name = "question_id", nullable = false)
+    private List<Long> questionIds = new ArrayList<>();
+}
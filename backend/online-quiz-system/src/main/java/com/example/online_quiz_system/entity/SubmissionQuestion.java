@@ -20,7 +20,8 @@ import java.util.List;
 @AllArgsConstructor
 public class SubmissionQuestion {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "submission_questions_seq")
+    @SequenceGenerator(name = "submission_questions_seq", sequenceName = "submission_questions_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -33,7 +34,7 @@ public class SubmissionQuestion {
 
     @Enumerated(EnumType.STRING)
     @JdbcTypeCode(SqlTypes.NAMED_ENUM)
-    @Column(name = "question_type")
+    @Column(name = "question_type", columnDefinition = "question_type")
     private QuestionType questionType;
 
     private String explanation;
@@ -44,6 +45,26 @@ public class SubmissionQuestion {
     @Column(name = "essay_guidelines", columnDefinition = "TEXT")
     private String essayGuidelines;
 
+    // Thứ tự hiển thị trong đề; bản sao thay thế một câu hỏi đã retired giữ nguyên vị trí của câu đó
+    @Column(name = "position", nullable = false, columnDefinition = "integer not null default 0")
+    private int position;
+
+    // Câu hỏi đã thuộc một phiên bản đề thi không bị sửa hay xoá; khi chỉnh sửa nó được đánh dấu retired và thay bằng bản sao mới
+    @Column(name = "retired", nullable = false, columnDefinition = "boolean not null default false")
+    private boolean retired;
+
+    // Chữ ký MinHash của nội dung câu hỏi (64 giá trị int), dùng để phát hiện câu hỏi gần trùng
+    @JsonIgnore
+    @Column(name = "minhash_signature", columnDefinition = "bytea")
+    private byte[] minhashSignature;
+
+    // Câu hỏi cũ hơn ở đề khác có nội dung gần giống, cùng độ tương đồng ước lượng (0..1)
+    @Column(name = "duplicate_of_question_id")
+    private Long duplicateOfQuestionId;
+
+    @Column(name = "duplicate_similarity")
+    private Double duplicateSimilarity;
+
     @OneToMany(mappedBy = "question", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     private List<SubmissionAnswerOption> answerOptions = new ArrayList<>();
 }
@@ -0,0 +1,8 @@
+package com.example.online_quiz_system.enums;
+
+public enum CatalogSort {
+    NEWEST,
+    TRENDING,
+    MOST_ATTEMPTED,
+    HIGHEST_RATED
+}
@@ -0,0 +1,6 @@
+package com.example.online_quiz_system.enums;
+
+public enum ModerationAction {
+    APPROVE,
+    REJECT
+}
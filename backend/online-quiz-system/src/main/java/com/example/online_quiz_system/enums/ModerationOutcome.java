@@ -0,0 +1,9 @@
+package com.example.online_quiz_system.enums;
+
+public enum ModerationOutcome {
+    APPROVED,
+    REJECTED,
+    // đề thi đã ở trạng thái đích, không có gì thay đổi
+    UNCHANGED,
+    NOT_FOUND
+}
@@ -0,0 +1,8 @@
+package com.example.online_quiz_system.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    PROCESSING,
+    DONE,
+    FAILED
+}
@@ -0,0 +1,7 @@
+package com.example.online_quiz_system.exception;
+
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.online_quiz_system.exception;
+
+public class TooManyRequestsException extends RuntimeException {
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
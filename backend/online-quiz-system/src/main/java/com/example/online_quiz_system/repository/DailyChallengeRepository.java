@@ -14,6 +14,9 @@ public interface DailyChallengeRepository extends JpaRepository<DailyChallenge,
 
     List<DailyChallenge> findByChallengeDate(LocalDate date);
 
+    @Query("SELECT dc FROM DailyChallenge dc JOIN FETCH dc.template WHERE dc.challengeDate = :date")
+    List<DailyChallenge> findByChallengeDateWithTemplate(@Param("date") LocalDate date);
+
     @Query("SELECT dc FROM DailyChallenge dc " +
             "JOIN FETCH dc.template " +
             "WHERE dc.challengeDate = :date AND dc.isActive = true " +
@@ -0,0 +1,71 @@
+package com.example.online_quiz_system.repository;
+
+import com.example.online_quiz_system.entity.OutboxEvent;
+import com.example.online_quiz_system.enums.OutboxStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks a batch of due events, skipping rows another node is already claiming.
+     * Events stuck in PROCESSING since before {@code staleBefore} (a crashed worker) are picked up again.
+     */
+    @Query(value = "SELECT * FROM outbox_events " +
+                   "WHERE (status = 'PENDING' AND next_attempt_at <= :now) " +
+                   "   OR (status = 'PROCESSING' AND locked_at < :staleBefore) " +
+                   "ORDER BY id " +
+                   "LIMIT :limit " +
+                   "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockDueEvents(@Param("now") LocalDateTime now,
+                                    @Param("staleBefore") LocalDateTime staleBefore,
+                                    @Param("limit") int limit);
+
+    /**
+     * Locks the event if it is still held by the claim made at {@code claimedAt}; empty once the claim went
+     * stale and another worker reclaimed the event.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM OutboxEvent e WHERE e.id = :id " +
+            "AND e.status = com.example.online_quiz_system.enums.OutboxStatus.PROCESSING AND e.lockedAt = :claimedAt")
+    Optional<OutboxEvent> findClaimForUpdate(@Param("id") Long id, @Param("claimedAt") LocalDateTime claimedAt);
+
+    /** Completes the event only under the claim made at {@code claimedAt}; returns 0 if that claim was lost. */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = :status, e.processedAt = :processedAt, e.lockedAt = null " +
+            "WHERE e.id = :id AND e.status = com.example.online_quiz_system.enums.OutboxStatus.PROCESSING " +
+            "AND e.lockedAt = :claimedAt")
+    int markProcessed(@Param("id") Long id,
+                      @Param("claimedAt") LocalDateTime claimedAt,
+                      @Param("status") OutboxStatus status,
+                      @Param("processedAt") LocalDateTime processedAt);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = :status, e.attempts = e.attempts + 1, e.lastError = :error, " +
+            "e.nextAttemptAt = :nextAttemptAt, e.lockedAt = null " +
+            "WHERE e.id = :id AND e.status = com.example.online_quiz_system.enums.OutboxStatus.PROCESSING " +
+            "AND e.lockedAt = :claimedAt")
+    int markFailedAttempt(@Param("id") Long id,
+                          @Param("claimedAt") LocalDateTime claimedAt,
+                          @Param("status") OutboxStatus status,
+                          @Param("error") String error,
+                          @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = com.example.online_quiz_system.enums.OutboxStatus.PENDING, e.lockedAt = null WHERE e.id IN :ids")
+    int release(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = com.example.online_quiz_system.enums.OutboxStatus.DONE AND e.processedAt < :before")
+    int deleteProcessedBefore(@Param("before") LocalDateTime before);
+}
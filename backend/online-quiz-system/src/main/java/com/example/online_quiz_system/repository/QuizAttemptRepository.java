@@ -1,18 +1,40 @@
 package com.example.online_quiz_system.repository;
 
 import com.example.online_quiz_system.entity.QuizAttempt;
+import com.example.online_quiz_system.dto.AttemptResultDTO;
 import com.example.online_quiz_system.dto.CountByDate;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface QuizAttemptRepository extends JpaRepository<QuizAttempt, Long> {
     long countByUserIdAndStatus(Long userId, String status);
     List<QuizAttempt> findByUserIdAndEndTimeIsNotNullOrderByEndTimeDesc(Long userId, Pageable pageable);
+    Optional<QuizAttempt> findFirstByUserIdAndQuizSubmissionIdAndStatus(Long userId, Long quizSubmissionId, String status);
+    boolean existsByUserIdAndQuizSubmissionIdAndStatus(Long userId, Long quizSubmissionId, String status);
+
+    /**
+     * Deletes one chunk of ABANDONED attempts that ended before {@code cutoff}; attempts that still have
+     * an essay grading request are kept.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM quiz_attempts WHERE id IN (" +
+                   "SELECT qa.id FROM quiz_attempts qa " +
+                   "WHERE qa.status = 'ABANDONED' AND qa.end_time < :cutoff " +
+                   "AND NOT EXISTS (SELECT 1 FROM essay_grading_requests e WHERE e.quiz_attempt_id = qa.id) " +
+                   "ORDER BY qa.id LIMIT :limit)", nativeQuery = true)
+    int deleteAbandonedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
 
     @Query(value = "SELECT TO_CHAR(end_time, 'YYYY-MM-DD') as date, COUNT(*) as count " +
                    "FROM quiz_attempts " +
@@ -20,4 +42,47 @@ public interface QuizAttemptRepository extends JpaRepository<QuizAttempt, Long>
                    "GROUP BY TO_CHAR(end_time, 'YYYY-MM-DD') " +
                    "ORDER BY date ASC", nativeQuery = true)
     List<CountByDate> countAttemptsByUserIdLast7Days(Long userId);
+
+    /**
+     * Deadlines of open attempts, read in id order one chunk at a time.
+     * Attempts created before expires_at existed fall back to start_time + the quiz duration.
+     */
+    @Query(value = "SELECT qa.id AS id, " +
+                   "COALESCE(qa.expires_at, qa.start_time + make_interval(mins => qs.duration_minutes)) AS expiresAt " +
+                   "FROM quiz_attempts qa JOIN quiz_submissions qs ON qs.id = qa.quiz_submission_id " +
+                   "WHERE qa.status = 'IN_PROGRESS' AND qa.id > :afterId " +
+                   "ORDER BY qa.id " +
+                   "LIMIT :limit", nativeQuery = true)
+    List<AttemptDeadline> findOpenAttemptDeadlines(@Param("afterId") Long afterId, @Param("limit") int limit);
+
+    /** Open attempts whose deadline passed before {@code cutoff}, oldest first. */
+    @Query(value = "SELECT qa.id FROM quiz_attempts qa JOIN quiz_submissions qs ON qs.id = qa.quiz_submission_id " +
+                   "WHERE qa.status = 'IN_PROGRESS' " +
+                   "AND COALESCE(qa.expires_at, qa.start_time + make_interval(mins => qs.duration_minutes)) < :cutoff " +
+                   "ORDER BY qa.id " +
+                   "LIMIT :limit", nativeQuery = true)
+    List<Long> findOverdueAttemptIds(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM QuizAttempt a WHERE a.id = :attemptId")
+    Optional<QuizAttempt> findByIdForUpdate(@Param("attemptId") Long attemptId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM QuizAttempt a WHERE a.id IN :attemptIds ORDER BY a.id")
+    List<QuizAttempt> findAllByIdForUpdate(@Param("attemptIds") Collection<Long> attemptIds);
+
+    @Query("SELECT a.userId AS userId, a.status AS status, a.resultSnapshot AS resultSnapshot " +
+           "FROM QuizAttempt a WHERE a.id = :attemptId")
+    Optional<AttemptResultView> findResultViewById(@Param("attemptId") Long attemptId);
+
+    interface AttemptResultView {
+        Long getUserId();
+        String getStatus();
+        AttemptResultDTO getResultSnapshot();
+    }
+
+    interface AttemptDeadline {
+        Long getId();
+        LocalDateTime getExpiresAt();
+    }
 }
@@ -2,26 +2,61 @@ package com.example.online_quiz_system.repository;
 
 import com.example.online_quiz_system.entity.QuizSubmission;
 import com.example.online_quiz_system.dto.CountByDate;
+import com.example.online_quiz_system.enums.DifficultyLevel;
 import com.example.online_quiz_system.enums.SubmissionStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface QuizSubmissionRepository extends JpaRepository<QuizSubmission, Long>, JpaSpecificationExecutor<QuizSubmission> {
 
-    Page<QuizSubmission> findByStatus(SubmissionStatus status, Pageable pageable);
+    String SUMMARY_COLUMNS = "SELECT qs.id AS id, qs.title AS title, qs.description AS description, qs.subject AS subject, " +
+            "qs.durationMinutes AS durationMinutes, qs.difficultyLevel AS difficultyLevel, qs.contributorId AS contributorId, " +
+            "qs.status AS status, qs.adminFeedback AS adminFeedback, qs.questionCount AS questionCount, " +
+            "qs.duplicateQuestionCount AS duplicateQuestionCount, " +
+            "qs.attemptCount AS attemptCount, qs.averageScore AS averageScore, qs.createdAt AS createdAt, qs.updatedAt AS updatedAt, qs.approvedAt AS approvedAt " +
+            "FROM QuizSubmission qs ";
 
-    Page<QuizSubmission> findByContributorId(Long contributorId, Pageable pageable);
+    // Enum columns are read as text so the projection converts them by name
+    String NATIVE_SUMMARY_COLUMNS = "SELECT qs.id AS id, qs.title AS title, qs.description AS description, " +
+            "CAST(qs.subject AS text) AS subject, qs.duration_minutes AS durationMinutes, " +
+            "CAST(qs.difficulty_level AS text) AS difficultyLevel, qs.contributor_id AS contributorId, " +
+            "CAST(qs.status AS text) AS status, qs.admin_feedback AS adminFeedback, qs.question_count AS questionCount, " +
+            "qs.duplicate_question_count AS duplicateQuestionCount, " +
+            "qs.attempt_count AS attemptCount, qs.average_score AS averageScore, qs.created_at AS createdAt, qs.updated_at AS updatedAt, qs.approved_at AS approvedAt " +
+            "FROM quiz_submissions qs ";
 
-    @Query("SELECT qs FROM QuizSubmission qs LEFT JOIN FETCH qs.questions WHERE qs.id = :id")
-    QuizSubmission findByIdWithQuestions(@Param("id") Long id);
+    // Listing projections: only the columns a catalog/moderation card shows, never the questions
+
+    @Query(value = SUMMARY_COLUMNS + "WHERE qs.status = com.example.online_quiz_system.enums.SubmissionStatus.APPROVED " +
+                   "AND (:subject = '' OR qs.subject = :subject) " +
+                   "AND (:difficulty = '' OR CAST(qs.difficultyLevel AS String) = :difficulty)",
+           countQuery = "SELECT COUNT(qs) FROM QuizSubmission qs " +
+                   "WHERE qs.status = com.example.online_quiz_system.enums.SubmissionStatus.APPROVED " +
+                   "AND (:subject = '' OR qs.subject = :subject) " +
+                   "AND (:difficulty = '' OR CAST(qs.difficultyLevel AS String) = :difficulty)")
+    // ordered by the pageable's sort, see CatalogSort
+    Page<SummaryView> findApprovedSummaries(@Param("subject") String subject,
+                                            @Param("difficulty") String difficulty,
+                                            Pageable pageable);
+
+    @Query(value = SUMMARY_COLUMNS + "WHERE qs.status = :status ORDER BY qs.createdAt DESC, qs.id DESC",
+           countQuery = "SELECT COUNT(qs) FROM QuizSubmission qs WHERE qs.status = :status")
+    Page<SummaryView> findSummariesByStatus(@Param("status") SubmissionStatus status, Pageable pageable);
+
+    @Query(value = SUMMARY_COLUMNS + "WHERE qs.contributorId = :contributorId ORDER BY qs.createdAt DESC, qs.id DESC",
+           countQuery = "SELECT COUNT(qs) FROM QuizSubmission qs WHERE qs.contributorId = :contributorId")
+    Page<SummaryView> findSummariesByContributor(@Param("contributorId") Long contributorId, Pageable pageable);
 
     long countByContributorIdAndStatus(Long contributorId, SubmissionStatus status);
 
@@ -29,10 +64,122 @@ public interface QuizSubmissionRepository extends JpaRepository<QuizSubmission,
 
     long countByStatus(SubmissionStatus status);
 
+    /**
+     * Full-text search over approved quizzes. {@code search_vector} is a generated column over the accent-folded
+     * title (weight A) and description (weight B), served by a GIN index. Empty {@code subject}/{@code difficulty}
+     * mean "no filter". Matches are ordered by the {@link com.example.online_quiz_system.enums.CatalogSort} named
+     * in {@code sort}, with relevance breaking ties; an empty {@code sort} ranks by relevance alone.
+     */
+    @Query(value = NATIVE_SUMMARY_COLUMNS +
+                   "WHERE qs.status = 'APPROVED' " +
+                   "AND qs.search_vector @@ websearch_to_tsquery('simple', f_unaccent(:keyword)) " +
+                   "AND (:subject = '' OR qs.subject = :subject) " +
+                   "AND (:difficulty = '' OR CAST(qs.difficulty_level AS text) = :difficulty) " +
+                   "ORDER BY CASE WHEN :sort = 'TRENDING' THEN qs.trending_score END DESC, " +
+                   "CASE WHEN :sort = 'MOST_ATTEMPTED' THEN qs.attempt_count END DESC, " +
+                   "CASE WHEN :sort = 'HIGHEST_RATED' THEN qs.average_score END DESC, " +
+                   "CASE WHEN :sort = 'HIGHEST_RATED' THEN qs.attempt_count END DESC, " +
+                   "CASE WHEN :sort = 'NEWEST' THEN qs.created_at END DESC, " +
+                   "ts_rank_cd(qs.search_vector, websearch_to_tsquery('simple', f_unaccent(:keyword))) DESC, qs.id DESC",
+           countQuery = "SELECT COUNT(*) FROM quiz_submissions qs " +
+                   "WHERE qs.status = 'APPROVED' " +
+                   "AND qs.search_vector @@ websearch_to_tsquery('simple', f_unaccent(:keyword)) " +
+                   "AND (:subject = '' OR qs.subject = :subject) " +
+                   "AND (:difficulty = '' OR CAST(qs.difficulty_level AS text) = :difficulty)",
+           nativeQuery = true)
+    Page<SummaryView> searchApproved(@Param("keyword") String keyword,
+                                        @Param("subject") String subject,
+                                        @Param("difficulty") String difficulty,
+                                        @Param("sort") String sort,
+                                        Pageable pageable);
+
+    // Keyset pagination, newest first: rows strictly after (createdAt, id) in (created_at DESC, id DESC) order
+
+    @Query(value = NATIVE_SUMMARY_COLUMNS +
+                   "WHERE qs.status = 'APPROVED' " +
+                   "AND (qs.created_at, qs.id) < (:createdAt, :id) " +
+                   "AND (:subject = '' OR qs.subject = :subject) " +
+                   "AND (:difficulty = '' OR CAST(qs.difficulty_level AS text) = :difficulty) " +
+                   "ORDER BY qs.created_at DESC, qs.id DESC LIMIT :limit", nativeQuery = true)
+    List<SummaryView> findApprovedAfter(@Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") Long id,
+                                           @Param("subject") String subject,
+                                           @Param("difficulty") String difficulty,
+                                           @Param("limit") int limit);
+
+    @Query(value = NATIVE_SUMMARY_COLUMNS +
+                   "WHERE qs.status = 'PENDING' AND (qs.created_at, qs.id) < (:createdAt, :id) " +
+                   "ORDER BY qs.created_at DESC, qs.id DESC LIMIT :limit", nativeQuery = true)
+    List<SummaryView> findPendingAfter(@Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") Long id,
+                                       @Param("limit") int limit);
+
+    @Query(value = NATIVE_SUMMARY_COLUMNS +
+                   "WHERE qs.contributor_id = :contributorId AND (qs.created_at, qs.id) < (:createdAt, :id) " +
+                   "ORDER BY qs.created_at DESC, qs.id DESC LIMIT :limit", nativeQuery = true)
+    List<SummaryView> findByContributorAfter(@Param("contributorId") Long contributorId,
+                                             @Param("createdAt") LocalDateTime createdAt,
+                                             @Param("id") Long id,
+                                             @Param("limit") int limit);
+
+    @Query("SELECT qs.id AS id, qs.title AS title FROM QuizSubmission qs " +
+           "WHERE qs.status = com.example.online_quiz_system.enums.SubmissionStatus.APPROVED")
+    List<TitleView> findApprovedTitles();
+
+    /**
+     * Folds one completed attempt into the quiz's popularity counters in a single statement.
+     * {@code trending_score} is the log of a sum of exponentially decaying weights, so adding an attempt
+     * with weight {@code e^heat} is a log-sum-exp and older scores never need to be decayed in place.
+     */
+    @Modifying
+    @Query(value = "UPDATE quiz_submissions SET " +
+                   "attempt_count = attempt_count + 1, " +
+                   "score_sum = score_sum + :score, " +
+                   "average_score = ROUND((score_sum + :score) / (attempt_count + 1), 2), " +
+                   "trending_score = GREATEST(trending_score, :heat) + LN(1 + EXP(LEAST(trending_score, :heat) - GREATEST(trending_score, :heat))) " +
+                   "WHERE id = :quizId", nativeQuery = true)
+    int recordAttempt(@Param("quizId") Long quizId, @Param("score") BigDecimal score, @Param("heat") double heat);
+
+    @Query("SELECT qs.subject AS subject, qs.difficultyLevel AS difficultyLevel, COUNT(qs) AS count " +
+           "FROM QuizSubmission qs WHERE qs.status = com.example.online_quiz_system.enums.SubmissionStatus.APPROVED " +
+           "GROUP BY qs.subject, qs.difficultyLevel")
+    List<FacetCountView> countApprovedBySubjectAndDifficulty();
+
     @Query(value = "SELECT TO_CHAR(created_at, 'YYYY-MM-DD') as date, COUNT(*) as count " +
                    "FROM quiz_submissions " +
                    "WHERE created_at >= CURRENT_DATE - INTERVAL '6 days' " +
                    "GROUP BY TO_CHAR(created_at, 'YYYY-MM-DD') " +
                    "ORDER BY date ASC", nativeQuery = true)
     List<CountByDate> countNewSubmissionsLast7Days();
+
+    /** What a catalog, contributor or moderation listing shows for one submission. */
+    interface SummaryView {
+        Long getId();
+        String getTitle();
+        String getDescription();
+        String getSubject();
+        Integer getDurationMinutes();
+        DifficultyLevel getDifficultyLevel();
+        Long getContributorId();
+        SubmissionStatus getStatus();
+        String getAdminFeedback();
+        Integer getQuestionCount();
+        Integer getDuplicateQuestionCount();
+        Long getAttemptCount();
+        BigDecimal getAverageScore();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getUpdatedAt();
+        LocalDateTime getApprovedAt();
+    }
+
+    interface FacetCountView {
+        String getSubject();
+        DifficultyLevel getDifficultyLevel();
+        long getCount();
+    }
+
+    interface TitleView {
+        Long getId();
+        String getTitle();
+    }
 }
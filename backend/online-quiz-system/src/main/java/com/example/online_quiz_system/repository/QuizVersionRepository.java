@@ -0,0 +1,40 @@
+package com.example.online_quiz_system.repository;
+
+import com.example.online_quiz_system.entity.QuizVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.Set;
+
+@Repository
+public interface QuizVersionRepository extends JpaRepository<QuizVersion, Long> {
+
+    @Query("SELECT v FROM QuizVersion v LEFT JOIN FETCH v.questionIds WHERE v.id = :id")
+    Optional<QuizVersion> findByIdWithQuestionIds(@Param("id") Long id);
+
+    @Query("SELECT COALESCE(MAX(v.versionNumber), 0) FROM QuizVersion v WHERE v.quizSubmissionId = :quizId")
+    int findLatestVersionNumber(@Param("quizId") Long quizId);
+
+    /** Every question id referenced by some version of the quiz; these rows must never change. */
+    @Query(value = "SELECT DISTINCT vq.question_id FROM quiz_version_questions vq " +
+            "JOIN quiz_versions v ON v.id = vq.quiz_version_id " +
+            "WHERE v.quiz_submission_id = :quizId", nativeQuery = true)
+    Set<Long> findFrozenQuestionIds(@Param("quizId") Long quizId);
+
+    @Modifying
+    @Query(value = "UPDATE quiz_attempts SET quiz_version_id = NULL WHERE quiz_submission_id = :quizId", nativeQuery = true)
+    int unpinAttempts(@Param("quizId") Long quizId);
+
+    @Modifying
+    @Query(value = "DELETE FROM quiz_version_questions WHERE quiz_version_id IN " +
+            "(SELECT id FROM quiz_versions WHERE quiz_submission_id = :quizId)", nativeQuery = true)
+    int deleteQuestionLinks(@Param("quizId") Long quizId);
+
+    @Modifying
+    @Query(value = "DELETE FROM quiz_versions WHERE quiz_submission_id = :quizId", nativeQuery = true)
+    int deleteByQuizId(@Param("quizId") Long quizId);
+}
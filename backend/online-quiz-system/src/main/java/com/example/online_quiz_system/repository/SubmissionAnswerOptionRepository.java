@@ -0,0 +1,9 @@
+package com.example.online_quiz_system.repository;
+
+import com.example.online_quiz_system.entity.SubmissionAnswerOption;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SubmissionAnswerOptionRepository extends JpaRepository<SubmissionAnswerOption, Long> {
+}
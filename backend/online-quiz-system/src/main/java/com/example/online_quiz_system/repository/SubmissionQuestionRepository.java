@@ -0,0 +1,24 @@
+package com.example.online_quiz_system.repository;
+
+import com.example.online_quiz_system.entity.SubmissionQuestion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SubmissionQuestionRepository extends JpaRepository<SubmissionQuestion, Long> {
+
+    @Query("SELECT q FROM SubmissionQuestion q LEFT JOIN FETCH q.answerOptions o " +
+            "WHERE q.submission.id = :submissionId AND q.retired = false " +
+            "ORDER BY q.position ASC, q.id ASC, o.id ASC")
+    List<SubmissionQuestion> findBySubmissionIdWithOptions(@Param("submissionId") Long submissionId);
+
+    @Query("SELECT q FROM SubmissionQuestion q LEFT JOIN FETCH q.answerOptions o " +
+            "WHERE q.id IN :ids " +
+            "ORDER BY q.id ASC, o.id ASC")
+    List<SubmissionQuestion> findByIdInWithOptions(@Param("ids") Collection<Long> ids);
+}
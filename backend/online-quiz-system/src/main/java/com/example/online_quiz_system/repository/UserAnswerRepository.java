@@ -4,9 +4,12 @@ import com.example.online_quiz_system.entity.UserAnswer;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface UserAnswerRepository extends JpaRepository<UserAnswer, Long> {
     public List<UserAnswer> findByQuizAttemptId(Long attemptId);
+
+    List<UserAnswer> findByQuizAttemptIdIn(Collection<Long> attemptIds);
 }
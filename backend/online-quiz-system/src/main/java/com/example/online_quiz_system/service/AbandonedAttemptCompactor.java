@@ -0,0 +1,59 @@
+package com.example.online_quiz_system.service;
+
+import com.example.online_quiz_system.repository.QuizAttemptRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+/**
+ * Purges ABANDONED quiz attempts (expired without a single answer) once they are older than the retention
+ * period. Rows are deleted in small chunks, each in its own transaction, so the job never holds long locks.
+ */
+@Component
+public class AbandonedAttemptCompactor {
+
+    private static final Logger logger = LoggerFactory.getLogger(AbandonedAttemptCompactor.class);
+
+    @Autowired
+    private QuizAttemptRepository quizAttemptRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.attempt-compactor.retention-days:7}")
+    private int retentionDays;
+
+    @Value("${app.attempt-compactor.chunk-size:1000}")
+    private int chunkSize;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${app.attempt-compactor.cron:0 15 4 * * *}")
+    public void purgeAbandonedAttempts() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        long total = 0;
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status ->
+                    quizAttemptRepository.deleteAbandonedBefore(cutoff, chunkSize));
+            if (deleted == null || deleted == 0) break;
+            total += deleted;
+            if (deleted < chunkSize) break;
+        }
+        if (total > 0) {
+            logger.info("Purged {} abandoned quiz attempts", total);
+        }
+    }
+}
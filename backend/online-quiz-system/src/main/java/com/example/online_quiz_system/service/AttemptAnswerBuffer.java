@@ -0,0 +1,143 @@
+package com.example.online_quiz_system.service;
+
+import com.example.online_quiz_system.dto.UserAnswerRequestDTO;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for autosaved answers of in-progress attempts.
+ * Each attempt keeps only the latest answer per question, so repeated saves of the same question
+ * coalesce in memory and reach {@code user_answers} as one upsert on the next flush.
+ */
+@Component
+public class AttemptAnswerBuffer {
+
+    private final ConcurrentHashMap<Long, PendingAnswers> buffers = new ConcurrentHashMap<>();
+
+    /** The open buffer of an attempt, or null if nothing has been autosaved for it yet. */
+    public PendingAnswers get(Long attemptId) {
+        return buffers.get(attemptId);
+    }
+
+    public PendingAnswers open(Long attemptId, Long userId, Long quizId, Long quizVersionId, LocalDateTime acceptUntil) {
+        return buffers.computeIfAbsent(attemptId, id -> new PendingAnswers(id, userId, quizId, quizVersionId, acceptUntil));
+    }
+
+    /**
+     * Closes the buffer of an attempt and returns the answers that have not been flushed yet.
+     * If a flush of this attempt is in flight it is waited for, so afterwards everything autosaved is
+     * either in {@code user_answers} or in the returned list.
+     */
+    public List<UserAnswerRequestDTO> drain(Long attemptId, long waitMillis) {
+        PendingAnswers pending = buffers.remove(attemptId);
+        return pending == null ? List.of() : pending.close(waitMillis);
+    }
+
+    public Collection<PendingAnswers> openBuffers() {
+        return buffers.values();
+    }
+
+    /** Drops buffers that have nothing left to flush and have not been written to since {@code idleSince}. */
+    public void evictIdle(long idleSinceMillis) {
+        buffers.values().removeIf(pending -> pending.closeIfIdle(idleSinceMillis));
+    }
+
+    public int size() {
+        return buffers.size();
+    }
+
+    public static final class PendingAnswers {
+        private final Long attemptId;
+        private final Long userId;
+        private final Long quizId;
+        private final Long quizVersionId;
+        private final LocalDateTime acceptUntil;
+
+        private Map<Long, UserAnswerRequestDTO> dirty = new LinkedHashMap<>();
+        private boolean flushing;
+        private boolean closed;
+        private long lastWriteMillis = System.currentTimeMillis();
+
+        private PendingAnswers(Long attemptId, Long userId, Long quizId, Long quizVersionId, LocalDateTime acceptUntil) {
+            this.attemptId = attemptId;
+            this.userId = userId;
+            this.quizId = quizId;
+            this.quizVersionId = quizVersionId;
+            this.acceptUntil = acceptUntil;
+        }
+
+        public Long getAttemptId() { return attemptId; }
+
+        public Long getUserId() { return userId; }
+
+        public Long getQuizId() { return quizId; }
+
+        public Long getQuizVersionId() { return quizVersionId; }
+
+        public LocalDateTime getAcceptUntil() { return acceptUntil; }
+
+        /** Stages answers, replacing earlier ones for the same questions. Returns false once the buffer is closed. */
+        public synchronized boolean stage(List<UserAnswerRequestDTO> answers) {
+            if (closed) return false;
+            for (UserAnswerRequestDTO answer : answers) {
+                dirty.put(answer.getQuestionId(), answer);
+            }
+            lastWriteMillis = System.currentTimeMillis();
+            return true;
+        }
+
+        /** The answers staged but not yet flushed, without taking them. */
+        public synchronized List<UserAnswerRequestDTO> peek() {
+            return new ArrayList<>(dirty.values());
+        }
+
+        /** Hands the staged answers to a flush; returns an empty map if there is nothing to do or a flush is running. */
+        synchronized Map<Long, UserAnswerRequestDTO> takeForFlush() {
+            if (flushing || closed || dirty.isEmpty()) return Map.of();
+            Map<Long, UserAnswerRequestDTO> batch = dirty;
+            dirty = new LinkedHashMap<>();
+            flushing = true;
+            return batch;
+        }
+
+        /** Ends a flush; on failure the batch is put back unless newer answers for the same questions arrived. */
+        synchronized void flushDone(Map<Long, UserAnswerRequestDTO> batch, boolean success) {
+            if (!success) {
+                Map<Long, UserAnswerRequestDTO> merged = new LinkedHashMap<>(batch);
+                merged.putAll(dirty);
+                dirty = merged;
+            }
+            flushing = false;
+            notifyAll();
+        }
+
+        private synchronized List<UserAnswerRequestDTO> close(long waitMillis) {
+            closed = true;
+            long deadline = System.currentTimeMillis() + waitMillis;
+            while (flushing) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) break;
+                try {
+                    wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            return new ArrayList<>(dirty.values());
+        }
+
+        private synchronized boolean closeIfIdle(long idleSinceMillis) {
+            if (flushing || !dirty.isEmpty() || lastWriteMillis > idleSinceMillis) return false;
+            closed = true;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.online_quiz_system.service;
+
+import com.example.online_quiz_system.dto.UserAnswerRequestDTO;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Periodically writes the autosaved answers held in {@link AttemptAnswerBuffer} to {@code user_answers}.
+ * All dirty attempts go out in one transaction as a JDBC batch of upserts on (quiz_attempt_id, question_id);
+ * rows of attempts that are no longer in progress are skipped by the statement itself. If that batch fails,
+ * each attempt is retried in a transaction of its own and only the attempts that fail again keep their answers
+ * for the next run.
+ */
+@Component
+public class AttemptAnswerFlusher {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttemptAnswerFlusher.class);
+
+    private static final String INCREMENT_SQL =
+            "SELECT seqincrement FROM pg_sequence WHERE seqrelid = 'user_answers_id_seq'::regclass";
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO user_answers (id, quiz_attempt_id, question_id, selected_option_id, answer_text, created_at) " +
+            "SELECT ?, qa.id, ?, ?, ?, CURRENT_TIMESTAMP FROM quiz_attempts qa " +
+            "WHERE qa.id = ? AND qa.status = 'IN_PROGRESS' " +
+            "ON CONFLICT (quiz_attempt_id, question_id) DO UPDATE " +
+            "SET selected_option_id = EXCLUDED.selected_option_id, answer_text = EXCLUDED.answer_text";
+
+    // Any unique, non-partial index on exactly (quiz_attempt_id, question_id) can back the ON CONFLICT above
+    private static final String CONFLICT_INDEX_SQL =
+            "SELECT EXISTS (SELECT 1 FROM pg_index i WHERE i.indrelid = 'user_answers'::regclass " +
+            "AND i.indisunique AND i.indpred IS NULL AND i.indnatts = 2 " +
+            "AND (SELECT array_agg(a.attname::text ORDER BY a.attname) FROM pg_attribute a " +
+            "     WHERE a.attrelid = i.indrelid AND a.attnum = ANY(i.indkey)) = ARRAY['question_id', 'quiz_attempt_id'])";
+
+    @Autowired
+    private AttemptAnswerBuffer attemptAnswerBuffer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.autosave.idle-timeout-minutes:30}")
+    private long idleTimeoutMinutes;
+
+    private TransactionTemplate transactionTemplate;
+
+    // Increment of user_answers_id_seq, read once on the first flush
+    private volatile int idBlockSize;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Fails startup when user_answers has no unique index on (quiz_attempt_id, question_id); without it every
+     * flush would fail and autosaved answers would never reach the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyConflictIndex() {
+        Boolean exists = jdbcTemplate.queryForObject(CONFLICT_INDEX_SQL, Boolean.class);
+        if (!Boolean.TRUE.equals(exists)) {
+            throw new IllegalStateException("Missing unique index on user_answers(quiz_attempt_id, question_id), "
+                    + "run the Flyway migrations (V026)");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.autosave.flush-interval-ms:2000}")
+    public void flush() {
+        Map<AttemptAnswerBuffer.PendingAnswers, Map<Long, UserAnswerRequestDTO>> batches = new LinkedHashMap<>();
+        int rowCount = 0;
+        for (AttemptAnswerBuffer.PendingAnswers pending : attemptAnswerBuffer.openBuffers()) {
+            Map<Long, UserAnswerRequestDTO> batch = pending.takeForFlush();
+            if (batch.isEmpty()) continue;
+            batches.put(pending, batch);
+            rowCount += batch.size();
+        }
+
+        if (!batches.isEmpty()) {
+            boolean batchWritten = false;
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(batches));
+                batchWritten = true;
+                logger.debug("Flushed {} autosaved answers of {} attempts", rowCount, batches.size());
+            } catch (Exception e) {
+                logger.warn("Could not flush {} autosaved answers of {} attempts in one batch, retrying attempt by attempt",
+                        rowCount, batches.size(), e);
+            }
+            // After a failed batch every attempt gets its own transaction, so one bad row only holds back its own attempt
+            for (Map.Entry<AttemptAnswerBuffer.PendingAnswers, Map<Long, UserAnswerRequestDTO>> entry : batches.entrySet()) {
+                boolean success = batchWritten || writeAlone(entry.getKey(), entry.getValue());
+                entry.getKey().flushDone(entry.getValue(), success);
+            }
+        }
+
+        attemptAnswerBuffer.evictIdle(System.currentTimeMillis() - idleTimeoutMinutes * 60_000);
+    }
+
+    private boolean writeAlone(AttemptAnswerBuffer.PendingAnswers pending, Map<Long, UserAnswerRequestDTO> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(Map.of(pending, batch)));
+            return true;
+        } catch (Exception e) {
+            logger.error("Could not flush {} autosaved answers of attempt {}, keeping them for the next run",
+                    batch.size(), pending.getAttemptId(), e);
+            return false;
+        }
+    }
+
+    private void write(Map<AttemptAnswerBuffer.PendingAnswers, Map<Long, UserAnswerRequestDTO>> batches) {
+        int rowCount = 0;
+        for (Map<Long, UserAnswerRequestDTO> batch : batches.values()) rowCount += batch.size();
+        long[] ids = allocateIds(rowCount);
+        List<Object[]> rows = new ArrayList<>(rowCount);
+        int next = 0;
+        for (Map.Entry<AttemptAnswerBuffer.PendingAnswers, Map<Long, UserAnswerRequestDTO>> entry : batches.entrySet()) {
+            Long attemptId = entry.getKey().getAttemptId();
+            for (UserAnswerRequestDTO answer : entry.getValue().values()) {
+                rows.add(new Object[]{ids[next++], answer.getQuestionId(), answer.getSelectedOptionId(), answer.getAnswerText(), attemptId});
+            }
+        }
+        int[] types = {Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.BIGINT};
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, types);
+    }
+
+    /**
+     * Takes ids from user_answers_id_seq the same way Hibernate's pooled optimizer does: every nextval() is
+     * the upper end of a block as large as the sequence's increment. The increment is read from the catalog
+     * rather than assumed, so the ids never reach into a block that was handed out to someone else.
+     */
+    private long[] allocateIds(int count) {
+        int blockSize = idBlockSize();
+        int blocks = (count + blockSize - 1) / blockSize;
+        List<Long> highs = jdbcTemplate.queryForList(
+                "SELECT nextval('user_answers_id_seq') FROM generate_series(1, ?)", Long.class, blocks);
+        long[] ids = new long[count];
+        int i = 0;
+        for (Long high : highs) {
+            for (long id = high - blockSize + 1; id <= high && i < count; id++) {
+                ids[i++] = id;
+            }
+        }
+        return ids;
+    }
+
+    private int idBlockSize() {
+        int blockSize = idBlockSize;
+        if (blockSize == 0) {
+            Long increment = jdbcTemplate.queryForObject(INCREMENT_SQL, Long.class);
+            blockSize = increment != null && increment > 0 ? Math.toIntExact(increment) : 1;
+            idBlockSize = blockSize;
+        }
+        return blockSize;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.online_quiz_system.service;
+
+import com.example.online_quiz_system.util.HierarchicalTimingWheel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deadlines of open quiz attempts, kept in a {@link HierarchicalTimingWheel}.
+ * The wheel only says "this id may be due"; {@code deadlines} is the source of truth, so a cancelled or
+ * re-registered attempt is simply ignored when its old wheel entry fires.
+ */
+@Component
+public class AttemptDeadlineRegistry {
+
+    private final ConcurrentHashMap<Long, Long> deadlines = new ConcurrentHashMap<>();
+    private final HierarchicalTimingWheel wheel;
+
+    public AttemptDeadlineRegistry(@Value("${app.attempt-expiry.tick-ms:1000}") long tickMillis) {
+        this.wheel = new HierarchicalTimingWheel(tickMillis, System.currentTimeMillis());
+    }
+
+    /** Registers the deadline once the current transaction commits. */
+    public void registerAfterCommit(Long attemptId, LocalDateTime expiresAt) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    register(attemptId, expiresAt);
+                }
+            });
+        } else {
+            register(attemptId, expiresAt);
+        }
+    }
+
+    public void register(Long attemptId, LocalDateTime expiresAt) {
+        long deadline = toMillis(expiresAt);
+        deadlines.put(attemptId, deadline);
+        synchronized (wheel) {
+            wheel.add(attemptId, deadline);
+        }
+    }
+
+    public void cancel(Long attemptId) {
+        deadlines.remove(attemptId);
+    }
+
+    /** Removes and returns the attempts whose deadline has passed. */
+    public List<Long> pollExpired(long nowMillis) {
+        List<Long> expired = new ArrayList<>();
+        synchronized (wheel) {
+            wheel.advance(nowMillis, id -> {
+                Long deadline = deadlines.get(id);
+                if (deadline != null && deadline <= nowMillis && deadlines.remove(id, deadline)) {
+                    expired.add(id);
+                }
+            });
+        }
+        return expired;
+    }
+
+    public int size() {
+        return deadlines.size();
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
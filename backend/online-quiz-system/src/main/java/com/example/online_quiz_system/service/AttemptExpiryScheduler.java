@@ -0,0 +1,118 @@
+package com.example.online_quiz_system.service;
+
+import com.example.online_quiz_system.repository.QuizAttemptRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Finalizes quiz attempts whose time ran out without a submit.
+ * Deadlines live in {@link AttemptDeadlineRegistry}; on startup the registry is rebuilt from the open attempts,
+ * after that each tick only touches the attempts that are actually due.
+ * <p>
+ * The registry is in memory and per node: an attempt is registered on the node that started it, once its
+ * transaction commits. Attempts that node never got to expire (it went down, or the registration was lost) are
+ * picked up by {@link #rescanOverdue()}, which periodically reads overdue open attempts from the database on
+ * every node. Expiring is idempotent across nodes, since {@link QuizAttemptService#expireAttempts} locks the rows
+ * and skips attempts that are no longer in progress.
+ * <p>
+ * If a batch fails, its attempts are retried one by one so a single bad attempt cannot hold back the others;
+ * only the attempts that fail again are put back with an exponential backoff.
+ */
+@Component
+public class AttemptExpiryScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttemptExpiryScheduler.class);
+
+    private static final int REBUILD_CHUNK_SIZE = 5000;
+    private static final long RETRY_DELAY_SECONDS = 30;
+    private static final long MAX_RETRY_DELAY_SECONDS = 30 * 60;
+
+    @Autowired
+    private AttemptDeadlineRegistry attemptDeadlineRegistry;
+
+    @Autowired
+    private QuizAttemptService quizAttemptService;
+
+    @Autowired
+    private QuizAttemptRepository quizAttemptRepository;
+
+    @Value("${app.attempt-expiry.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.attempt-expiry.grace-seconds:60}")
+    private long graceSeconds;
+
+    /** Consecutive failures of the attempts currently backing off, by attempt id. */
+    private final ConcurrentHashMap<Long, Integer> failures = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildDeadlines() {
+        long afterId = 0L;
+        int loaded = 0;
+        while (true) {
+            List<QuizAttemptRepository.AttemptDeadline> chunk =
+                    quizAttemptRepository.findOpenAttemptDeadlines(afterId, REBUILD_CHUNK_SIZE);
+            for (QuizAttemptRepository.AttemptDeadline deadline : chunk) {
+                attemptDeadlineRegistry.register(deadline.getId(), deadline.getExpiresAt().plusSeconds(graceSeconds));
+            }
+            loaded += chunk.size();
+            if (chunk.size() < REBUILD_CHUNK_SIZE) break;
+            afterId = chunk.get(chunk.size() - 1).getId();
+        }
+        logger.info("Registered deadlines of {} open quiz attempts", loaded);
+    }
+
+    @Scheduled(fixedDelayString = "${app.attempt-expiry.poll-interval-ms:1000}")
+    public void expireDueAttempts() {
+        List<Long> due = attemptDeadlineRegistry.pollExpired(System.currentTimeMillis());
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<Long> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            try {
+                int finalized = quizAttemptService.expireAttempts(batch);
+                logger.debug("Finalized {} expired quiz attempts", finalized);
+                batch.forEach(failures::remove);
+            } catch (Exception e) {
+                logger.warn("Could not finalize expired quiz attempts as a batch, retrying them one by one", e);
+                batch.forEach(this::expireAlone);
+            }
+        }
+    }
+
+    /** Registers open attempts that are overdue in the database but were never expired by any node. */
+    @Scheduled(initialDelayString = "${app.attempt-expiry.rescan-interval-ms:300000}",
+               fixedDelayString = "${app.attempt-expiry.rescan-interval-ms:300000}")
+    public void rescanOverdue() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> overdue = quizAttemptRepository.findOverdueAttemptIds(now.minusSeconds(graceSeconds), REBUILD_CHUNK_SIZE);
+        int registered = 0;
+        for (Long attemptId : overdue) {
+            if (failures.containsKey(attemptId)) continue;
+            attemptDeadlineRegistry.register(attemptId, now);
+            registered++;
+        }
+        if (registered > 0) logger.info("Rescan found {} overdue quiz attempts", registered);
+    }
+
+    private void expireAlone(Long attemptId) {
+        try {
+            quizAttemptService.expireAttempts(List.of(attemptId));
+            failures.remove(attemptId);
+        } catch (Exception e) {
+            int failed = failures.merge(attemptId, 1, Integer::sum);
+            long delay = Math.min(RETRY_DELAY_SECONDS << Math.min(failed - 1, 16), MAX_RETRY_DELAY_SECONDS);
+            logger.error("Could not finalize expired quiz attempt {} ({} failures), retrying in {}s",
+                    attemptId, failed, delay, e);
+            attemptDeadlineRegistry.register(attemptId, LocalDateTime.now().plusSeconds(delay));
+        }
+    }
+}
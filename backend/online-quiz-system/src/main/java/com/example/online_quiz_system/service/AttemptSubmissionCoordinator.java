@@ -0,0 +1,89 @@
+package com.example.online_quiz_system.service;
+
+import com.example.online_quiz_system.dto.QuizAttemptRequestDTO;
+import com.example.online_quiz_system.dto.QuizResultDTO;
+import com.example.online_quiz_system.exception.BusinessException;
+import com.example.online_quiz_system.exception.ConflictException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Collapses concurrent submits of the same attempt on this instance: the first request grades, duplicates
+ * that arrive while it is running wait for its committed result instead of queueing on the attempt row lock.
+ * A duplicate with a different Idempotency-Key is a conflicting submit and is rejected with 409.
+ * Duplicates arriving later, or on another instance, are answered by {@link QuizAttemptService} from the
+ * stored result.
+ */
+@Component
+public class AttemptSubmissionCoordinator {
+
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 100;
+
+    @Autowired
+    private QuizAttemptService quizAttemptService;
+
+    @Value("${app.attempt-submit.wait-timeout-seconds:30}")
+    private long waitTimeoutSeconds;
+
+    private final ConcurrentHashMap<Long, InFlightSubmit> inFlight = new ConcurrentHashMap<>();
+
+    public QuizResultDTO submit(Long attemptId, QuizAttemptRequestDTO attemptDTO, Long userId, String idempotencyKey) {
+        if (idempotencyKey != null && idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)
+            throw new BusinessException("Idempotency-Key không được dài quá " + MAX_IDEMPOTENCY_KEY_LENGTH + " ký tự.");
+
+        InFlightSubmit mine = new InFlightSubmit(userId, idempotencyKey);
+        InFlightSubmit running = inFlight.putIfAbsent(attemptId, mine);
+        if (running != null) {
+            if (!running.userId.equals(userId))
+                throw new AccessDeniedException("Bạn không có quyền thực hiện hành động này.");
+            if (idempotencyKey != null && !Objects.equals(idempotencyKey, running.idempotencyKey))
+                throw new ConflictException("Lượt làm bài đang được nộp với một Idempotency-Key khác.");
+            return await(running);
+        }
+
+        try {
+            QuizResultDTO result = quizAttemptService.submitAndGradeQuiz(attemptId, attemptDTO, userId, idempotencyKey);
+            mine.result.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(attemptId, mine);
+        }
+    }
+
+    private QuizResultDTO await(InFlightSubmit running) {
+        try {
+            return running.result.get(waitTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Bài làm đang được chấm, vui lòng thử lại sau.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Bài làm đang được chấm, vui lòng thử lại sau.");
+        }
+    }
+
+    private static final class InFlightSubmit {
+        private final Long userId;
+        private final String idempotencyKey;
+        private final CompletableFuture<QuizResultDTO> result = new CompletableFuture<>();
+
+        private InFlightSubmit(Long userId, String idempotencyKey) {
+            this.userId = userId;
+            this.idempotencyKey = idempotencyKey;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.online_quiz_system.service;
+
+import com.example.online_quiz_system.dto.CatalogFacetsDTO;
+import com.example.online_quiz_system.dto.FacetCountDTO;
+import com.example.online_quiz_system.enums.DifficultyLevel;
+import com.example.online_quiz_system.enums.Subject;
+import com.example.online_quiz_system.repository.QuizSubmissionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts of approved quizzes per {@link Subject} × {@link DifficultyLevel} for the catalog filter chips.
+ * The counters are adjusted from {@link QuizSubmissionChangedEvent}s after commit and periodically
+ * reconciled against a GROUP BY over the table, which also repairs any event missed on a crash.
+ * Reads are served from a prebuilt response that is only rebuilt after a change.
+ */
+@Component
+public class CatalogFacetCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogFacetCounter.class);
+
+    private static final Subject[] SUBJECTS = Subject.values();
+    private static final DifficultyLevel[] DIFFICULTIES = DifficultyLevel.values();
+    // last column holds approved quizzes without a difficulty; they still count towards their subject
+    private static final int NO_DIFFICULTY = DIFFICULTIES.length;
+
+    @Autowired
+    private QuizSubmissionRepository quizSubmissionRepository;
+
+    @Autowired
+    private CatalogGeneration catalogGeneration;
+
+    private final long[][] counts = new long[SUBJECTS.length][DIFFICULTIES.length + 1];
+    // bumped on every incremental change, so a reconcile can tell it raced with one
+    private long modifications;
+    private volatile CatalogFacetsDTO snapshot;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reconcile();
+    }
+
+    @Scheduled(initialDelayString = "${app.facets.reconcile-interval-ms:300000}",
+               fixedDelayString = "${app.facets.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        long seen;
+        synchronized (this) {
+            seen = modifications;
+        }
+        long[][] fresh = new long[SUBJECTS.length][DIFFICULTIES.length + 1];
+        for (QuizSubmissionRepository.FacetCountView row : quizSubmissionRepository.countApprovedBySubjectAndDifficulty()) {
+            int s = subjectIndex(row.getSubject());
+            if (s >= 0) fresh[s][difficultyIndex(row.getDifficultyLevel())] += row.getCount();
+        }
+        synchronized (this) {
+            if (modifications != seen) {
+                // a change committed while we were counting; the next run picks it up
+                logger.debug("Skipped facet reconcile that raced with a catalog change");
+                return;
+            }
+            boolean drifted = snapshot != null && !Arrays.deepEquals(counts, fresh);
+            for (int s = 0; s < SUBJECTS.length; s++) {
+                System.arraycopy(fresh[s], 0, counts[s], 0, fresh[s].length);
+            }
+            snapshot = null;
+            if (drifted) {
+                logger.warn("Catalog facet counts drifted from the table and were reconciled");
+                catalogGeneration.bump();
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onSubmissionChanged(QuizSubmissionChangedEvent event) {
+        if (!event.wasApproved() && !event.isApproved()) return;
+        synchronized (this) {
+            if (event.wasApproved()) adjust(event.getBefore(), -1);
+            if (event.isApproved()) adjust(event.getAfter(), 1);
+            modifications++;
+            snapshot = null;
+        }
+    }
+
+    public CatalogFacetsDTO getFacets() {
+        CatalogFacetsDTO current = snapshot;
+        if (current != null) return current;
+        synchronized (this) {
+            if (snapshot == null) snapshot = buildSnapshot();
+            return snapshot;
+        }
+    }
+
+    private void adjust(QuizSubmissionChangedEvent.State state, int delta) {
+        int s = subjectIndex(state.getSubject());
+        if (s < 0) return;
+        int d = state.getDifficultyLevel() != null ? state.getDifficultyLevel().ordinal() : NO_DIFFICULTY;
+        counts[s][d] = Math.max(0, counts[s][d] + delta);
+    }
+
+    private CatalogFacetsDTO buildSnapshot() {
+        long total = 0;
+        Map<String, Long> bySubject = new LinkedHashMap<>();
+        Map<String, Long> byDifficulty = new LinkedHashMap<>();
+        for (DifficultyLevel d : DIFFICULTIES) byDifficulty.put(d.name(), 0L);
+        List<FacetCountDTO> pairs = new ArrayList<>();
+
+        for (int s = 0; s < SUBJECTS.length; s++) {
+            long subjectTotal = 0;
+            for (int d = 0; d <= NO_DIFFICULTY; d++) {
+                long n = counts[s][d];
+                subjectTotal += n;
+                if (d == NO_DIFFICULTY || n == 0) continue;
+                byDifficulty.merge(DIFFICULTIES[d].name(), n, Long::sum);
+                pairs.add(new FacetCountDTO(SUBJECTS[s].name(), DIFFICULTIES[d], n));
+            }
+            bySubject.put(SUBJECTS[s].name(), subjectTotal);
+            total += subjectTotal;
+        }
+        return new CatalogFacetsDTO(total, bySubject, byDifficulty, pairs);
+    }
+
+    private static int subjectIndex(String subject) {
+        if (subject == null) return -1;
+        try {
+            return Subject.valueOf(subject.toUpperCase()).ordinal();
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private static int difficultyIndex(DifficultyLevel difficulty) {
+        return difficulty != null ? difficulty.ordinal() : NO_DIFFICULTY;
+    }
+}
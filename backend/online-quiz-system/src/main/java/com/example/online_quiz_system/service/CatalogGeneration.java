@@ -0,0 +1,31 @@
+package com.example.online_quiz_system.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of everything the public catalog shows, used as the ETag of catalog responses.
+ * It moves whenever an approved quiz appears, changes or disappears. It starts from the boot time,
+ * so tags handed out by an earlier process never match after a restart.
+ */
+@Component
+public class CatalogGeneration {
+
+    private final AtomicLong generation = new AtomicLong(System.currentTimeMillis());
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onSubmissionChanged(QuizSubmissionChangedEvent event) {
+        if (event.wasApproved() || event.isApproved()) bump();
+    }
+
+    public void bump() {
+        generation.incrementAndGet();
+    }
+
+    public String etag() {
+        return "\"c" + generation.get() + "\"";
+    }
+}
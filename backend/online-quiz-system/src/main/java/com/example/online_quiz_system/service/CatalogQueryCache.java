@@ -0,0 +1,122 @@
+package com.example.online_quiz_system.service;
+
+import com.example.online_quiz_system.dto.CacheStatsDTO;
+import com.example.online_quiz_system.enums.CatalogSort;
+import com.example.online_quiz_system.repository.QuizSubmissionRepository.SummaryView;
+import com.example.online_quiz_system.util.BoundedTtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of public catalog pages keyed by normalized (keyword, subject, difficulty, sort, page, size).
+ * A change to an approved quiz drops only the entries whose subject and difficulty filters could include
+ * that quiz before or after the change. A load that overlaps an invalidation is returned but not cached.
+ */
+@Component
+public class CatalogQueryCache {
+
+    private static final class Key {
+        private final String keyword;
+        private final String subject;
+        private final String difficulty;
+        private final CatalogSort sort;
+        private final int page;
+        private final int size;
+
+        private Key(String keyword, String subject, String difficulty, CatalogSort sort, int page, int size) {
+            this.keyword = keyword;
+            this.subject = subject;
+            this.difficulty = difficulty;
+            this.sort = sort;
+            this.page = page;
+            this.size = size;
+        }
+
+        boolean mayContain(QuizSubmissionChangedEvent.State state) {
+            if (state == null || !state.isApproved()) return false;
+            boolean subjectMatches = subject.isEmpty() || subject.equalsIgnoreCase(state.getSubject());
+            boolean difficultyMatches = difficulty.isEmpty()
+                    || (state.getDifficultyLevel() != null && difficulty.equals(state.getDifficultyLevel().name()));
+            return subjectMatches && difficultyMatches;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return page == k.page && size == k.size && sort == k.sort && keyword.equals(k.keyword)
+                    && subject.equals(k.subject) && difficulty.equals(k.difficulty);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(keyword, subject, difficulty, sort, page, size);
+        }
+    }
+
+    private final BoundedTtlCache<Key, Page<SummaryView>> cache;
+    // bumped by every invalidation, so a load that started before it is not cached
+    private long generation;
+    private long invalidations;
+
+    public CatalogQueryCache(@Value("${app.catalog-cache.max-entries:500}") int maxEntries,
+                             @Value("${app.catalog-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.cache = new BoundedTtlCache<>(maxEntries, ttlSeconds * 1000);
+    }
+
+    /**
+     * Returns the cached page or loads it. {@code keyword} must already be normalized and
+     * {@code subject}/{@code difficulty} be canonical names or empty for "no filter". A null {@code sort} is the
+     * relevance order of a keyword search.
+     */
+    public Page<SummaryView> get(String keyword, String subject, String difficulty, CatalogSort sort, int page, int size,
+                                 Supplier<Page<SummaryView>> loader) {
+        Key key = new Key(keyword, subject, difficulty, sort, page, size);
+        long seen;
+        synchronized (this) {
+            Page<SummaryView> cached = cache.get(key, System.currentTimeMillis());
+            if (cached != null) return cached;
+            seen = generation;
+        }
+        Page<SummaryView> loaded = loader.get();
+        synchronized (this) {
+            if (generation == seen) cache.put(key, loaded, System.currentTimeMillis());
+        }
+        return loaded;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onSubmissionChanged(QuizSubmissionChangedEvent event) {
+        if (!event.wasApproved() && !event.isApproved()) return;
+        synchronized (this) {
+            generation++;
+            invalidations += cache.removeIf(k -> k.mayContain(event.getBefore()) || k.mayContain(event.getAfter()));
+        }
+    }
+
+    /** Drops pages ordered by popularity counters, which change without a submission event. */
+    public synchronized void invalidatePopularitySorts() {
+        generation++;
+        invalidations += cache.removeIf(k -> k.keyword.isEmpty() && k.sort != CatalogSort.NEWEST);
+    }
+
+    public synchronized void clear() {
+        generation++;
+        invalidations += cache.size();
+        cache.clear();
+    }
+
+    public synchronized CacheStatsDTO getStats() {
+        long lookups = cache.getHits() + cache.getMisses();
+        double hitRate = lookups == 0 ? 0.0 : (double) cache.getHits() / lookups;
+        return new CacheStatsDTO(cache.size(), cache.getMaxEntries(), cache.getHits(), cache.getMisses(),
+                hitRate, cache.getEvictions(), cache.getExpirations(), invalidations);
+    }
+}
@@ -3,17 +3,24 @@ package com.example.online_quiz_system.service;
 import com.example.online_quiz_system.dto.DailyChallengeDTO;
 import com.example.online_quiz_system.dto.LeaderBoardEntryDTO;
 import com.example.online_quiz_system.entity.*;
+import com.example.online_quiz_system.enums.ChallengeType;
 import com.example.online_quiz_system.enums.DifficultyLevel;
 import com.example.online_quiz_system.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.IntStream;
 
 @Service
@@ -38,27 +45,38 @@ public class ChallengeService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Khoá advisory (namespace, ngày) để chỉ một tiến trình sinh thử thách cho một ngày tại một thời điểm
+    private static final int CHALLENGE_LOCK_NAMESPACE = 0x43484C47;
+
+    // Thời gian giữ bộ thử thách của ngày trong bộ nhớ; mẫu/thử thách sửa trực tiếp trong CSDL có hiệu lực sau tối đa bấy nhiêu
+    @Value("${app.challenges.cache-ttl-ms:300000}")
+    private long cacheTtlMillis;
+
+    private final Object dayLock = new Object();
+    private volatile CachedDay cachedDay;
+
     public List<DailyChallengeDTO> getTodayChallenges(Long userId) {
         LocalDate today = LocalDate.now();
 
-        generateDailyChallengeIfNeeded(today);
-
-        List<DailyChallenge> todayChallenges = dailyChallengeRepository.findTodayChallengeWithTemplate(today);
+        List<TodayChallenge> todayChallenges = challengesFor(today);
 
         List<UserChallengeProgress> userProgress = progressRepository.findUserProgressForDate(userId, today);
 
         return todayChallenges.stream().map(challenge -> {
             DailyChallengeDTO dto = new DailyChallengeDTO();
-            dto.setId(challenge.getId());
-            dto.setTitle(challenge.getTemplate().getTitle());
-            dto.setDescription(challenge.getTemplate().getDescription());
-            dto.setChallengeType(challenge.getTemplate().getChallengeType());
-            dto.setDifficultyLevel(challenge.getTemplate().getDifficultyLevel());
-            dto.setTargetValue(challenge.getTemplate().getTargetValue());
-            dto.setRewardPoints(challenge.getTemplate().getRewardPoints());
+            dto.setId(challenge.id);
+            dto.setTitle(challenge.title);
+            dto.setDescription(challenge.description);
+            dto.setChallengeType(challenge.challengeType);
+            dto.setDifficultyLevel(challenge.difficultyLevel);
+            dto.setTargetValue(challenge.targetValue);
+            dto.setRewardPoints(challenge.rewardPoints);
 
             Optional<UserChallengeProgress> progress = userProgress.stream()
-                    .filter(p -> p.getDailyChallenge().getId().equals(challenge.getId()))
+                    .filter(p -> p.getDailyChallenge().getId().equals(challenge.id))
                     .findFirst();
 
             if(progress.isPresent()){
@@ -76,32 +94,90 @@ public class ChallengeService {
         }).toList();
     }
 
-    private void generateDailyChallengeIfNeeded(LocalDate date){
-        List<DailyChallenge> existingChallenges = dailyChallengeRepository.findByChallengeDate(date);
-
-        if(existingChallenges.size() < 3){
-            dailyChallengeRepository.deleteAll(existingChallenges);
+    /**
+     * The challenge set of {@code date}, from memory after the first load of the day. Challenges are created
+     * ahead of time by {@link DailyChallengeScheduler}; should a day still have none, they are generated here.
+     */
+    private List<TodayChallenge> challengesFor(LocalDate date){
+        CachedDay cached = cachedDay;
+        if(cached != null && cached.isFresh(date)) return cached.challenges;
+
+        synchronized (dayLock){
+            cached = cachedDay;
+            if(cached != null && cached.isFresh(date)) return cached.challenges;
+
+            List<DailyChallenge> challenges = dailyChallengeRepository.findTodayChallengeWithTemplate(date);
+            if(challenges.isEmpty() && ensureDailyChallenges(date) > 0){
+                challenges = dailyChallengeRepository.findTodayChallengeWithTemplate(date);
+            }
+            List<TodayChallenge> loaded = challenges.stream().map(TodayChallenge::new).toList();
+            // an empty day is not cached, the next request tries again
+            if(!loaded.isEmpty()) cacheAfterCommit(new CachedDay(date, loaded, System.currentTimeMillis() + cacheTtlMillis));
+            return loaded;
+        }
+    }
 
-            List<ChallengeTemplate> easyTemplates = templateRepository.findActiveByDifficultyLevel(DifficultyLevel.EASY);
-            List<ChallengeTemplate> mediumTemplates = templateRepository.findActiveByDifficultyLevel(DifficultyLevel.MEDIUM);
-            List<ChallengeTemplate> hardTemplates = templateRepository.findActiveByDifficultyLevel(DifficultyLevel.HARD);
+    /**
+     * Publishes a loaded set once the current transaction commits, so challenges generated by
+     * {@link #ensureDailyChallenges} are never served from memory if their insert rolls back. Runs after the
+     * eviction that generation registers, since synchronizations run in registration order.
+     */
+    private void cacheAfterCommit(CachedDay day){
+        if(TransactionSynchronizationManager.isSynchronizationActive()){
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cachedDay = day;
+                }
+            });
+        } else {
+            cachedDay = day;
+        }
+    }
 
-            Random random = new Random();
+    /**
+     * Makes sure {@code date} has one active challenge per difficulty level, picking a random active template
+     * for each level that has none yet. Existing challenges are never replaced. Generators on every instance
+     * take the same advisory lock for the date first, and (template_id, challenge_date) is unique, so concurrent
+     * runs cannot create a second set. Returns the number of challenges created.
+     */
+    public int ensureDailyChallenges(LocalDate date){
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?, ?)", CHALLENGE_LOCK_NAMESPACE, (int) date.toEpochDay());
+
+        Set<DifficultyLevel> covered = EnumSet.noneOf(DifficultyLevel.class);
+        for(DailyChallenge existing : dailyChallengeRepository.findByChallengeDateWithTemplate(date)){
+            covered.add(existing.getTemplate().getDifficultyLevel());
+        }
 
-            if(!easyTemplates.isEmpty()){
-                ChallengeTemplate easyTemplate = easyTemplates.get(random.nextInt(easyTemplates.size()));
-                createDailyChallenge(easyTemplate, date);
-            }
+        int created = 0;
+        for(DifficultyLevel level : DifficultyLevel.values()){
+            if(covered.contains(level)) continue;
+            List<ChallengeTemplate> templates = templateRepository.findActiveByDifficultyLevel(level);
+            if(templates.isEmpty()) continue;
+            createDailyChallenge(templates.get(ThreadLocalRandom.current().nextInt(templates.size())), date);
+            created++;
+        }
 
-            if(!mediumTemplates.isEmpty()){
-                ChallengeTemplate mediumTemplate = mediumTemplates.get(random.nextInt(mediumTemplates.size()));
-                createDailyChallenge(mediumTemplate, date);
-            }
+        // a day that was cached while incomplete picks up the new challenges
+        if(created > 0) evictCachedChallenges();
+        return created;
+    }
 
-            if(!hardTemplates.isEmpty()){
-                ChallengeTemplate hardTemplate = hardTemplates.get(random.nextInt(hardTemplates.size()));
-                createDailyChallenge(hardTemplate, date);
-            }
+    /**
+     * Drops the in-memory challenge set, after the current transaction commits if there is one. To be called
+     * whenever challenge templates or daily challenges change; changes made outside the application are picked
+     * up once the cached set expires.
+     */
+    public void evictCachedChallenges(){
+        if(TransactionSynchronizationManager.isSynchronizationActive()){
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cachedDay = null;
+                }
+            });
+        } else {
+            cachedDay = null;
         }
     }
 
@@ -259,4 +335,42 @@ public class ChallengeService {
             updateUserPoints(userId, quizPoints, "QUIZ_COMPLETION", sourceId);
         }
     }
+
+    /** A challenge of the cached day with the template fields it shows, detached from the persistence context. */
+    private static final class TodayChallenge {
+        final Long id;
+        final String title;
+        final String description;
+        final ChallengeType challengeType;
+        final DifficultyLevel difficultyLevel;
+        final Integer targetValue;
+        final Integer rewardPoints;
+
+        TodayChallenge(DailyChallenge challenge) {
+            ChallengeTemplate template = challenge.getTemplate();
+            this.id = challenge.getId();
+            this.title = template.getTitle();
+            this.description = template.getDescription();
+            this.challengeType = template.getChallengeType();
+            this.difficultyLevel = template.getDifficultyLevel();
+            this.targetValue = template.getTargetValue();
+            this.rewardPoints = template.getRewardPoints();
+        }
+    }
+
+    private static final class CachedDay {
+        final LocalDate date;
+        final List<TodayChallenge> challenges;
+        final long expiresAtMillis;
+
+        CachedDay(LocalDate date, List<TodayChallenge> challenges, long expiresAtMillis) {
+            this.date = date;
+            this.challenges = challenges;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        boolean isFresh(LocalDate day) {
+            return date.equals(day) && System.currentTimeMillis() < expiresAtMillis;
+        }
+    }
 }
@@ -0,0 +1,22 @@
+package com.example.online_quiz_system.service;
+
+import com.example.online_quiz_system.enums.QuestionType;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+@Component
+public class ChoiceQuestionScorer implements QuestionScorer {
+
+    @Override
+    public Set<QuestionType> getSupportedTypes() {
+        return EnumSet.of(QuestionType.MULTIPLE_CHOICE, QuestionType.TRUE_FALSE);
+    }
+
+    @Override
+    public byte evaluate(CompiledQuiz quiz, int position, long selectedOptionId) {
+        long correctOptionId = quiz.getCorrectOptionIdRaw(position);
+        return correctOptionId != CompiledQuiz.NO_OPTION && selectedOptionId == correctOptionId ? CORRECT : INCORRECT;
+    }
+}
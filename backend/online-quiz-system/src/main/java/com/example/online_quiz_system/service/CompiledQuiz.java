@@ -0,0 +1,272 @@
+package com.example.online_quiz_system.service;
+
+import com.example.online_quiz_system.dto.AnswerOptionForTakingDTO;
+import com.example.online_quiz_system.dto.QuestionForTakingDTO;
+import com.example.online_quiz_system.dto.QuizForTakingDTO;
+import com.example.online_quiz_system.entity.QuizSubmission;
+import com.example.online_quiz_system.entity.QuizVersion;
+import com.example.online_quiz_system.entity.SubmissionAnswerOption;
+import com.example.online_quiz_system.entity.SubmissionQuestion;
+import com.example.online_quiz_system.enums.DifficultyLevel;
+import com.example.online_quiz_system.enums.QuestionType;
+import com.example.online_quiz_system.enums.SubmissionStatus;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable, flattened snapshot of a quiz used by the taking and grading paths.
+ * Questions are stored by position in parallel arrays; nothing here references a JPA entity,
+ * so an instance can be shared freely between request threads.
+ * <p>
+ * A snapshot compiled from a {@link QuizVersion} carries its version id and never goes stale; one compiled
+ * from the live submission (drafts and quizzes that were never approved) has no version id.
+ */
+public final class CompiledQuiz {
+
+    /** Sentinel for "no option" in the primitive option id arrays. */
+    public static final long NO_OPTION = Long.MIN_VALUE;
+
+    /** The total score of a quiz, 10 points, in hundredths. */
+    public static final int MAX_SCORE_CENTS = 1000;
+
+    private final long quizId;
+    private final Long versionId;
+    private final long version;
+    private final String title;
+    private final String description;
+    private final String subject;
+    private final DifficultyLevel difficultyLevel;
+    private final Integer durationMinutes;
+    private final SubmissionStatus status;
+    private final boolean practiceOnly;
+
+    private final long[] questionIds;
+    private final QuestionType[] questionTypes;
+    private final String[] questionTexts;
+    private final String[] explanations;
+    private final String[] essayGuidelines;
+    private final BigDecimal[] maxScores;
+    private final long[][] optionIds;
+    private final String[][] optionTexts;
+    private final int[] correctOptionIndex;
+    private final long[] correctOptionIds;
+    private final int[] maxScoreCents;
+    private final int objectivePointsCents;
+
+    // questionIds sorted ascending, with the position each one maps back to
+    private final long[] sortedQuestionIds;
+    private final int[] sortedPositions;
+
+    private CompiledQuiz(long quizId, Long versionId, LocalDateTime modifiedAt, String title, String description,
+                         String subject, DifficultyLevel difficultyLevel, Integer durationMinutes,
+                         SubmissionStatus status, boolean practiceOnly, List<SubmissionQuestion> questions) {
+        this.quizId = quizId;
+        this.versionId = versionId;
+        this.version = modifiedAt != null
+                ? modifiedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : 0L;
+        this.title = title;
+        this.description = description;
+        this.subject = subject;
+        this.difficultyLevel = difficultyLevel;
+        this.durationMinutes = durationMinutes;
+        this.status = status;
+        this.practiceOnly = practiceOnly;
+
+        int n = questions.size();
+        this.questionIds = new long[n];
+        this.questionTypes = new QuestionType[n];
+        this.questionTexts = new String[n];
+        this.explanations = new String[n];
+        this.essayGuidelines = new String[n];
+        this.maxScores = new BigDecimal[n];
+        this.optionIds = new long[n][];
+        this.optionTexts = new String[n][];
+        this.correctOptionIndex = new int[n];
+        this.correctOptionIds = new long[n];
+        this.maxScoreCents = new int[n];
+
+        for (int i = 0; i < n; i++) {
+            SubmissionQuestion q = questions.get(i);
+            questionIds[i] = q.getId();
+            questionTypes[i] = q.getQuestionType();
+            questionTexts[i] = q.getQuestionText();
+            explanations[i] = q.getExplanation();
+            essayGuidelines[i] = q.getEssayGuidelines();
+            maxScores[i] = q.getMaxScore();
+            maxScoreCents[i] = q.getMaxScore() != null
+                    ? q.getMaxScore().movePointRight(2).setScale(0, RoundingMode.HALF_UP).intValue()
+                    : 0;
+
+            List<SubmissionAnswerOption> options = q.getAnswerOptions() != null ? q.getAnswerOptions() : List.of();
+            optionIds[i] = new long[options.size()];
+            optionTexts[i] = new String[options.size()];
+            correctOptionIndex[i] = -1;
+            for (int j = 0; j < options.size(); j++) {
+                SubmissionAnswerOption o = options.get(j);
+                optionIds[i][j] = o.getId();
+                optionTexts[i][j] = o.getOptionText();
+                if (correctOptionIndex[i] < 0 && Boolean.TRUE.equals(o.getIsCorrect())) {
+                    correctOptionIndex[i] = j;
+                }
+            }
+            correctOptionIds[i] = correctOptionIndex[i] < 0 ? NO_OPTION : optionIds[i][correctOptionIndex[i]];
+        }
+        this.objectivePointsCents = computeObjectivePointsCents();
+
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparingLong(i -> questionIds[i]));
+        this.sortedQuestionIds = new long[n];
+        this.sortedPositions = new int[n];
+        for (int i = 0; i < n; i++) {
+            sortedQuestionIds[i] = questionIds[order[i]];
+            sortedPositions[i] = order[i];
+        }
+    }
+
+    /**
+     * Each non-essay question is worth an equal share of what the essays leave out of 10 points,
+     * rounded half-up to hundredths exactly like the original BigDecimal computation.
+     */
+    private int computeObjectivePointsCents() {
+        int essayCents = 0;
+        int objectiveCount = 0;
+        for (int i = 0; i < questionTypes.length; i++) {
+            if (questionTypes[i] == QuestionType.ESSAY) essayCents += maxScoreCents[i];
+            else objectiveCount++;
+        }
+        if (objectiveCount == 0) return 0;
+        return BigDecimal.valueOf(MAX_SCORE_CENTS - essayCents)
+                .divide(BigDecimal.valueOf(objectiveCount), 0, RoundingMode.HALF_UP)
+                .intValueExact();
+    }
+
+    /**
+     * Builds a snapshot from a quiz and its questions. The questions must already have their
+     * answer options initialised; their list order becomes the display order.
+     */
+    public static CompiledQuiz compile(QuizSubmission quiz, List<SubmissionQuestion> questions) {
+        return new CompiledQuiz(quiz.getId(), null, quiz.getUpdatedAt(), quiz.getTitle(), quiz.getDescription(),
+                quiz.getSubject(), quiz.getDifficultyLevel(), quiz.getDurationMinutes(), quiz.getStatus(), quiz.isPracticeOnly(), questions);
+    }
+
+    /** Builds the snapshot of a published version; {@code questions} must be in the version's display order. */
+    public static CompiledQuiz compile(QuizVersion version, List<SubmissionQuestion> questions) {
+        return new CompiledQuiz(version.getQuizSubmissionId(), version.getId(), version.getCreatedAt(), version.getTitle(),
+                version.getDescription(), version.getSubject(), version.getDifficultyLevel(), version.getDurationMinutes(),
+                SubmissionStatus.APPROVED, version.isPracticeOnly(), questions);
+    }
+
+    public long getQuizId() { return quizId; }
+
+    /** Id of the immutable version this snapshot was compiled from, or null for live draft content. */
+    public Long getVersionId() { return versionId; }
+
+    public long getVersion() { return version; }
+
+    public String getTitle() { return title; }
+
+    public Integer getDurationMinutes() { return durationMinutes; }
+
+    public SubmissionStatus getStatus() { return status; }
+
+    public boolean isPracticeOnly() { return practiceOnly; }
+
+    public int getQuestionCount() { return questionIds.length; }
+
+    public long getQuestionId(int position) { return questionIds[position]; }
+
+    public QuestionType getQuestionType(int position) { return questionTypes[position]; }
+
+    public String getQuestionText(int position) { return questionTexts[position]; }
+
+    public String getExplanation(int position) { return explanations[position]; }
+
+    public BigDecimal getMaxScore(int position) { return maxScores[position]; }
+
+    public int getOptionCount(int position) { return optionIds[position].length; }
+
+    public long getOptionId(int position, int option) { return optionIds[position][option]; }
+
+    public String getOptionText(int position, int option) { return optionTexts[position][option]; }
+
+    /** Index of the correct option of a question, or -1 when it has none (essays). */
+    public int getCorrectOptionIndex(int position) { return correctOptionIndex[position]; }
+
+    /** Id of the correct option of a question, or null when it has none. */
+    public Long getCorrectOptionId(int position) {
+        int idx = correctOptionIndex[position];
+        return idx < 0 ? null : optionIds[position][idx];
+    }
+
+    /** Id of the correct option of a question, or {@link #NO_OPTION}. */
+    public long getCorrectOptionIdRaw(int position) { return correctOptionIds[position]; }
+
+    public int getMaxScoreCents(int position) { return maxScoreCents[position]; }
+
+    /** Points awarded for each correctly answered non-essay question, in hundredths. */
+    public int getObjectivePointsCents() { return objectivePointsCents; }
+
+    public boolean hasOption(int position, long optionId) {
+        long[] ids = optionIds[position];
+        for (long id : ids) {
+            if (id == optionId) return true;
+        }
+        return false;
+    }
+
+    /** Position of a question in this quiz, or -1 if the id does not belong to it. */
+    public int positionOf(long questionId) {
+        int idx = Arrays.binarySearch(sortedQuestionIds, questionId);
+        return idx < 0 ? -1 : sortedPositions[idx];
+    }
+
+    public long countByType(QuestionType type) {
+        long count = 0;
+        for (QuestionType t : questionTypes) {
+            if (t == type) count++;
+        }
+        return count;
+    }
+
+    public QuizForTakingDTO toTakingDTO() {
+        QuizForTakingDTO quizDTO = new QuizForTakingDTO();
+        quizDTO.setId(quizId);
+        quizDTO.setVersionId(versionId);
+        quizDTO.setTitle(title);
+        quizDTO.setDescription(description);
+        quizDTO.setSubject(subject);
+        quizDTO.setDifficultyLevel(difficultyLevel);
+        quizDTO.setDurationMinutes(durationMinutes);
+        quizDTO.setPracticeOnly(practiceOnly);
+
+        List<QuestionForTakingDTO> questionDTOs = new ArrayList<>(questionIds.length);
+        for (int i = 0; i < questionIds.length; i++) {
+            QuestionForTakingDTO qDTO = new QuestionForTakingDTO();
+            qDTO.setId(questionIds[i]);
+            qDTO.setQuestionText(questionTexts[i]);
+            qDTO.setQuestionType(questionTypes[i]);
+            qDTO.setEssayGuidelines(essayGuidelines[i]);
+
+            List<AnswerOptionForTakingDTO> optionDTOs = new ArrayList<>(optionIds[i].length);
+            for (int j = 0; j < optionIds[i].length; j++) {
+                AnswerOptionForTakingDTO oDTO = new AnswerOptionForTakingDTO();
+                oDTO.setId(optionIds[i][j]);
+                oDTO.setOptionText(optionTexts[i][j]);
+                optionDTOs.add(oDTO);
+            }
+            qDTO.setAnswerOptions(optionDTOs);
+            questionDTOs.add(qDTO);
+        }
+        quizDTO.setQuestions(questionDTOs);
+        return quizDTO;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.online_quiz_system.service;
+
+import com.example.online_quiz_system.entity.QuizSubmission;
+import com.example.online_quiz_system.entity.QuizVersion;
+import com.example.online_quiz_system.entity.SubmissionQuestion;
+import com.example.online_quiz_system.enums.SubmissionStatus;
+import com.example.online_quiz_system.repository.QuizSubmissionRepository;
+import com.example.online_quiz_system.repository.QuizVersionRepository;
+import com.example.online_quiz_system.repository.SubmissionQuestionRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory cache of {@link CompiledQuiz} snapshots.
+ * <p>
+ * Published versions are immutable, so their snapshots are cached by version id and never invalidated;
+ * attempts pinned to an old version keep being served from here after the quiz moves on. The current
+ * content of each quiz is cached by quiz id: for an approved quiz it is the very same instance as its
+ * current version, for a draft it is compiled from the live rows and dropped when the quiz is edited or deleted.
+ * A miss compiles with two queries and every concurrent caller for the same key waits on that single load.
+ */
+@Component
+public class CompiledQuizCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompiledQuizCache.class);
+
+    @Autowired
+    private QuizSubmissionRepository quizSubmissionRepository;
+
+    @Autowired
+    private SubmissionQuestionRepository submissionQuestionRepository;
+
+    @Autowired
+    private QuizVersionRepository quizVersionRepository;
+
+    private final ConcurrentHashMap<Long, CompiledQuiz> compiledQuizzes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, CompiledQuiz> compiledVersions = new ConcurrentHashMap<>();
+
+    /** The current content of a quiz: its published version when it is approved, otherwise the live draft. */
+    public CompiledQuiz get(Long quizId) {
+        CompiledQuiz compiled = compiledQuizzes.get(quizId);
+        if (compiled != null) return compiled;
+        return compiledQuizzes.computeIfAbsent(quizId, this::load);
+    }
+
+    /** The snapshot of one published version; cached for good since versions never change. */
+    public CompiledQuiz getVersion(Long versionId) {
+        CompiledQuiz compiled = compiledVersions.get(versionId);
+        if (compiled != null) return compiled;
+        return compiledVersions.computeIfAbsent(versionId, this::loadVersion);
+    }
+
+    /** The content an attempt was started on: its pinned version, or the quiz itself for attempts that predate versioning. */
+    public CompiledQuiz forAttempt(Long quizId, Long quizVersionId) {
+        return quizVersionId != null ? getVersion(quizVersionId) : get(quizId);
+    }
+
+    /**
+     * Compiles a newly created version and makes it the current content of its quiz once the surrounding
+     * transaction commits, so readers never see content that could still be rolled back.
+     */
+    public void publish(QuizVersion version) {
+        CompiledQuiz compiled = CompiledQuiz.compile(version, loadQuestions(version));
+        afterCommit(() -> {
+            compiledVersions.put(compiled.getVersionId(), compiled);
+            compiledQuizzes.put(compiled.getQuizId(), compiled);
+        });
+    }
+
+    public void invalidate(Long quizId) {
+        compiledQuizzes.remove(quizId);
+        // drop it again after commit in case a reader re-compiled the old content meanwhile
+        afterCommit(() -> compiledQuizzes.remove(quizId));
+    }
+
+    /** Forgets a deleted quiz together with all of its versions. */
+    public void evict(Long quizId) {
+        invalidate(quizId);
+        afterCommit(() -> compiledVersions.values().removeIf(c -> c.getQuizId() == quizId));
+    }
+
+    private CompiledQuiz load(Long quizId) {
+        QuizSubmission submission = quizSubmissionRepository.findById(quizId)
+                .orElseThrow(() -> new EntityNotFoundException("Quiz not found with id: " + quizId));
+        if (submission.getStatus() == SubmissionStatus.APPROVED && submission.getCurrentVersionId() != null) {
+            return getVersion(submission.getCurrentVersionId());
+        }
+        List<SubmissionQuestion> questions = submissionQuestionRepository.findBySubmissionIdWithOptions(quizId);
+        logger.debug("Compiled draft of quiz {} with {} questions", quizId, questions.size());
+        return CompiledQuiz.compile(submission, questions);
+    }
+
+    private CompiledQuiz loadVersion(Long versionId) {
+        QuizVersion version = quizVersionRepository.findByIdWithQuestionIds(versionId)
+                .orElseThrow(() -> new EntityNotFoundException("Quiz version not found with id: " + versionId));
+        List<SubmissionQuestion> questions = loadQuestions(version);
+        logger.debug("Compiled version {} of quiz {} with {} questions", versionId, version.getQuizSubmissionId(), questions.size());
+        return CompiledQuiz.compile(version, questions);
+    }
+
+    /** The questions of a version with their options, in the version's display order. */
+    private List<SubmissionQuestion> loadQuestions(QuizVersion version) {
+        if (version.getQuestionIds().isEmpty()) return List.of();
+        Map<Long, SubmissionQuestion> byId = new HashMap<>();
+        for (SubmissionQuestion q : submissionQuestionRepository.findByIdInWithOptions(version.getQuestionIds())) {
+            byId.put(q.getId(), q);
+        }
+        List<SubmissionQuestion> ordered = new ArrayList<>(version.getQuestionIds().size());
+        for (Long id : version.getQuestionIds()) {
+            SubmissionQuestion q = byId.get(id);
+            if (q == null) {
+                throw new IllegalStateException("Question " + id + " of quiz version " + version.getId() + " is missing");
+            }
+            ordered.add(q);
+        }
+        return ordered;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
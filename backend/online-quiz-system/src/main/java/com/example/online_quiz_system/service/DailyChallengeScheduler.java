@@ -0,0 +1,49 @@
+package com.example.online_quiz_system.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Creates the daily challenges of today and the next few days ahead of time, so requests only ever read them.
+ * Runs at startup and then periodically; every run is idempotent, a day that already has its challenges is left as is.
+ */
+@Component
+public class DailyChallengeScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(DailyChallengeScheduler.class);
+
+    @Autowired
+    private ChallengeService challengeService;
+
+    @Value("${app.challenges.days-ahead:2}")
+    private int daysAhead;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        pregenerate();
+    }
+
+    @Scheduled(cron = "${app.challenges.pregenerate-cron:0 0 * * * *}")
+    public void pregenerate() {
+        LocalDate today = LocalDate.now();
+        for (int d = 0; d <= daysAhead; d++) {
+            LocalDate date = today.plusDays(d);
+            try {
+                int created = challengeService.ensureDailyChallenges(date);
+                if (created > 0) {
+                    logger.info("Generated {} daily challenges for {}", created, date);
+                }
+            } catch (Exception e) {
+                logger.error("Could not generate daily challenges for {}", date, e);
+            }
+        }
+    }
+}
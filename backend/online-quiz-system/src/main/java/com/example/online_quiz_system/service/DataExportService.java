@@ -0,0 +1,229 @@
+package com.example.online_quiz_system.service;
+
+import com.example.online_quiz_system.exception.BusinessException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Admin export of quizzes, attempts and answers as NDJSON or CSV. Rows are read through a server-side
+ * cursor ({@code fetchSize} rows at a time inside a read-only transaction) and written straight to the
+ * response, so memory use does not depend on the number of rows exported.
+ */
+@Service
+public class DataExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataExportService.class);
+
+    public enum Dataset {
+        QUIZZES("SELECT qs.id, qs.title, qs.subject, qs.difficulty_level, qs.duration_minutes, qs.status, " +
+                "qs.contributor_id, qs.question_count, qs.attempt_count, qs.average_score, qs.created_at, qs.approved_at " +
+                "FROM quiz_submissions qs", "qs.created_at", "qs.id", "qs.contributor_id", "qs.id"),
+        ATTEMPTS("SELECT qa.id, qa.user_id, qa.quiz_submission_id, qa.status, qa.start_time, qa.end_time, " +
+                "qa.score, qa.correct_answers, qa.total_questions " +
+                "FROM quiz_attempts qa", "qa.start_time", "qa.quiz_submission_id", "qa.user_id", "qa.id"),
+        ANSWERS("SELECT ua.id, ua.quiz_attempt_id, qa.user_id, qa.quiz_submission_id, ua.question_id, " +
+                "ua.selected_option_id, ua.answer_text, ua.is_correct, ua.score, ua.created_at " +
+                "FROM user_answers ua JOIN quiz_attempts qa ON qa.id = ua.quiz_attempt_id",
+                "qa.start_time", "qa.quiz_submission_id", "qa.user_id", "ua.id");
+
+        private final String select;
+        private final String dateColumn;
+        private final String quizColumn;
+        private final String userColumn;
+        private final String orderColumn;
+
+        Dataset(String select, String dateColumn, String quizColumn, String userColumn, String orderColumn) {
+            this.select = select;
+            this.dateColumn = dateColumn;
+            this.quizColumn = quizColumn;
+            this.userColumn = userColumn;
+            this.orderColumn = orderColumn;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.export.fetch-size:1000}")
+    private int fetchSize;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    public static Dataset parseDataset(String dataset) {
+        try {
+            return Dataset.valueOf(dataset.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Loại dữ liệu xuất không hợp lệ: " + dataset);
+        }
+    }
+
+    public static boolean isCsv(String format) {
+        String f = format == null ? "ndjson" : format.trim().toLowerCase(Locale.ROOT);
+        if (f.equals("csv")) return true;
+        if (f.equals("ndjson")) return false;
+        throw new BusinessException("Định dạng xuất không được hỗ trợ: " + format + " (chỉ nhận ndjson hoặc csv)");
+    }
+
+    /**
+     * Builds the response body for an export. Filters are optional; {@code to} is inclusive.
+     * Arguments are validated here, before anything is written to the response.
+     */
+    public StreamingResponseBody export(Dataset dataset, boolean csv, LocalDate from, LocalDate to, Long quizId, Long userId) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BusinessException("Ngày bắt đầu phải trước ngày kết thúc");
+        }
+        StringBuilder sql = new StringBuilder(dataset.select).append(" WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+        if (from != null) {
+            sql.append(" AND ").append(dataset.dateColumn).append(" >= ?");
+            params.add(Timestamp.valueOf(from.atStartOfDay()));
+        }
+        if (to != null) {
+            sql.append(" AND ").append(dataset.dateColumn).append(" < ?");
+            params.add(Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+        }
+        if (quizId != null) {
+            sql.append(" AND ").append(dataset.quizColumn).append(" = ?");
+            params.add(quizId);
+        }
+        if (userId != null) {
+            sql.append(" AND ").append(dataset.userColumn).append(" = ?");
+            params.add(userId);
+        }
+        sql.append(" ORDER BY ").append(dataset.orderColumn);
+        String query = sql.toString();
+
+        return out -> {
+            long started = System.currentTimeMillis();
+            Long rows = readOnlyTransaction.execute(status -> jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(fetchSize);
+                for (int i = 0; i < params.size(); i++) ps.setObject(i + 1, params.get(i));
+                return ps;
+            }, csv ? csvExtractor(out) : ndjsonExtractor(out)));
+            logger.info("Exported {} {} rows in {} ms", rows, dataset.name().toLowerCase(Locale.ROOT),
+                    System.currentTimeMillis() - started);
+        };
+    }
+
+    private ResultSetExtractor<Long> ndjsonExtractor(OutputStream out) {
+        return rs -> {
+            try {
+                JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+                json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                json.setRootValueSeparator(null);
+                ResultSetMetaData meta = rs.getMetaData();
+                int columns = meta.getColumnCount();
+                long count = 0;
+                while (rs.next()) {
+                    json.writeStartObject();
+                    for (int i = 1; i <= columns; i++) {
+                        json.writeFieldName(meta.getColumnLabel(i));
+                        writeJsonValue(json, rs.getObject(i));
+                    }
+                    json.writeEndObject();
+                    json.writeRaw('\n');
+                    if (++count % fetchSize == 0) json.flush();
+                }
+                json.flush();
+                return count;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    private ResultSetExtractor<Long> csvExtractor(OutputStream out) {
+        return rs -> {
+            try {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                ResultSetMetaData meta = rs.getMetaData();
+                int columns = meta.getColumnCount();
+                for (int i = 1; i <= columns; i++) {
+                    if (i > 1) writer.write(',');
+                    writer.write(meta.getColumnLabel(i));
+                }
+                writer.write('\n');
+                long count = 0;
+                while (rs.next()) {
+                    for (int i = 1; i <= columns; i++) {
+                        if (i > 1) writer.write(',');
+                        writeCsvValue(writer, rs.getObject(i));
+                    }
+                    writer.write('\n');
+                    if (++count % fetchSize == 0) writer.flush();
+                }
+                writer.flush();
+                return count;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    private static void writeJsonValue(JsonGenerator json, Object value) throws IOException {
+        if (value == null) json.writeNull();
+        else if (value instanceof BigDecimal) json.writeNumber((BigDecimal) value);
+        else if (value instanceof Long || value instanceof Integer || value instanceof Short) json.writeNumber(((Number) value).longValue());
+        else if (value instanceof Number) json.writeNumber(((Number) value).doubleValue());
+        else if (value instanceof Boolean) json.writeBoolean((Boolean) value);
+        else json.writeString(textOf(value));
+    }
+
+    private static void writeCsvValue(Writer writer, Object value) throws IOException {
+        if (value == null) return;
+        String text = textOf(value);
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static String textOf(Object value) {
+        if (value instanceof Timestamp) return ((Timestamp) value).toLocalDateTime().toString();
+        return value.toString();
+    }
+}
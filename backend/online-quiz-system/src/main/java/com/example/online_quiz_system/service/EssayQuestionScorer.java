@@ -0,0 +1,26 @@
+package com.example.online_quiz_system.service;
+
+import com.example.online_quiz_system.enums.QuestionType;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+@Component
+public class EssayQuestionScorer implements QuestionScorer {
+
+    @Override
+    public Set<QuestionType> getSupportedTypes() {
+        return EnumSet.of(QuestionType.ESSAY);
+    }
+
+    @Override
+    public byte evaluate(CompiledQuiz quiz, int position, long selectedOptionId) {
+        return PENDING;
+    }
+
+    @Override
+    public int pointsCents(CompiledQuiz quiz, int position) {
+        return 0;
+    }
+}
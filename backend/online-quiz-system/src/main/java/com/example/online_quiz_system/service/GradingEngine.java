@@ -0,0 +1,139 @@
+package com.example.online_quiz_system.service;
+
+import com.example.online_quiz_system.dto.UserAnswerRequestDTO;
+import com.example.online_quiz_system.enums.QuestionType;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Grades an attempt against a {@link CompiledQuiz}. Answers are laid out by question position in
+ * primitive arrays and scores are summed as integer hundredths, so grading a quiz costs a couple of
+ * small array allocations instead of maps, streams and BigDecimal arithmetic per question.
+ */
+@Component
+public class GradingEngine {
+
+    /** Outcome of a question the student did not answer. */
+    public static final byte UNANSWERED = -1;
+
+    private final Map<QuestionType, QuestionScorer> scorers = new EnumMap<>(QuestionType.class);
+
+    public GradingEngine(List<QuestionScorer> questionScorers) {
+        for (QuestionScorer scorer : questionScorers) {
+            for (QuestionType type : scorer.getSupportedTypes()) {
+                if (scorers.putIfAbsent(type, scorer) != null) {
+                    throw new IllegalStateException("Duplicate scorer for question type " + type);
+                }
+            }
+        }
+    }
+
+    public AnswerSheet sheetOf(CompiledQuiz quiz, Collection<UserAnswerRequestDTO> answers) {
+        AnswerSheet sheet = new AnswerSheet(quiz.getQuestionCount());
+        overlay(quiz, sheet, answers);
+        return sheet;
+    }
+
+    /** Records {@code answers} on top of whatever {@code sheet} already holds; answers to unknown questions are ignored. */
+    public void overlay(CompiledQuiz quiz, AnswerSheet sheet, Collection<UserAnswerRequestDTO> answers) {
+        if (answers == null) return;
+        for (UserAnswerRequestDTO answer : answers) {
+            if (answer == null || answer.getQuestionId() == null) continue;
+            int position = quiz.positionOf(answer.getQuestionId());
+            if (position >= 0) sheet.record(position, answer.getSelectedOptionId(), answer.getAnswerText());
+        }
+    }
+
+    public GradedAttempt grade(CompiledQuiz quiz, AnswerSheet sheet) {
+        int n = quiz.getQuestionCount();
+        byte[] outcomes = new byte[n];
+        int correct = 0;
+        int scoreCents = 0;
+        for (int i = 0; i < n; i++) {
+            if (!sheet.answered[i]) {
+                outcomes[i] = UNANSWERED;
+                continue;
+            }
+            QuestionScorer scorer = scorers.get(quiz.getQuestionType(i));
+            if (scorer == null) {
+                throw new IllegalStateException("No scorer for question type " + quiz.getQuestionType(i));
+            }
+            byte outcome = scorer.evaluate(quiz, i, sheet.selectedOptionIds[i]);
+            outcomes[i] = outcome;
+            if (outcome == QuestionScorer.CORRECT) {
+                correct++;
+                scoreCents += scorer.pointsCents(quiz, i);
+            }
+        }
+        return new GradedAttempt(outcomes, correct, scoreCents);
+    }
+
+    /** Evaluates a single question, for checks outside of an attempt. */
+    public byte evaluate(CompiledQuiz quiz, int position, Long selectedOptionId) {
+        QuestionScorer scorer = scorers.get(quiz.getQuestionType(position));
+        if (scorer == null) {
+            throw new IllegalStateException("No scorer for question type " + quiz.getQuestionType(position));
+        }
+        return scorer.evaluate(quiz, position, selectedOptionId != null ? selectedOptionId : CompiledQuiz.NO_OPTION);
+    }
+
+    /** The answers of one attempt, indexed by question position. */
+    public static final class AnswerSheet {
+        private final boolean[] answered;
+        private final long[] selectedOptionIds;
+        private final String[] answerTexts;
+
+        public AnswerSheet(int questionCount) {
+            this.answered = new boolean[questionCount];
+            this.selectedOptionIds = new long[questionCount];
+            this.answerTexts = new String[questionCount];
+            Arrays.fill(selectedOptionIds, CompiledQuiz.NO_OPTION);
+        }
+
+        public void record(int position, Long selectedOptionId, String answerText) {
+            answered[position] = true;
+            selectedOptionIds[position] = selectedOptionId != null ? selectedOptionId : CompiledQuiz.NO_OPTION;
+            answerTexts[position] = answerText;
+        }
+
+        public boolean isAnswered(int position) { return answered[position]; }
+
+        /** The selected option id, or null when none was chosen. */
+        public Long getSelectedOptionId(int position) {
+            long id = selectedOptionIds[position];
+            return id == CompiledQuiz.NO_OPTION ? null : id;
+        }
+
+        public String getAnswerText(int position) { return answerTexts[position]; }
+
+        public int size() { return answered.length; }
+    }
+
+    /** Result of {@link #grade}: one outcome per question position plus the totals. */
+    public static final class GradedAttempt {
+        private final byte[] outcomes;
+        private final int correctCount;
+        private final int scoreCents;
+
+        private GradedAttempt(byte[] outcomes, int correctCount, int scoreCents) {
+            this.outcomes = outcomes;
+            this.correctCount = correctCount;
+            this.scoreCents = scoreCents;
+        }
+
+        /** {@link QuestionScorer#CORRECT}, {@link QuestionScorer#INCORRECT}, {@link QuestionScorer#PENDING} or {@link #UNANSWERED}. */
+        public byte getOutcome(int position) { return outcomes[position]; }
+
+        public int getCorrectCount() { return correctCount; }
+
+        public int getScoreCents() { return scoreCents; }
+
+        public BigDecimal getScore() { return BigDecimal.valueOf(scoreCents, 2); }
+    }
+}
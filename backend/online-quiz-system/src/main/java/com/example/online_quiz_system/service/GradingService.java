@@ -15,7 +15,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -65,6 +68,12 @@ public class GradingService {
                 .orElseThrow(() -> new EntityNotFoundException("QuizAttempt not found with id: " + submission.getAttemptId()));
 
         BigDecimal totalEssayScore = BigDecimal.ZERO;
+        Map<Long, ResultAnswerDTO> snapshotAnswers = new HashMap<>();
+        // Grades go into a copy that replaces the stored snapshot, so the JSON column is seen as changed
+        AttemptResultDTO snapshot = copyOf(attempt.getResultSnapshot());
+        if (snapshot != null && snapshot.getUserAnswers() != null) {
+            snapshot.getUserAnswers().forEach(a -> snapshotAnswers.put(a.getQuestionId(), a));
+        }
 
         for(GradeDTO grade : submission.getGrades()){
             UserAnswer userAnswer = userAnswerRepository.findById(grade.getUserAnswerId())
@@ -80,12 +89,23 @@ public class GradingService {
             userAnswer.setIsCorrect(grade.getScore().compareTo(BigDecimal.ZERO) > 0);
             userAnswerRepository.save(userAnswer);
 
+            ResultAnswerDTO snapshotAnswer = snapshotAnswers.get(userAnswer.getQuestion().getId());
+            if (snapshotAnswer != null) {
+                snapshotAnswer.setScore(userAnswer.getScore());
+                snapshotAnswer.setFeedback(userAnswer.getAdminFeedback());
+                snapshotAnswer.setIsCorrect(userAnswer.getIsCorrect());
+            }
+
             totalEssayScore = totalEssayScore.add(grade.getScore());
         }
 
         BigDecimal currentScoreFromAutoGraded = attempt.getScore() != null ? attempt.getScore() : BigDecimal.ZERO;
         BigDecimal newTotalScore = currentScoreFromAutoGraded.add(totalEssayScore);
         attempt.setScore(newTotalScore);
+        if (snapshot != null) {
+            snapshot.setScore(newTotalScore);
+            attempt.setResultSnapshot(snapshot);
+        }
         quizAttemptRepository.save(attempt);
 
         EssayGradingRequest request = gradingRequestRepository.findByQuizAttemptId(attempt.getId())
@@ -96,4 +116,33 @@ public class GradingService {
 //        request.setAssignedTo();
         gradingRequestRepository.save(request);
     }
+
+    private static AttemptResultDTO copyOf(AttemptResultDTO snapshot) {
+        if (snapshot == null) return null;
+        AttemptResultDTO copy = new AttemptResultDTO();
+        copy.setAttemptId(snapshot.getAttemptId());
+        copy.setQuizId(snapshot.getQuizId());
+        copy.setQuizTitle(snapshot.getQuizTitle());
+        copy.setCompletedAt(snapshot.getCompletedAt());
+        copy.setScore(snapshot.getScore());
+        copy.setMaxScore(snapshot.getMaxScore());
+        copy.setCorrectAnswers(snapshot.getCorrectAnswers());
+        copy.setTotalQuestions(snapshot.getTotalQuestions());
+        copy.setQuestions(snapshot.getQuestions() != null ? new ArrayList<>(snapshot.getQuestions()) : null);
+        if (snapshot.getUserAnswers() != null) {
+            List<ResultAnswerDTO> answers = new ArrayList<>(snapshot.getUserAnswers().size());
+            for (ResultAnswerDTO answer : snapshot.getUserAnswers()) {
+                ResultAnswerDTO answerCopy = new ResultAnswerDTO();
+                answerCopy.setQuestionId(answer.getQuestionId());
+                answerCopy.setSelectedOptionId(answer.getSelectedOptionId());
+                answerCopy.setAnswerText(answer.getAnswerText());
+                answerCopy.setIsCorrect(answer.getIsCorrect());
+                answerCopy.setScore(answer.getScore());
+                answerCopy.setFeedback(answer.getFeedback());
+                answers.add(answerCopy);
+            }
+            copy.setUserAnswers(answers);
+        }
+        return copy;
+    }
 }
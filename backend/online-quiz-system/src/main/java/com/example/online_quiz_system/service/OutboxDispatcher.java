@@ -0,0 +1,207 @@
+package com.example.online_quiz_system.service;
+
+import com.example.online_quiz_system.entity.OutboxEvent;
+import com.example.online_quiz_system.enums.OutboxStatus;
+import com.example.online_quiz_system.repository.OutboxEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls {@code outbox_events} and applies each event on a bounded pool of worker lanes.
+ * Every lane is a single thread with a bounded queue; events with the same partition key
+ * (the user id for quiz completions) always go to the same lane, so one user's ranking and
+ * challenge rows are never updated by two workers at once.
+ */
+@Component
+public class OutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private static final long MAX_BACKOFF_SECONDS = 600;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private List<OutboxEventHandler> eventHandlers;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.outbox.workers:4}")
+    private int workerCount;
+
+    @Value("${app.outbox.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${app.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.outbox.lock-timeout-seconds:300}")
+    private long lockTimeoutSeconds;
+
+    @Value("${app.outbox.retention-days:7}")
+    private int retentionDays;
+
+    private final Map<String, OutboxEventHandler> handlersByType = new HashMap<>();
+    private ThreadPoolExecutor[] lanes;
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        for (OutboxEventHandler handler : eventHandlers) {
+            handlersByType.put(handler.getEventType(), handler);
+        }
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        lanes = new ThreadPoolExecutor[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            int laneIndex = i;
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    r -> {
+                        Thread t = new Thread(r, "outbox-worker-" + laneIndex);
+                        t.setDaemon(true);
+                        return t;
+                    });
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:500}")
+    public void dispatch() {
+        int capacity = freeCapacity();
+        if (capacity == 0) return;
+
+        List<OutboxEvent> claimed = transactionTemplate.execute(status -> {
+            // locked_at doubles as the claim token, so keep it at the precision PostgreSQL stores
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+            List<OutboxEvent> events = outboxEventRepository.lockDueEvents(
+                    now, now.minusSeconds(lockTimeoutSeconds), Math.min(batchSize, capacity));
+            for (OutboxEvent event : events) {
+                event.setStatus(OutboxStatus.PROCESSING);
+                event.setLockedAt(now);
+            }
+            return events;
+        });
+        if (claimed == null || claimed.isEmpty()) return;
+
+        List<Long> rejected = new ArrayList<>();
+        for (OutboxEvent event : claimed) {
+            try {
+                laneFor(event).execute(() -> process(event));
+            } catch (RejectedExecutionException e) {
+                rejected.add(event.getId());
+            }
+        }
+        if (!rejected.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.release(rejected));
+        }
+    }
+
+    @Scheduled(cron = "0 30 3 * * *")
+    public void purgeProcessedEvents() {
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxEventRepository.deleteProcessedBefore(LocalDateTime.now().minusDays(retentionDays)));
+        if (deleted != null && deleted > 0) {
+            logger.info("Deleted {} processed outbox events", deleted);
+        }
+    }
+
+    private void process(OutboxEvent event) {
+        OutboxEventHandler handler = handlersByType.get(event.getEventType());
+        try {
+            if (handler == null) {
+                throw new IllegalStateException("No handler for outbox event type " + event.getEventType());
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                // The row lock keeps the event from being reclaimed while the handler runs; if the claim went
+                // stale while the event sat in the lane queue, the new owner handles it instead
+                if (outboxEventRepository.findClaimForUpdate(event.getId(), event.getLockedAt()).isEmpty()) {
+                    logger.warn("Outbox event {} was reclaimed before it ran; skipping", event.getId());
+                    return;
+                }
+                try {
+                    handler.handle(event.getPayload());
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                outboxEventRepository.markProcessed(event.getId(), event.getLockedAt(), OutboxStatus.DONE, LocalDateTime.now());
+            });
+        } catch (Exception e) {
+            recordFailure(event, e);
+        }
+    }
+
+    private void recordFailure(OutboxEvent event, Exception e) {
+        int attempts = event.getAttempts() + 1;
+        boolean exhausted = attempts >= maxAttempts;
+        long backoffSeconds = Math.min(MAX_BACKOFF_SECONDS, 1L << Math.min(attempts, 20));
+        String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+
+        if (exhausted) {
+            logger.error("Outbox event {} ({}) failed permanently after {} attempts", event.getId(), event.getEventType(), attempts, e);
+        } else {
+            logger.warn("Outbox event {} ({}) failed, retrying in {}s: {}", event.getId(), event.getEventType(), backoffSeconds, error);
+        }
+        try {
+            Integer updated = transactionTemplate.execute(status -> outboxEventRepository.markFailedAttempt(
+                    event.getId(),
+                    event.getLockedAt(),
+                    exhausted ? OutboxStatus.FAILED : OutboxStatus.PENDING,
+                    error,
+                    LocalDateTime.now().plusSeconds(backoffSeconds)));
+            if (updated == null || updated == 0) {
+                logger.warn("Outbox event {} was reclaimed by another worker; its failure is not recorded", event.getId());
+            }
+        } catch (Exception ex) {
+            // Event stays PROCESSING and will be reclaimed after the lock timeout
+            logger.error("Could not record failure of outbox event {}", event.getId(), ex);
+        }
+    }
+
+    private ThreadPoolExecutor laneFor(OutboxEvent event) {
+        long key = event.getPartitionKey() != null ? event.getPartitionKey() : event.getId();
+        return lanes[(int) Math.floorMod(key, (long) lanes.length)];
+    }
+
+    private int freeCapacity() {
+        int free = 0;
+        for (ThreadPoolExecutor lane : lanes) {
+            free += lane.getQueue().remainingCapacity();
+        }
+        return free;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.online_quiz_system.service;
+
+/**
+ * Applies one type of outbox event. Handlers run inside the dispatcher's transaction, which also marks
+ * the event as done, so a handler either takes full effect or is retried later.
+ */
+public interface OutboxEventHandler {
+
+    String getEventType();
+
+    void handle(String payload) throws Exception;
+}
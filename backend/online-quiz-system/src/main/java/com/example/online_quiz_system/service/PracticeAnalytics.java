@@ -0,0 +1,107 @@
+package com.example.online_quiz_system.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sampled analytics for practice-mode answer checks.
+ * A sampled check is handed to a single worker thread with a bounded queue and aggregated there per question;
+ * the aggregate is upserted into {@code question_practice_stats} periodically by the same worker.
+ * When the queue is full events are dropped, so checks never wait on analytics.
+ */
+@Component
+public class PracticeAnalytics {
+
+    private static final Logger logger = LoggerFactory.getLogger(PracticeAnalytics.class);
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO question_practice_stats (question_id, sampled_checks, sampled_correct, updated_at) " +
+            "VALUES (?, ?, ?, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (question_id) DO UPDATE SET " +
+            "sampled_checks = question_practice_stats.sampled_checks + EXCLUDED.sampled_checks, " +
+            "sampled_correct = question_practice_stats.sampled_correct + EXCLUDED.sampled_correct, " +
+            "updated_at = EXCLUDED.updated_at";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.practice.analytics-sample-rate:0.1}")
+    private double sampleRate;
+
+    @Value("${app.practice.analytics-queue-capacity:10000}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor worker;
+
+    // Only touched by the worker thread: question id -> {checks, correct}
+    private Map<Long, long[]> counts = new HashMap<>();
+
+    @PostConstruct
+    void init() {
+        worker = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "practice-analytics");
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        try {
+            worker.execute(this::writeCounts);
+        } catch (RejectedExecutionException ignored) {
+            // already shutting down
+        }
+        worker.shutdown();
+        worker.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /** Records a check of {@code questionId}; {@code isCorrect} is null for essays. */
+    public void record(Long questionId, Boolean isCorrect) {
+        if (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate) return;
+        boolean correct = Boolean.TRUE.equals(isCorrect);
+        worker.execute(() -> {
+            long[] c = counts.computeIfAbsent(questionId, id -> new long[2]);
+            c[0]++;
+            if (correct) c[1]++;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.practice.analytics-flush-interval-ms:60000}")
+    public void flush() {
+        worker.execute(this::writeCounts);
+    }
+
+    private void writeCounts() {
+        if (counts.isEmpty()) return;
+        Map<Long, long[]> batch = counts;
+        counts = new HashMap<>();
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        batch.forEach((questionId, c) -> rows.add(new Object[]{questionId, c[0], c[1]}));
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+        } catch (Exception e) {
+            logger.warn("Dropped practice analytics of {} questions: {}", rows.size(), e.getMessage());
+        }
+    }
+}
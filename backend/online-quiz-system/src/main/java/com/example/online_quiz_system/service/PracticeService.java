@@ -0,0 +1,130 @@
+package com.example.online_quiz_system.service;
+
+import com.example.online_quiz_system.dto.AnswerCheckRequestDTO;
+import com.example.online_quiz_system.dto.AnswerCheckResultDTO;
+import com.example.online_quiz_system.enums.SubmissionStatus;
+import com.example.online_quiz_system.exception.TooManyRequestsException;
+import com.example.online_quiz_system.repository.QuizAttemptRepository;
+import com.example.online_quiz_system.util.BoundedTtlCache;
+import com.example.online_quiz_system.util.FixedWindowRateLimiter;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Practice mode: checks one answer at a time against the compiled answer key of a quiz.
+ * Nothing is written to the database; the only side effect is a sampled, asynchronous analytics event.
+ * <p>
+ * The correct option and the explanation are only returned for practice-only quizzes and to users who have
+ * already completed an attempt of the quiz; anyone else only learns whether their own answer is right, so the
+ * endpoint cannot be used to collect the answer key of a graded quiz. Checks are rate-limited per user.
+ */
+@Service
+public class PracticeService {
+
+    private static final int COMPLETED_CACHE_SIZE = 10_000;
+    private static final long COMPLETED_CACHE_TTL_MS = 10 * 60_000L;
+    private static final long NOT_COMPLETED_CACHE_TTL_MS = 30_000L;
+
+    @Autowired
+    private CompiledQuizCache compiledQuizCache;
+
+    @Autowired
+    private GradingEngine gradingEngine;
+
+    @Autowired
+    private PracticeAnalytics practiceAnalytics;
+
+    @Autowired
+    private QuizAttemptRepository quizAttemptRepository;
+
+    @Value("${app.practice.check-rate-limit:60}")
+    private int checkRateLimit;
+
+    @Value("${app.practice.check-rate-window-ms:60000}")
+    private long checkRateWindowMs;
+
+    private FixedWindowRateLimiter<Long> checkRateLimiter;
+
+    // "userId:quizId" of users known to have completed the quiz; a completed attempt never reverts
+    private final BoundedTtlCache<String, Boolean> completedQuizzes =
+            new BoundedTtlCache<>(COMPLETED_CACHE_SIZE, COMPLETED_CACHE_TTL_MS);
+
+    // Users found without a completed attempt; kept briefly since a submit turns the answer around
+    private final BoundedTtlCache<String, Boolean> notCompletedQuizzes =
+            new BoundedTtlCache<>(COMPLETED_CACHE_SIZE, NOT_COMPLETED_CACHE_TTL_MS);
+
+    @PostConstruct
+    void init() {
+        checkRateLimiter = new FixedWindowRateLimiter<>(checkRateLimit, checkRateWindowMs);
+    }
+
+    public AnswerCheckResultDTO checkAnswer(Long quizId, Long questionId, AnswerCheckRequestDTO request, Long userId) {
+        if (!checkRateLimiter.tryAcquire(userId, System.currentTimeMillis()))
+            throw new TooManyRequestsException("Bạn kiểm tra đáp án quá nhanh, vui lòng thử lại sau ít phút.");
+
+        CompiledQuiz quiz = compiledQuizCache.get(quizId);
+        if (quiz.getStatus() != SubmissionStatus.APPROVED)
+            throw new EntityNotFoundException("Không tìm thấy đề thi");
+
+        int position = quiz.positionOf(questionId);
+        if (position < 0)
+            throw new EntityNotFoundException("Không tìm thấy câu hỏi với ID: " + questionId);
+
+        byte outcome = gradingEngine.evaluate(quiz, position, request.getSelectedOptionId());
+        Boolean isCorrect = outcome == QuestionScorer.PENDING ? null : outcome == QuestionScorer.CORRECT;
+        practiceAnalytics.record(questionId, isCorrect);
+
+        if (!quiz.isPracticeOnly() && !hasCompleted(userId, quizId)) {
+            return new AnswerCheckResultDTO(questionId, isCorrect, null, null);
+        }
+        return new AnswerCheckResultDTO(questionId, isCorrect, quiz.getCorrectOptionId(position), quiz.getExplanation(position));
+    }
+
+    /**
+     * Records a completed attempt once the current transaction commits. The positive entry is checked first,
+     * so it overrides a negative one cached before the submit.
+     */
+    public void recordCompletionAfterCommit(Long userId, Long quizId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recordCompletion(userId, quizId);
+                }
+            });
+        } else {
+            recordCompletion(userId, quizId);
+        }
+    }
+
+    private void recordCompletion(Long userId, Long quizId) {
+        synchronized (completedQuizzes) {
+            completedQuizzes.put(userId + ":" + quizId, Boolean.TRUE, System.currentTimeMillis());
+        }
+    }
+
+    private boolean hasCompleted(Long userId, Long quizId) {
+        String key = userId + ":" + quizId;
+        long now = System.currentTimeMillis();
+        synchronized (completedQuizzes) {
+            if (completedQuizzes.get(key, now) != null) return true;
+            if (notCompletedQuizzes.get(key, now) != null) return false;
+        }
+        boolean completed = quizAttemptRepository.existsByUserIdAndQuizSubmissionIdAndStatus(userId, quizId, "COMPLETED");
+        synchronized (completedQuizzes) {
+            (completed ? completedQuizzes : notCompletedQuizzes).put(key, Boolean.TRUE, now);
+        }
+        return completed;
+    }
+
+    @Scheduled(fixedDelayString = "${app.practice.check-rate-window-ms:60000}")
+    public void evictRateLimitWindows() {
+        checkRateLimiter.evictExpired(System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,276 @@
+package com.example.online_quiz_system.service;
+
+import com.example.online_quiz_system.entity.QuizSubmission;
+import com.example.online_quiz_system.entity.SubmissionQuestion;
+import com.example.online_quiz_system.util.MinHash;
+import com.example.online_quiz_system.util.MinHashLshIndex;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Flags questions that nearly repeat a question of another quiz.
+ * <p>
+ * Every live question has a {@link MinHash} signature, stored in {@code submission_questions.minhash_signature}
+ * and held in a {@link MinHashLshIndex} grouped by submission. When a quiz is submitted or edited each of its
+ * questions is looked up in the index (a few bucket probes and signature comparisons, well under a millisecond),
+ * and the best match at or above the threshold is recorded on the question. The index is loaded from the stored
+ * signatures at startup and updated after commit; questions stored before signatures existed are signed by
+ * {@link #backfill()}, which runs once at startup and can be re-run by an admin.
+ */
+@Component
+public class QuestionDuplicateDetector {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuestionDuplicateDetector.class);
+
+    private static final int LOAD_FETCH_SIZE = 5000;
+
+    private static final String LOAD_SQL =
+            "SELECT id, submission_id, minhash_signature FROM submission_questions " +
+            "WHERE retired = false AND minhash_signature IS NOT NULL";
+
+    private static final String UNSIGNED_SQL =
+            "SELECT id, submission_id, question_text FROM submission_questions " +
+            "WHERE retired = false AND minhash_signature IS NULL AND id > ? ORDER BY id LIMIT ?";
+
+    private static final String STORE_SIGNATURE_SQL =
+            "UPDATE submission_questions SET minhash_signature = ?, duplicate_of_question_id = ?, duplicate_similarity = ? " +
+            "WHERE id = ?";
+
+    private static final String RECOUNT_SQL =
+            "UPDATE quiz_submissions s SET duplicate_question_count = (" +
+            "SELECT COUNT(*) FROM submission_questions q " +
+            "WHERE q.submission_id = s.id AND q.retired = false AND q.duplicate_of_question_id IS NOT NULL) " +
+            "WHERE s.id = ANY(?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.duplicates.similarity-threshold:0.75}")
+    private double similarityThreshold;
+
+    @Value("${app.duplicates.backfill-batch-size:500}")
+    private int backfillBatchSize;
+
+    private final MinHashLshIndex index = new MinHashLshIndex();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean backfillRunning = new AtomicBoolean();
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            index.clear();
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(LOAD_SQL);
+                ps.setFetchSize(LOAD_FETCH_SIZE);
+                return ps;
+            }, rs -> {
+                int[] signature = MinHash.fromBytes(rs.getBytes(3));
+                if (signature != null) index.put(rs.getLong(1), rs.getLong(2), signature);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Indexed {} question signatures for duplicate detection", index.size());
+
+        Thread backfill = new Thread(this::backfillAtStartup, "question-signature-backfill");
+        backfill.setDaemon(true);
+        backfill.start();
+    }
+
+    /**
+     * Signs the live questions of {@code submission} that have no signature yet and records, for each of them,
+     * the most similar question of another quiz. Updates the submission's duplicate count.
+     */
+    public void flag(QuizSubmission submission) {
+        long ownGroup = submission.getId() != null ? submission.getId() : Long.MIN_VALUE;
+        int duplicates = 0;
+        lock.readLock().lock();
+        try {
+            for (SubmissionQuestion question : submission.getQuestions()) {
+                if (question.isRetired()) continue;
+                int[] signature = MinHash.fromBytes(question.getMinhashSignature());
+                if (signature == null) {
+                    signature = MinHash.signature(question.getQuestionText());
+                    question.setMinhashSignature(MinHash.toBytes(signature));
+                }
+                MinHashLshIndex.Match match = signature != null
+                        ? index.findBest(signature, ownGroup, Long.MAX_VALUE, similarityThreshold)
+                        : null;
+                question.setDuplicateOfQuestionId(match != null ? match.getId() : null);
+                question.setDuplicateSimilarity(match != null ? match.getSimilarity() : null);
+                if (match != null) duplicates++;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        submission.setDuplicateQuestionCount(duplicates);
+    }
+
+    /** Replaces the submission's entries in the index with its live questions once the transaction commits. */
+    public void indexAfterCommit(QuizSubmission submission) {
+        List<SubmissionQuestion> questions = new ArrayList<>(submission.getQuestions());
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                index.removeGroup(submission.getId());
+                for (SubmissionQuestion question : questions) {
+                    int[] signature = MinHash.fromBytes(question.getMinhashSignature());
+                    if (!question.isRetired() && question.getId() != null && signature != null) {
+                        index.put(question.getId(), submission.getId(), signature);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void removeAfterCommit(Long submissionId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                index.removeGroup(submissionId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Signs every live question that has no signature yet, in id order and in batches of one transaction each.
+     * A question is only compared against older questions, so the earlier of two near-duplicates is kept as the
+     * original. Returns the number of questions signed, or -1 if a backfill is already running. A failure is
+     * thrown to the caller; batches committed before it stay signed and the next run resumes after them.
+     */
+    public int backfill() {
+        if (!backfillRunning.compareAndSet(false, true)) return -1;
+        try {
+            long afterId = 0L;
+            int signed = 0;
+            while (true) {
+                long from = afterId;
+                List<UnsignedQuestion> batch = jdbcTemplate.query(UNSIGNED_SQL,
+                        (rs, rowNum) -> new UnsignedQuestion(rs.getLong(1), rs.getLong(2), rs.getString(3)),
+                        from, backfillBatchSize);
+                if (batch.isEmpty()) break;
+                signBatch(batch);
+                signed += batch.size();
+                afterId = batch.get(batch.size() - 1).id;
+            }
+            if (signed > 0) logger.info("Backfilled MinHash signatures of {} questions", signed);
+            return signed;
+        } finally {
+            backfillRunning.set(false);
+        }
+    }
+
+    // Nobody waits on the startup run, so its failure is only logged; an admin can re-run it
+    private void backfillAtStartup() {
+        try {
+            backfill();
+        } catch (RuntimeException e) {
+            logger.error("Question signature backfill failed", e);
+        }
+    }
+
+    private void signBatch(List<UnsignedQuestion> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        Set<Long> submissionIds = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            for (UnsignedQuestion q : batch) {
+                int[] signature = MinHash.signature(q.text);
+                q.signature = signature;
+                MinHashLshIndex.Match match = signature != null
+                        ? index.findBest(signature, q.submissionId, q.id, similarityThreshold)
+                        : null;
+                rows.add(new Object[]{MinHash.toBytes(signature),
+                        match != null ? match.getId() : null,
+                        match != null ? match.getSimilarity() : null,
+                        q.id});
+                if (match != null) submissionIds.add(q.submissionId);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(STORE_SIGNATURE_SQL, rows,
+                    new int[]{Types.BINARY, Types.BIGINT, Types.DOUBLE, Types.BIGINT});
+            if (!submissionIds.isEmpty()) {
+                Long[] ids = submissionIds.toArray(new Long[0]);
+                jdbcTemplate.update(con -> {
+                    PreparedStatement ps = con.prepareStatement(RECOUNT_SQL);
+                    ps.setArray(1, con.createArrayOf("bigint", ids));
+                    return ps;
+                });
+            }
+        });
+
+        lock.writeLock().lock();
+        try {
+            for (UnsignedQuestion q : batch) {
+                if (q.signature != null) index.put(q.id, q.submissionId, q.signature);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class UnsignedQuestion {
+        final long id;
+        final long submissionId;
+        final String text;
+        int[] signature;
+
+        UnsignedQuestion(long id, long submissionId, String text) {
+            this.id = id;
+            this.submissionId = submissionId;
+            this.text = text;
+        }
+    }
+}
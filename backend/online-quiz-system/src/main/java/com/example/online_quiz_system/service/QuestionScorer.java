@@ -0,0 +1,30 @@
+package com.example.online_quiz_system.service;
+
+import com.example.online_quiz_system.enums.QuestionType;
+
+import java.util.Set;
+
+/**
+ * Grades a single question of a {@link CompiledQuiz} for the {@link GradingEngine}.
+ * Implementations are Spring beans; the engine picks one per {@link QuestionType}.
+ */
+public interface QuestionScorer {
+
+    byte INCORRECT = 0;
+    byte CORRECT = 1;
+    /** The answer was kept but has to be graded by a person (essays). */
+    byte PENDING = 2;
+
+    Set<QuestionType> getSupportedTypes();
+
+    /**
+     * @param selectedOptionId the chosen option id, or {@link CompiledQuiz#NO_OPTION}
+     * @return one of {@link #CORRECT}, {@link #INCORRECT} or {@link #PENDING}
+     */
+    byte evaluate(CompiledQuiz quiz, int position, long selectedOptionId);
+
+    /** Points, in hundredths, awarded when {@link #evaluate} returns {@link #CORRECT}. */
+    default int pointsCents(CompiledQuiz quiz, int position) {
+        return quiz.getObjectivePointsCents();
+    }
+}
@@ -4,20 +4,28 @@ import com.example.online_quiz_system.dto.*;
 import com.example.online_quiz_system.entity.*;
 import com.example.online_quiz_system.enums.GradingStatus;
 import com.example.online_quiz_system.enums.QuestionType;
+import com.example.online_quiz_system.enums.SubmissionStatus;
+import com.example.online_quiz_system.exception.BusinessException;
+import com.example.online_quiz_system.exception.ConflictException;
 import com.example.online_quiz_system.exception.InsufficientPointsException;
 import com.example.online_quiz_system.repository.*;
+import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,7 +41,7 @@ public class QuizAttemptService {
     private UserAnswerRepository userAnswerRepository;
 
     @Autowired
-    private ChallengeService challengeService;
+    private OutboxService outboxService;
 
     @Autowired
     private EssayGradingRequestRepository essayGradingRequestRepository;
@@ -41,159 +49,402 @@ public class QuizAttemptService {
     @Autowired
     private UserRankingRepository userRankingRepository;
 
+    @Autowired
+    private SubmissionQuestionRepository submissionQuestionRepository;
+
+    @Autowired
+    private SubmissionAnswerOptionRepository submissionAnswerOptionRepository;
+
+    @Autowired
+    private CompiledQuizCache compiledQuizCache;
+
+    @Autowired
+    private GradingEngine gradingEngine;
+
+    @Autowired
+    private AttemptDeadlineRegistry attemptDeadlineRegistry;
+
+    @Autowired
+    private AttemptAnswerBuffer attemptAnswerBuffer;
+
+    @Autowired
+    private PracticeService practiceService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Thời gian cho phép nộp trễ (mạng chậm) trước khi lượt làm bị tự động kết thúc
+    @Value("${app.attempt-expiry.grace-seconds:60}")
+    private long expiryGraceSeconds;
+
     private static final int ESSAY_GRADING_COST = 100;
 
+    // Thời gian tối đa chờ một lượt ghi autosave đang chạy trước khi chấm bài
+    private static final long AUTOSAVE_DRAIN_WAIT_MS = 5000;
+
+    // Chỉ mục duy nhất một phần (V014) mà câu lệnh ON CONFLICT khi bắt đầu làm bài dựa vào
+    private static final String OPEN_ATTEMPT_INDEX = "uq_quiz_attempts_open_per_user_quiz";
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Fails startup when the partial unique index behind {@code ON CONFLICT ... WHERE status = 'IN_PROGRESS'}
+     * is missing; without it every start of a quiz would fail, and Hibernate's schema validation does not
+     * look at indexes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyOpenAttemptIndex() {
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_indexes WHERE tablename = 'quiz_attempts' AND indexname = ?)",
+                Boolean.class, OPEN_ATTEMPT_INDEX);
+        if (!Boolean.TRUE.equals(exists)) {
+            throw new IllegalStateException("Missing unique index " + OPEN_ATTEMPT_INDEX
+                    + " on quiz_attempts, run the Flyway migrations (V014)");
+        }
+    }
+
     public QuizForTakingDTO getQuizForTaking(Long quizId){
-        QuizSubmission submission = quizSubmissionRepository.findById(quizId)
-                .orElseThrow(() -> new EntityNotFoundException("Quiz not found with id: " + quizId));
-
-        QuizForTakingDTO quizDTO = new QuizForTakingDTO();
-        quizDTO.setId(submission.getId());
-        quizDTO.setTitle(submission.getTitle());
-        quizDTO.setDescription(submission.getDescription());
-        quizDTO.setSubject(submission.getSubject());
-        quizDTO.setDifficultyLevel(submission.getDifficultyLevel());
-        quizDTO.setDurationMinutes(submission.getDurationMinutes());
-
-        List<QuestionForTakingDTO> questionDTOs = submission.getQuestions().stream()
-                .map(q -> {
-                    QuestionForTakingDTO qDTO = new QuestionForTakingDTO();
-                    qDTO.setId(q.getId());
-                    qDTO.setQuestionText(q.getQuestionText());
-                    qDTO.setQuestionType(q.getQuestionType());
-                    qDTO.setEssayGuidelines(q.getEssayGuidelines());
-
-                    List<AnswerOptionForTakingDTO> optionDTOs = q.getAnswerOptions().stream()
-                            .map(o -> {
-                                AnswerOptionForTakingDTO oDTO = new AnswerOptionForTakingDTO();
-                                oDTO.setId(o.getId());
-                                oDTO.setOptionText(o.getOptionText());
-                                return oDTO;
-                            }).collect(Collectors.toList());
-                    qDTO.setAnswerOptions(optionDTOs);
-
-                    return qDTO;
-                }).collect(Collectors.toList());
-
-        quizDTO.setQuestions(questionDTOs);
-        return quizDTO;
+        return compiledQuizCache.get(quizId).toTakingDTO();
     }
 
-    @Transactional
-    public QuizAttempt startQuizAttempt(Long quizId, Long userId) {
-        QuizSubmission quiz = quizSubmissionRepository.findById(quizId)
-                .orElseThrow(() -> new EntityNotFoundException("Quiz not found with id: " + quizId));
-        
-        QuizAttempt attempt = new QuizAttempt();
-        attempt.setUserId(userId);
-        attempt.setQuizSubmission(quiz);
-        attempt.setStartTime(LocalDateTime.now());
-        attempt.setTotalQuestions(quiz.getQuestions().size());
-        attempt.setStatus("IN_PROGRESS");
-        return quizAttemptRepository.save(attempt);
+    /** The compiled snapshot of an approved quiz; other quizzes are not visible to students. */
+    public CompiledQuiz getPublishedQuiz(Long quizId){
+        CompiledQuiz quiz = compiledQuizCache.get(quizId);
+        if (quiz.getStatus() != SubmissionStatus.APPROVED)
+            throw new EntityNotFoundException("Không tìm thấy đề thi");
+        return quiz;
+    }
+
+    /** One published version of a quiz; the version must belong to the quiz. */
+    public CompiledQuiz getQuizVersion(Long quizId, Long versionId){
+        CompiledQuiz quiz = compiledQuizCache.getVersion(versionId);
+        if (quiz.getQuizId() != quizId)
+            throw new EntityNotFoundException("Không tìm thấy phiên bản đề thi");
+        return quiz;
+    }
+
+    /**
+     * Starts a quiz for a user, or resumes the attempt the user already has open for it. At most one
+     * IN_PROGRESS attempt per user and quiz is enforced by a partial unique index; an open attempt whose
+     * time has run out is finalized first and a fresh one is started.
+     * <p>
+     * Finalizing the stale attempt commits in its own transaction before the new attempt is inserted, so the
+     * start itself stays short and does not hold the stale row lock or a connection while buffered answers
+     * are drained.
+     */
+    public QuizStartResponseDTO startOrResumeQuizAttempt(Long quizId, Long userId) {
+        CompiledQuiz quiz = compiledQuizCache.get(quizId);
+
+        Optional<QuizAttempt> open = quizAttemptRepository.findFirstByUserIdAndQuizSubmissionIdAndStatus(userId, quizId, "IN_PROGRESS");
+        if (open.isPresent()) {
+            QuizAttempt attempt = open.get();
+            if (attempt.getExpiresAt() == null || LocalDateTime.now().isBefore(attempt.getExpiresAt())) {
+                return transactionTemplate.execute(status -> toStartResponse(attempt, quizOf(attempt), true));
+            }
+            expireAttempts(List.of(attempt.getId()));
+            attemptDeadlineRegistry.cancel(attempt.getId());
+        }
+
+        return transactionTemplate.execute(status -> startAttempt(quiz, quizId, userId));
+    }
+
+    private QuizStartResponseDTO startAttempt(CompiledQuiz quiz, Long quizId, Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusMinutes(quiz.getDurationMinutes());
+        List<Long> insertedIds = jdbcTemplate.queryForList(
+                "INSERT INTO quiz_attempts (user_id, quiz_submission_id, quiz_version_id, start_time, expires_at, total_questions, status, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, 'IN_PROGRESS', ?, ?) " +
+                "ON CONFLICT (user_id, quiz_submission_id) WHERE status = 'IN_PROGRESS' DO NOTHING " +
+                "RETURNING id",
+                Long.class, userId, quizId, quiz.getVersionId(), now, expiresAt, quiz.getQuestionCount(), now, now);
+
+        if (insertedIds.isEmpty()) {
+            // A concurrent start of the same quiz by the same user won the race; resume its attempt
+            QuizAttempt attempt = quizAttemptRepository.findFirstByUserIdAndQuizSubmissionIdAndStatus(userId, quizId, "IN_PROGRESS")
+                    .orElseThrow(() -> new IllegalStateException("Không thể bắt đầu lượt làm bài, vui lòng thử lại."));
+            return toStartResponse(attempt, quizOf(attempt), true);
+        }
+
+        Long attemptId = insertedIds.get(0);
+        attemptDeadlineRegistry.registerAfterCommit(attemptId, expiresAt.plusSeconds(expiryGraceSeconds));
+        return new QuizStartResponseDTO(attemptId, quiz.toTakingDTO(), false, expiresAt,
+                quiz.getDurationMinutes() * 60L, Collections.emptyList());
+    }
+
+    /** The quiz content an attempt is graded and reviewed against: the version it was started on. */
+    private CompiledQuiz quizOf(QuizAttempt attempt) {
+        return compiledQuizCache.forAttempt(attempt.getQuizSubmission().getId(), attempt.getQuizVersionId());
+    }
+
+    private QuizStartResponseDTO toStartResponse(QuizAttempt attempt, CompiledQuiz quiz, boolean resumed) {
+        Map<Long, UserAnswerRequestDTO> savedAnswers = new LinkedHashMap<>();
+        for (UserAnswer answer : userAnswerRepository.findByQuizAttemptId(attempt.getId())) {
+            UserAnswerRequestDTO dto = new UserAnswerRequestDTO();
+            dto.setQuestionId(answer.getQuestion().getId());
+            dto.setSelectedOptionId(answer.getSelectedOption() != null ? answer.getSelectedOption().getId() : null);
+            dto.setAnswerText(answer.getAnswerText());
+            savedAnswers.put(dto.getQuestionId(), dto);
+        }
+        AttemptAnswerBuffer.PendingAnswers pending = attemptAnswerBuffer.get(attempt.getId());
+        if (pending != null) {
+            pending.peek().forEach(a -> savedAnswers.put(a.getQuestionId(), a));
+        }
+
+        Long remainingSeconds = attempt.getExpiresAt() != null
+                ? Math.max(0L, Duration.between(LocalDateTime.now(), attempt.getExpiresAt()).getSeconds())
+                : null;
+        return new QuizStartResponseDTO(attempt.getId(), quiz.toTakingDTO(), resumed, attempt.getExpiresAt(),
+                remainingSeconds, new ArrayList<>(savedAnswers.values()));
+    }
+
+    /**
+     * Autosaves answers of an in-progress attempt. Answers are only staged in memory here and reach
+     * user_answers with the next flush of {@link AttemptAnswerFlusher}; the latest answer per question wins.
+     * Answers to questions outside the attempt's quiz version, or choosing an option the question does not
+     * have, are dropped.
+     *
+     * @return the number of answers accepted
+     */
+    public int saveAnswers(Long attemptId, QuizAttemptRequestDTO answersDTO, Long userId) {
+        AttemptAnswerBuffer.PendingAnswers pending = attemptAnswerBuffer.get(attemptId);
+        if (pending == null) {
+            QuizAttempt attempt = quizAttemptRepository.findById(attemptId)
+                    .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy bài làm với ID: " + attemptId));
+            if (!attempt.getUserId().equals(userId))
+                throw new AccessDeniedException("Bạn không có quyền thực hiện hành động này.");
+            if (!"IN_PROGRESS".equals(attempt.getStatus()))
+                throw new BusinessException("Lượt làm bài đã kết thúc.");
+            LocalDateTime acceptUntil = attempt.getExpiresAt() != null
+                    ? attempt.getExpiresAt().plusSeconds(expiryGraceSeconds)
+                    : null;
+            pending = attemptAnswerBuffer.open(attemptId, attempt.getUserId(), attempt.getQuizSubmission().getId(),
+                    attempt.getQuizVersionId(), acceptUntil);
+        }
+
+        if (!pending.getUserId().equals(userId))
+            throw new AccessDeniedException("Bạn không có quyền thực hiện hành động này.");
+        if (pending.getAcceptUntil() != null && LocalDateTime.now().isAfter(pending.getAcceptUntil()))
+            throw new BusinessException("Đã hết thời gian làm bài.");
+
+        CompiledQuiz quiz = compiledQuizCache.forAttempt(pending.getQuizId(), pending.getQuizVersionId());
+        List<UserAnswerRequestDTO> accepted = new ArrayList<>();
+        if (answersDTO.getAnswers() != null) {
+            for (UserAnswerRequestDTO answer : answersDTO.getAnswers()) {
+                if (answer == null || answer.getQuestionId() == null) continue;
+                int position = quiz.positionOf(answer.getQuestionId());
+                if (position < 0) continue;
+                // An option of another question would only fail the foreign key (or be graded wrongly) at flush time
+                Long optionId = answer.getSelectedOptionId();
+                if (optionId != null && !quiz.hasOption(position, optionId)) continue;
+                accepted.add(answer);
+            }
+        }
+        if (!pending.stage(accepted))
+            throw new BusinessException("Lượt làm bài đã kết thúc.");
+        return accepted.size();
     }
 
+    /**
+     * Grades an attempt from what is already stored for it, overlaid with answers still waiting in the
+     * autosave buffer and finally with the answers sent along with the submit.
+     * The attempt row is locked for the whole transaction; an attempt that is already completed is not
+     * graded again. Its stored result is returned to a retry without a key or with the key of the submit that
+     * completed it; any other key gets a {@link ConflictException}.
+     */
     @Transactional
-    public QuizResultDTO submitAndGradeQuiz(Long attemptId, QuizAttemptRequestDTO attemptDTO, Long userId){
-        QuizAttempt savedAttempt = quizAttemptRepository.findById(attemptId)
+    public QuizResultDTO submitAndGradeQuiz(Long attemptId, QuizAttemptRequestDTO attemptDTO, Long userId, String idempotencyKey){
+        QuizAttempt savedAttempt = quizAttemptRepository.findByIdForUpdate(attemptId)
                 .orElseThrow(() -> new EntityNotFoundException("Quiz Attempt not found with id: " + attemptId));
 
-        QuizSubmission quiz = savedAttempt.getQuizSubmission();
-        List<SubmissionQuestion> allQuestions = quiz.getQuestions();
-        BigDecimal totalEssayMaxScore = allQuestions.stream()
-                .filter(q -> q.getQuestionType() == QuestionType.ESSAY)
-                .map(SubmissionQuestion::getMaxScore)
-                .filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (!savedAttempt.getUserId().equals(userId))
+            throw new AccessDeniedException("Bạn không có quyền thực hiện hành động này.");
 
-        long mcqCount = allQuestions.stream()
-                .filter(q -> q.getQuestionType() != QuestionType.ESSAY)
-                .count();
+        if ("COMPLETED".equals(savedAttempt.getStatus())) {
+            // A retry carries the key of the submit that completed the attempt; a different key is a new submit
+            if (idempotencyKey != null && !idempotencyKey.equals(savedAttempt.getSubmitIdempotencyKey()))
+                throw new ConflictException("Lượt làm bài đã được nộp trước đó.");
+            return toQuizResult(resultSnapshotOf(savedAttempt));
+        }
+        if (!"IN_PROGRESS".equals(savedAttempt.getStatus()))
+            throw new BusinessException("Lượt làm bài đã kết thúc.");
+
+        CompiledQuiz quiz = quizOf(savedAttempt);
+        List<UserAnswerRequestDTO> buffered = attemptAnswerBuffer.drain(attemptId, AUTOSAVE_DRAIN_WAIT_MS);
+        List<UserAnswer> storedAnswers = userAnswerRepository.findByQuizAttemptId(attemptId);
+
+        GradingEngine.AnswerSheet sheet = new GradingEngine.AnswerSheet(quiz.getQuestionCount());
+        Map<Long, UserAnswer> storedByQuestionId = recordStoredAnswers(quiz, sheet, storedAnswers);
+        gradingEngine.overlay(quiz, sheet, buffered);
+        gradingEngine.overlay(quiz, sheet, attemptDTO.getAnswers());
+
+        savedAttempt.setSubmitIdempotencyKey(idempotencyKey);
+        QuizResultDTO result = completeAttempt(savedAttempt, quiz, sheet, storedByQuestionId, LocalDateTime.now());
+        attemptDeadlineRegistry.cancel(attemptId);
+        return result;
+    }
 
-        BigDecimal totalMcqMaxScore = BigDecimal.TEN.subtract(totalEssayMaxScore);
-        BigDecimal scorePerMcq = BigDecimal.ZERO;
-        if(mcqCount > 0){
-            scorePerMcq = totalMcqMaxScore.divide(BigDecimal.valueOf(mcqCount), 2, RoundingMode.HALF_UP);
+    /**
+     * Finalizes attempts whose time ran out: answers already stored or still buffered for an attempt are
+     * graded and the attempt is completed at its deadline; attempts without any stored answer are marked ABANDONED.
+     * Attempts that are no longer IN_PROGRESS are skipped.
+     * <p>
+     * Buffered answers are drained before the attempt rows are locked, outside of the transaction: a drain
+     * may wait for an autosave flush of the same attempts, and that flush needs the rows unlocked.
+     *
+     * @return the number of attempts finalized
+     */
+    public int expireAttempts(List<Long> attemptIds) {
+        Map<Long, List<UserAnswerRequestDTO>> buffered = new HashMap<>();
+        for (Long attemptId : attemptIds) {
+            buffered.put(attemptId, attemptAnswerBuffer.drain(attemptId, AUTOSAVE_DRAIN_WAIT_MS));
         }
+        Integer finalized = transactionTemplate.execute(status -> finalizeExpired(attemptIds, buffered));
+        return finalized != null ? finalized : 0;
+    }
 
-        int correctAnswersCount = 0;
-        List<UserAnswer> userAnswersToSave = new ArrayList<>();
-        BigDecimal calculatedScore = BigDecimal.ZERO;
+    private int finalizeExpired(List<Long> attemptIds, Map<Long, List<UserAnswerRequestDTO>> bufferedByAttempt) {
+        List<QuizAttempt> attempts = quizAttemptRepository.findAllByIdForUpdate(attemptIds).stream()
+                .filter(a -> "IN_PROGRESS".equals(a.getStatus()))
+                .toList();
+        if (attempts.isEmpty()) return 0;
 
-        Map<Long, UserAnswerRequestDTO> userAnswerMap = Optional.ofNullable(attemptDTO.getAnswers()).orElse(Collections.emptyList())
+        Map<Long, List<UserAnswer>> answersByAttempt = userAnswerRepository
+                .findByQuizAttemptIdIn(attempts.stream().map(QuizAttempt::getId).toList())
                 .stream()
-                .collect(Collectors.toMap(UserAnswerRequestDTO::getQuestionId, Function.identity()));
-
-        for(SubmissionQuestion question : allQuestions) {
-            UserAnswerRequestDTO userAnswerDTO = userAnswerMap.get(question.getId());
-
-            if (userAnswerDTO != null) {
-                UserAnswer userAnswer = new UserAnswer();
-                userAnswer.setQuizAttempt(savedAttempt);
-                userAnswer.setQuestion(question);
-
-                if (question.getQuestionType() == QuestionType.MULTIPLE_CHOICE || question.getQuestionType() == QuestionType.TRUE_FALSE) {
-                    Optional<SubmissionAnswerOption> selectedOption = question.getAnswerOptions().stream()
-                            .filter(o -> Objects.equals(o.getId(), userAnswerDTO.getSelectedOptionId()))
-                            .findFirst();
-                    selectedOption.ifPresent(userAnswer::setSelectedOption);
-
-                    SubmissionAnswerOption correctOption = question.getAnswerOptions().stream()
-                            .filter(SubmissionAnswerOption::getIsCorrect).findFirst().orElse(null);
-
-                    boolean isCorrect = correctOption != null && Objects.equals(userAnswerDTO.getSelectedOptionId(), correctOption.getId());
-                    userAnswer.setIsCorrect(isCorrect);
-                    if (isCorrect) {
-                        correctAnswersCount++;
-                        calculatedScore = calculatedScore.add(scorePerMcq);
-                    }
-                } else if (question.getQuestionType() == QuestionType.ESSAY) {
-                    userAnswer.setAnswerText(userAnswerDTO.getAnswerText());
+                .collect(Collectors.groupingBy(ua -> ua.getQuizAttempt().getId()));
+
+        for (QuizAttempt attempt : attempts) {
+            LocalDateTime deadline = attempt.getExpiresAt() != null ? attempt.getExpiresAt() : LocalDateTime.now();
+            List<UserAnswer> storedAnswers = answersByAttempt.getOrDefault(attempt.getId(), Collections.emptyList());
+            List<UserAnswerRequestDTO> buffered = bufferedByAttempt.getOrDefault(attempt.getId(), Collections.emptyList());
+
+            if (storedAnswers.isEmpty() && buffered.isEmpty()) {
+                attempt.setStatus("ABANDONED");
+                attempt.setEndTime(deadline);
+                attempt.setCorrectAnswers(0);
+                attempt.setScore(BigDecimal.ZERO);
+                continue;
+            }
+
+            CompiledQuiz quiz = quizOf(attempt);
+            GradingEngine.AnswerSheet sheet = new GradingEngine.AnswerSheet(quiz.getQuestionCount());
+            Map<Long, UserAnswer> storedByQuestionId = recordStoredAnswers(quiz, sheet, storedAnswers);
+            gradingEngine.overlay(quiz, sheet, buffered);
+            completeAttempt(attempt, quiz, sheet, storedByQuestionId, deadline);
+        }
+        quizAttemptRepository.saveAll(attempts);
+        return attempts.size();
+    }
+
+    private Map<Long, UserAnswer> recordStoredAnswers(CompiledQuiz quiz, GradingEngine.AnswerSheet sheet,
+                                                      List<UserAnswer> storedAnswers) {
+        Map<Long, UserAnswer> storedByQuestionId = new HashMap<>();
+        for (UserAnswer answer : storedAnswers) {
+            int position = quiz.positionOf(answer.getQuestion().getId());
+            if (position < 0) continue;
+            sheet.record(position,
+                    answer.getSelectedOption() != null ? answer.getSelectedOption().getId() : null,
+                    answer.getAnswerText());
+            storedByQuestionId.put(answer.getQuestion().getId(), answer);
+        }
+        return storedByQuestionId;
+    }
+
+    /**
+     * Grades {@code sheet}, writes one user_answers row per answered question (reusing rows already
+     * stored for the attempt), completes the attempt and queues its QUIZ_COMPLETED event.
+     */
+    private QuizResultDTO completeAttempt(QuizAttempt attempt, CompiledQuiz quiz, GradingEngine.AnswerSheet sheet,
+                                          Map<Long, UserAnswer> storedAnswers, LocalDateTime endTime) {
+        int questionCount = quiz.getQuestionCount();
+        GradingEngine.GradedAttempt graded = gradingEngine.grade(quiz, sheet);
+
+        List<UserAnswer> userAnswersToSave = new ArrayList<>();
+        List<QuestionResultDTO> questionResults = new ArrayList<>(questionCount);
+
+        for(int i = 0; i < questionCount; i++) {
+            QuestionType questionType = quiz.getQuestionType(i);
+            byte outcome = graded.getOutcome(i);
+            UserAnswerRequestDTO userAnswerDTO = null;
+
+            if (sheet.isAnswered(i)) {
+                userAnswerDTO = new UserAnswerRequestDTO();
+                userAnswerDTO.setQuestionId(quiz.getQuestionId(i));
+                userAnswerDTO.setSelectedOptionId(sheet.getSelectedOptionId(i));
+                userAnswerDTO.setAnswerText(sheet.getAnswerText(i));
+
+                UserAnswer userAnswer = storedAnswers.get(quiz.getQuestionId(i));
+                if (userAnswer == null) {
+                    userAnswer = new UserAnswer();
+                    userAnswer.setQuizAttempt(attempt);
+                    userAnswer.setQuestion(submissionQuestionRepository.getReferenceById(quiz.getQuestionId(i)));
+                }
+                if (questionType == QuestionType.ESSAY) {
+                    userAnswer.setAnswerText(sheet.getAnswerText(i));
                     userAnswer.setIsCorrect(null);
+                } else {
+                    Long selectedOptionId = sheet.getSelectedOptionId(i);
+                    userAnswer.setSelectedOption(selectedOptionId != null && quiz.hasOption(i, selectedOptionId)
+                            ? submissionAnswerOptionRepository.getReferenceById(selectedOptionId)
+                            : null);
+                    userAnswer.setIsCorrect(outcome == QuestionScorer.CORRECT);
                 }
                 userAnswersToSave.add(userAnswer);
             }
-        }
-
-        List<QuestionResultDTO> questionResults = allQuestions.stream().map(question -> {
-                    QuestionResultDTO questionResult = new QuestionResultDTO();
-                    questionResult.setQuestionId(question.getId());
-                    questionResult.setQuestionText(question.getQuestionText());
-                    questionResult.setExplanation(question.getExplanation());
-                    questionResult.setUserAnswer(userAnswerMap.get(question.getId()));
 
-                    SubmissionAnswerOption correctOption = question.getAnswerOptions().stream()
-                            .filter(SubmissionAnswerOption::getIsCorrect).findFirst().orElse(null);
-                    questionResult.setCorrectAnswer(correctOption);
+            QuestionResultDTO questionResult = new QuestionResultDTO();
+            questionResult.setQuestionId(quiz.getQuestionId(i));
+            questionResult.setQuestionText(quiz.getQuestionText(i));
+            questionResult.setExplanation(quiz.getExplanation(i));
+            questionResult.setUserAnswer(userAnswerDTO);
+            int correctIndex = quiz.getCorrectOptionIndex(i);
+            if (correctIndex >= 0) {
+                questionResult.setCorrectAnswer(new ResultOptionDTO(
+                        quiz.getOptionId(i, correctIndex), quiz.getOptionText(i, correctIndex), true));
+            }
+            questionResult.setIsCorrect(questionType == QuestionType.ESSAY ? null : outcome == QuestionScorer.CORRECT);
+            questionResults.add(questionResult);
+        }
 
-                    boolean isCorrect = correctOption != null && userAnswerMap.containsKey(question.getId()) && Objects.equals(userAnswerMap.get(question.getId()).getSelectedOptionId(), correctOption.getId());
-                    questionResult.setIsCorrect(question.getQuestionType() == QuestionType.ESSAY ? null : isCorrect);
-                    return questionResult;
-                }).collect(Collectors.toList());
+        int correctAnswersCount = graded.getCorrectCount();
+        BigDecimal calculatedScore = graded.getScore();
 
         userAnswerRepository.saveAll(userAnswersToSave);
 
-        savedAttempt.setEndTime(LocalDateTime.now());
-        savedAttempt.setCorrectAnswers(correctAnswersCount);
-        savedAttempt.setScore(calculatedScore);
-        savedAttempt.setStatus("COMPLETED");
-        QuizAttempt finalAttempt = quizAttemptRepository.save(savedAttempt);
+        attempt.setEndTime(endTime);
+        attempt.setCorrectAnswers(correctAnswersCount);
+        attempt.setScore(calculatedScore);
+        attempt.setStatus("COMPLETED");
+        attempt.setResultSnapshot(toResultSnapshot(attempt, quiz, userAnswersToSave));
+        QuizAttempt finalAttempt = quizAttemptRepository.save(attempt);
+        practiceService.recordCompletionAfterCommit(attempt.getUserId(), quiz.getQuizId());
 
         int pointsEarned = correctAnswersCount;
-        long studyTimeMinutes = Duration.between(savedAttempt.getStartTime(), savedAttempt.getEndTime()).toMinutes();
+        long studyTimeMinutes = Duration.between(attempt.getStartTime(), attempt.getEndTime()).toMinutes();
 
-        challengeService.updateQuizCompletionProgress(
-                userId,
+        // Thử thách, xếp hạng và lịch sử điểm được cập nhật bất đồng bộ qua outbox
+        outboxService.publish(QuizCompletedEventHandler.EVENT_TYPE, attempt.getUserId(), new QuizCompletedEventDTO(
+                attempt.getUserId(),
+                finalAttempt.getId(),
+                quiz.getQuizId(),
                 correctAnswersCount,
                 (int) studyTimeMinutes,
                 pointsEarned,
-                finalAttempt.getId()
-        );
+                calculatedScore
+        ));
 
         QuizResultDTO finalResult = new QuizResultDTO();
-        finalResult.setAttemptId(savedAttempt.getId());
+        finalResult.setAttemptId(attempt.getId());
         finalResult.setScore(calculatedScore);
-        finalResult.setTotalQuestions(quiz.getQuestions().size());
+        finalResult.setTotalQuestions(questionCount);
         finalResult.setCorrectAnswers(correctAnswersCount);
         finalResult.setResults(questionResults);
         finalResult.setPointsEarned(pointsEarned);
@@ -202,6 +453,123 @@ public class QuizAttemptService {
         return finalResult;
     }
 
+    /**
+     * The graded result of an attempt, read from its stored snapshot. Attempts completed before snapshots
+     * existed get theirs built from user_answers once and stored.
+     */
+    @Transactional
+    public AttemptResultDTO getAttemptResult(Long attemptId, Long userId) {
+        QuizAttemptRepository.AttemptResultView view = quizAttemptRepository.findResultViewById(attemptId)
+                .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy bài làm với ID: " + attemptId));
+
+        if (!view.getUserId().equals(userId))
+            throw new AccessDeniedException("Bạn không có quyền xem kết quả bài làm này.");
+        if (view.getResultSnapshot() != null)
+            return view.getResultSnapshot();
+        if (!"COMPLETED".equals(view.getStatus()))
+            throw new BusinessException("Bài làm chưa được nộp.");
+
+        QuizAttempt attempt = quizAttemptRepository.findById(attemptId)
+                .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy bài làm với ID: " + attemptId));
+        return resultSnapshotOf(attempt);
+    }
+
+    /** The stored result of a completed attempt, built from user_answers and stored if it is missing. */
+    private AttemptResultDTO resultSnapshotOf(QuizAttempt attempt) {
+        if (attempt.getResultSnapshot() == null) {
+            CompiledQuiz quiz = quizOf(attempt);
+            attempt.setResultSnapshot(toResultSnapshot(attempt, quiz, userAnswerRepository.findByQuizAttemptId(attempt.getId())));
+        }
+        return attempt.getResultSnapshot();
+    }
+
+    /** Rebuilds the submit response from a stored result, for replayed submits. */
+    private QuizResultDTO toQuizResult(AttemptResultDTO snapshot) {
+        Map<Long, ResultAnswerDTO> answersByQuestionId = new HashMap<>();
+        for (ResultAnswerDTO answer : snapshot.getUserAnswers()) {
+            answersByQuestionId.put(answer.getQuestionId(), answer);
+        }
+
+        List<QuestionResultDTO> questionResults = new ArrayList<>(snapshot.getQuestions().size());
+        for (ResultQuestionDTO question : snapshot.getQuestions()) {
+            ResultAnswerDTO answer = answersByQuestionId.get(question.getId());
+
+            QuestionResultDTO questionResult = new QuestionResultDTO();
+            questionResult.setQuestionId(question.getId());
+            questionResult.setQuestionText(question.getQuestionText());
+            questionResult.setExplanation(question.getExplanation());
+            if (answer != null) {
+                UserAnswerRequestDTO userAnswerDTO = new UserAnswerRequestDTO();
+                userAnswerDTO.setQuestionId(answer.getQuestionId());
+                userAnswerDTO.setSelectedOptionId(answer.getSelectedOptionId());
+                userAnswerDTO.setAnswerText(answer.getAnswerText());
+                questionResult.setUserAnswer(userAnswerDTO);
+            }
+            question.getOptions().stream()
+                    .filter(o -> Boolean.TRUE.equals(o.getIsCorrect()))
+                    .findFirst()
+                    .ifPresent(questionResult::setCorrectAnswer);
+            questionResult.setIsCorrect(question.getQuestionType() == QuestionType.ESSAY
+                    ? (answer != null ? answer.getIsCorrect() : null)
+                    : answer != null && Boolean.TRUE.equals(answer.getIsCorrect()));
+            questionResults.add(questionResult);
+        }
+
+        QuizResultDTO result = new QuizResultDTO();
+        result.setAttemptId(snapshot.getAttemptId());
+        result.setScore(snapshot.getScore());
+        result.setTotalQuestions(snapshot.getTotalQuestions());
+        result.setCorrectAnswers(snapshot.getCorrectAnswers());
+        result.setResults(questionResults);
+        result.setPointsEarned(snapshot.getCorrectAnswers());
+        result.setMaxScore(snapshot.getMaxScore());
+        return result;
+    }
+
+    private AttemptResultDTO toResultSnapshot(QuizAttempt attempt, CompiledQuiz quiz, Collection<UserAnswer> answers) {
+        int questionCount = quiz.getQuestionCount();
+        List<ResultQuestionDTO> questions = new ArrayList<>(questionCount);
+        for (int i = 0; i < questionCount; i++) {
+            ResultQuestionDTO question = new ResultQuestionDTO();
+            question.setId(quiz.getQuestionId(i));
+            question.setQuestionText(quiz.getQuestionText(i));
+            question.setQuestionType(quiz.getQuestionType(i));
+            question.setExplanation(quiz.getExplanation(i));
+            question.setMaxScore(quiz.getMaxScore(i));
+            List<ResultOptionDTO> options = new ArrayList<>(quiz.getOptionCount(i));
+            for (int j = 0; j < quiz.getOptionCount(i); j++) {
+                options.add(new ResultOptionDTO(quiz.getOptionId(i, j), quiz.getOptionText(i, j), j == quiz.getCorrectOptionIndex(i)));
+            }
+            question.setOptions(options);
+            questions.add(question);
+        }
+
+        List<ResultAnswerDTO> userAnswers = new ArrayList<>(answers.size());
+        for (UserAnswer answer : answers) {
+            ResultAnswerDTO dto = new ResultAnswerDTO();
+            dto.setQuestionId(answer.getQuestion().getId());
+            dto.setSelectedOptionId(answer.getSelectedOption() != null ? answer.getSelectedOption().getId() : null);
+            dto.setAnswerText(answer.getAnswerText());
+            dto.setIsCorrect(answer.getIsCorrect());
+            dto.setScore(answer.getScore());
+            dto.setFeedback(answer.getAdminFeedback());
+            userAnswers.add(dto);
+        }
+
+        AttemptResultDTO snapshot = new AttemptResultDTO();
+        snapshot.setAttemptId(attempt.getId());
+        snapshot.setQuizId(quiz.getQuizId());
+        snapshot.setQuizTitle(quiz.getTitle());
+        snapshot.setCompletedAt(attempt.getEndTime());
+        snapshot.setScore(attempt.getScore());
+        snapshot.setMaxScore(BigDecimal.TEN);
+        snapshot.setCorrectAnswers(attempt.getCorrectAnswers() != null ? attempt.getCorrectAnswers() : 0);
+        snapshot.setTotalQuestions(questionCount);
+        snapshot.setQuestions(questions);
+        snapshot.setUserAnswers(userAnswers);
+        return snapshot;
+    }
+
     @Transactional
     public void requestEssayGrading(Long attemptId, Long userId){
         QuizAttempt attempt = quizAttemptRepository.findById(attemptId)
@@ -222,8 +590,7 @@ public class QuizAttemptService {
         userRanking.setConsumptionPoints(userRanking.getConsumptionPoints() - ESSAY_GRADING_COST);
         userRankingRepository.save(userRanking);
 
-        long essayQuestionCount = attempt.getQuizSubmission().getQuestions().stream()
-                .filter(q -> q.getQuestionType() == QuestionType.ESSAY).count();
+        long essayQuestionCount = quizOf(attempt).countByType(QuestionType.ESSAY);
 
         EssayGradingRequest essayGradingRequest = new EssayGradingRequest();
         essayGradingRequest.setUserId(userId);
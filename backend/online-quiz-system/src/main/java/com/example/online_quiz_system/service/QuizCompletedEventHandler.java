@@ -0,0 +1,42 @@
+package com.example.online_quiz_system.service;
+
+import com.example.online_quiz_system.dto.QuizCompletedEventDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+@Component
+public class QuizCompletedEventHandler implements OutboxEventHandler {
+
+    public static final String EVENT_TYPE = "QUIZ_COMPLETED";
+
+    @Autowired
+    private ChallengeService challengeService;
+
+    @Autowired
+    private QuizPopularityTracker quizPopularityTracker;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public String getEventType() {
+        return EVENT_TYPE;
+    }
+
+    @Override
+    public void handle(String payload) throws Exception {
+        QuizCompletedEventDTO event = objectMapper.readValue(payload, QuizCompletedEventDTO.class);
+
+        challengeService.updateQuizCompletionProgress(
+                event.getUserId(),
+                event.getCorrectAnswers(),
+                event.getStudyTimeMinutes(),
+                event.getPointsEarned(),
+                event.getAttemptId()
+        );
+        quizPopularityTracker.recordAttempt(event.getQuizId(), event.getScore(), Instant.now());
+    }
+}
@@ -0,0 +1,337 @@
+package com.example.online_quiz_system.service;
+
+import com.example.online_quiz_system.dto.AnswerOptionDTO;
+import com.example.online_quiz_system.dto.ImportErrorDTO;
+import com.example.online_quiz_system.dto.ImportReportDTO;
+import com.example.online_quiz_system.dto.QuestionDTO;
+import com.example.online_quiz_system.dto.QuizSubmissionDTO;
+import com.example.online_quiz_system.enums.DifficultyLevel;
+import com.example.online_quiz_system.enums.QuestionType;
+import com.example.online_quiz_system.enums.Subject;
+import com.example.online_quiz_system.exception.BusinessException;
+import com.example.online_quiz_system.util.CsvRecordReader;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of quizzes from an uploaded file, one quiz per record, every quiz entering moderation as PENDING.
+ * The file is parsed as a stream and written in transactions of {@code app.import.batch-size} quizzes.
+ * A batch that fails to commit is replayed quiz by quiz, so one bad record does not discard its neighbours.
+ * <p>
+ * NDJSON: one {@link QuizSubmissionDTO} JSON object per line.<br>
+ * CSV: a header row, then one row per question; consecutive rows with the same {@code quiz_key} form one quiz,
+ * whose quiz-level columns are taken from its first row. {@code options} lists the answer options separated
+ * by {@code |}, the correct one prefixed with {@code *}.
+ */
+@Service
+public class QuizImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuizImportService.class);
+
+    private static final String[] CSV_REQUIRED_COLUMNS = {"quiz_key", "title", "subject", "duration_minutes", "question_text"};
+
+    @Autowired
+    private QuizSubmissionService quizSubmissionService;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.import.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.import.max-reported-errors:200}")
+    private int maxReportedErrors;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /** A parsed record, or the reason it could not be parsed. */
+    private static final class ImportRecord {
+        private final int line;
+        private final QuizSubmissionDTO quiz;
+        private final String error;
+
+        private ImportRecord(int line, QuizSubmissionDTO quiz, String error) {
+            this.line = line;
+            this.quiz = quiz;
+            this.error = error;
+        }
+    }
+
+    private static final class LookAhead {
+        private List<String> row;
+        private int line;
+
+        private LookAhead(List<String> row, int line) {
+            this.row = row;
+            this.line = line;
+        }
+    }
+
+    private interface RecordSource {
+        /** The next record, or null at end of input. */
+        ImportRecord next() throws IOException;
+    }
+
+    public ImportReportDTO importQuizzes(InputStream input, String format, Long contributorId) {
+        String normalizedFormat = format == null ? "" : format.trim().toLowerCase(Locale.ROOT);
+        if (!normalizedFormat.equals("ndjson") && !normalizedFormat.equals("csv")) {
+            throw new BusinessException("Định dạng tệp không được hỗ trợ: " + format + " (chỉ nhận ndjson hoặc csv)");
+        }
+
+        ImportReportDTO report = new ImportReportDTO();
+        report.setFormat(normalizedFormat);
+        long started = System.nanoTime();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            RecordSource source = normalizedFormat.equals("csv") ? csvSource(reader) : ndjsonSource(reader);
+            List<ImportRecord> batch = new ArrayList<>(batchSize);
+            ImportRecord record;
+            while ((record = source.next()) != null) {
+                report.setTotalRecords(report.getTotalRecords() + 1);
+                String error = record.error != null ? record.error : validate(record.quiz);
+                if (error != null) {
+                    fail(report, record, error);
+                    continue;
+                }
+                batch.add(record);
+                if (batch.size() >= batchSize) {
+                    writeBatch(batch, contributorId, report);
+                    batch.clear();
+                }
+            }
+            writeBatch(batch, contributorId, report);
+        } catch (IOException e) {
+            throw new BusinessException("Không đọc được tệp nhập: " + e.getMessage());
+        }
+
+        long elapsedMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        report.setDurationMs(elapsedMs);
+        report.setRecordsPerSecond(Math.round(report.getTotalRecords() * 1000.0 / elapsedMs * 10) / 10.0);
+        logger.info("Imported {}/{} quizzes from {} for user {} in {} ms",
+                report.getImported(), report.getTotalRecords(), normalizedFormat, contributorId, elapsedMs);
+        return report;
+    }
+
+    private void writeBatch(List<ImportRecord> batch, Long contributorId, ImportReportDTO report) {
+        if (batch.isEmpty()) return;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (ImportRecord r : batch) {
+                    quizSubmissionService.submitQuiz(r.quiz, contributorId);
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+            report.setImported(report.getImported() + batch.size());
+        } catch (RuntimeException batchFailure) {
+            entityManager.clear();
+            logger.debug("Import batch of {} failed, retrying record by record", batch.size(), batchFailure);
+            for (ImportRecord r : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        quizSubmissionService.submitQuiz(r.quiz, contributorId);
+                        entityManager.flush();
+                        entityManager.clear();
+                    });
+                    report.setImported(report.getImported() + 1);
+                } catch (RuntimeException e) {
+                    entityManager.clear();
+                    fail(report, r, "Không lưu được đề thi: " + rootMessage(e));
+                }
+            }
+        }
+    }
+
+    private String validate(QuizSubmissionDTO quiz) {
+        Set<ConstraintViolation<QuizSubmissionDTO>> violations = validator.validate(quiz);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        try {
+            Subject.valueOf(quiz.getSubject().trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return "Môn học không hợp lệ: " + quiz.getSubject();
+        }
+        if (quiz.getQuestions() == null || quiz.getQuestions().isEmpty()) {
+            return "Đề thi phải có ít nhất một câu hỏi";
+        }
+        return null;
+    }
+
+    private void fail(ImportReportDTO report, ImportRecord record, String message) {
+        report.setFailed(report.getFailed() + 1);
+        if (report.getErrors().size() < maxReportedErrors) {
+            String title = record.quiz != null ? record.quiz.getTitle() : null;
+            report.getErrors().add(new ImportErrorDTO(record.line, title, message));
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+
+    private RecordSource ndjsonSource(BufferedReader reader) {
+        int[] lineNumber = {0};
+        return () -> {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber[0]++;
+                if (line.isBlank()) continue;
+                try {
+                    return new ImportRecord(lineNumber[0], objectMapper.readValue(line, QuizSubmissionDTO.class), null);
+                } catch (JsonProcessingException e) {
+                    return new ImportRecord(lineNumber[0], null, "JSON không hợp lệ: " + e.getOriginalMessage());
+                }
+            }
+            return null;
+        };
+    }
+
+    private RecordSource csvSource(BufferedReader reader) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.next();
+        if (header == null) return () -> null;
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT).replace("\uFEFF", ""), i);
+        }
+        for (String required : CSV_REQUIRED_COLUMNS) {
+            if (!columns.containsKey(required)) {
+                throw new BusinessException("Tệp CSV thiếu cột bắt buộc: " + required);
+            }
+        }
+
+        // one row of look-ahead: the first row of the next quiz
+        LookAhead pending = new LookAhead(csv.next(), csv.getRecordLine());
+        return () -> {
+            List<String> first = pending.row;
+            if (first == null) return null;
+            int line = pending.line;
+            String key = cell(first, columns, "quiz_key");
+
+            QuizSubmissionDTO quiz = new QuizSubmissionDTO();
+            String error = null;
+            try {
+                quiz.setTitle(cell(first, columns, "title"));
+                quiz.setDescription(emptyToNull(cell(first, columns, "description")));
+                quiz.setSubject(cell(first, columns, "subject"));
+                quiz.setDurationMinutes(parseInteger(cell(first, columns, "duration_minutes")));
+                String difficulty = cell(first, columns, "difficulty_level");
+                if (!difficulty.isEmpty()) quiz.setDifficultyLevel(DifficultyLevel.valueOf(difficulty.toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                error = "Dòng " + line + ": " + e.getMessage();
+            }
+
+            List<QuestionDTO> questions = new ArrayList<>();
+            List<String> row = first;
+            int rowLine = line;
+            while (row != null && cell(row, columns, "quiz_key").equals(key)) {
+                if (error == null) {
+                    try {
+                        questions.add(toQuestion(row, columns));
+                    } catch (IllegalArgumentException e) {
+                        error = "Dòng " + rowLine + ": " + e.getMessage();
+                    }
+                }
+                row = csv.next();
+                rowLine = csv.getRecordLine();
+            }
+            pending.row = row;
+            pending.line = rowLine;
+
+            quiz.setQuestions(questions);
+            return new ImportRecord(line, quiz, error);
+        };
+    }
+
+    private QuestionDTO toQuestion(List<String> row, Map<String, Integer> columns) {
+        QuestionDTO question = new QuestionDTO();
+        question.setQuestionText(cell(row, columns, "question_text"));
+        String type = cell(row, columns, "question_type");
+        if (!type.isEmpty()) question.setQuestionType(QuestionType.valueOf(type.toUpperCase()));
+        question.setExplanation(emptyToNull(cell(row, columns, "explanation")));
+        question.setEssayGuidelines(emptyToNull(cell(row, columns, "essay_guidelines")));
+        String maxScore = cell(row, columns, "max_score");
+        if (!maxScore.isEmpty()) question.setMaxScore(new BigDecimal(maxScore));
+
+        String options = cell(row, columns, "options");
+        if (!options.isEmpty()) {
+            List<AnswerOptionDTO> answerOptions = new ArrayList<>();
+            for (String raw : options.split("\\|")) {
+                String text = raw.trim();
+                AnswerOptionDTO option = new AnswerOptionDTO();
+                option.setIsCorrect(text.startsWith("*"));
+                option.setOptionText(option.getIsCorrect() ? text.substring(1).trim() : text);
+                answerOptions.add(option);
+            }
+            question.setAnswerOptions(answerOptions);
+        }
+        return question;
+    }
+
+    private static String cell(List<String> row, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= row.size()) return "";
+        return row.get(index).trim();
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Integer parseInteger(String value) {
+        if (value.isEmpty()) return null;
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("không phải số nguyên: " + value);
+        }
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) root = root.getCause();
+        return root.getMessage();
+    }
+}
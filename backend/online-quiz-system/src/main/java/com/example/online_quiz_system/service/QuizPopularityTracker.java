@@ -0,0 +1,70 @@
+package com.example.online_quiz_system.service;
+
+import com.example.online_quiz_system.repository.QuizSubmissionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the per-quiz attempt count, average score and trending score that the catalog sorts on.
+ * Each completed attempt is folded in with one atomic UPDATE. Its trending weight is {@code e^heat},
+ * with heat growing by ln 2 every half-life, so an attempt counts half as much as one a half-life newer.
+ * Popularity changes do not go through QuizSubmissionChangedEvent. They are published to the catalog
+ * caches at most once per interval.
+ */
+@Component
+public class QuizPopularityTracker {
+
+    // heat is measured from here so the stored log-scores stay small
+    private static final long HEAT_EPOCH_SECONDS = Instant.parse("2025-01-01T00:00:00Z").getEpochSecond();
+
+    @Autowired
+    private QuizSubmissionRepository quizSubmissionRepository;
+
+    @Autowired
+    private CatalogGeneration catalogGeneration;
+
+    @Autowired
+    private CatalogQueryCache catalogQueryCache;
+
+    @Value("${app.popularity.half-life-hours:72}")
+    private long halfLifeHours;
+
+    private final AtomicBoolean changed = new AtomicBoolean();
+
+    /** Records a completed attempt; runs inside the caller's transaction. */
+    public void recordAttempt(Long quizId, BigDecimal score, Instant completedAt) {
+        if (quizId == null) return;
+        quizSubmissionRepository.recordAttempt(quizId, score != null ? score : BigDecimal.ZERO, heatAt(completedAt));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    changed.set(true);
+                }
+            });
+        } else {
+            changed.set(true);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.popularity.publish-interval-ms:60000}")
+    public void publishChanges() {
+        if (!changed.getAndSet(false)) return;
+        catalogQueryCache.invalidatePopularitySorts();
+        catalogGeneration.bump();
+    }
+
+    private double heatAt(Instant at) {
+        double halfLifeSeconds = halfLifeHours * 3600.0;
+        return (at.getEpochSecond() - HEAT_EPOCH_SECONDS) * Math.log(2) / halfLifeSeconds;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.online_quiz_system.service;
+
+import com.example.online_quiz_system.entity.QuizSubmission;
+import com.example.online_quiz_system.enums.DifficultyLevel;
+import com.example.online_quiz_system.enums.SubmissionStatus;
+
+/**
+ * Published by {@link QuizSubmissionService} whenever a submission is created, edited, moderated or deleted.
+ * Carries the catalog-relevant state before and after the change ({@code null} for "did not exist"), so
+ * listeners that keep derived views of approved quizzes can update them precisely.
+ * Listeners should react after commit.
+ */
+public class QuizSubmissionChangedEvent {
+
+    public static final class State {
+        private final SubmissionStatus status;
+        private final String title;
+        private final String subject;
+        private final DifficultyLevel difficultyLevel;
+
+        private State(SubmissionStatus status, String title, String subject, DifficultyLevel difficultyLevel) {
+            this.status = status;
+            this.title = title;
+            this.subject = subject;
+            this.difficultyLevel = difficultyLevel;
+        }
+
+        public static State of(QuizSubmission submission) {
+            return new State(submission.getStatus(), submission.getTitle(), submission.getSubject(), submission.getDifficultyLevel());
+        }
+
+        /** For changes made with set-based SQL, where no entity is loaded. */
+        public static State of(SubmissionStatus status, String title, String subject, DifficultyLevel difficultyLevel) {
+            return new State(status, title, subject, difficultyLevel);
+        }
+
+        public SubmissionStatus getStatus() { return status; }
+
+        public String getTitle() { return title; }
+
+        public String getSubject() { return subject; }
+
+        public DifficultyLevel getDifficultyLevel() { return difficultyLevel; }
+
+        public boolean isApproved() { return status == SubmissionStatus.APPROVED; }
+    }
+
+    private final Long quizId;
+    private final State before;
+    private final State after;
+
+    public QuizSubmissionChangedEvent(Long quizId, State before, State after) {
+        this.quizId = quizId;
+        this.before = before;
+        this.after = after;
+    }
+
+    public Long getQuizId() { return quizId; }
+
+    public State getBefore() { return before; }
+
+    public State getAfter() { return after; }
+
+    public boolean wasApproved() { return before != null && before.isApproved(); }
+
+    public boolean isApproved() { return after != null && after.isApproved(); }
+}
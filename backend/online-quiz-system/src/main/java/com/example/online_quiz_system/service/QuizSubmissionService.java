@@ -1,37 +1,118 @@
 package com.example.online_quiz_system.service;
 
 import com.example.online_quiz_system.dto.AnswerOptionDTO;
+import com.example.online_quiz_system.dto.BatchModerationRequestDTO;
+import com.example.online_quiz_system.dto.BatchModerationResultDTO;
+import com.example.online_quiz_system.dto.CursorPageDTO;
+import com.example.online_quiz_system.dto.ModerationOutcomeDTO;
 import com.example.online_quiz_system.dto.QuestionDTO;
 import com.example.online_quiz_system.dto.QuizSubmissionDTO;
+import com.example.online_quiz_system.dto.QuizSubmissionDetailDTO;
+import com.example.online_quiz_system.dto.ResultOptionDTO;
+import com.example.online_quiz_system.dto.SubmissionQuestionDetailDTO;
 import com.example.online_quiz_system.entity.*;
+import com.example.online_quiz_system.enums.CatalogSort;
 import com.example.online_quiz_system.enums.DifficultyLevel;
+import com.example.online_quiz_system.enums.ModerationAction;
+import com.example.online_quiz_system.enums.ModerationOutcome;
 import com.example.online_quiz_system.enums.QuestionType;
 import com.example.online_quiz_system.enums.Subject;
 import com.example.online_quiz_system.enums.SubmissionStatus;
+import com.example.online_quiz_system.exception.BusinessException;
 import com.example.online_quiz_system.repository.QuizSubmissionRepository;
+import com.example.online_quiz_system.repository.QuizSubmissionRepository.SummaryView;
+import com.example.online_quiz_system.repository.SubmissionQuestionRepository;
 import com.example.online_quiz_system.repository.UserRankingRepository;
+import com.example.online_quiz_system.util.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class QuizSubmissionService {
 
+    // Điểm thưởng cho người đóng góp khi đề thi được duyệt
+    private static final int APPROVAL_REWARD_POINTS = 50;
+
+    // The sub-select locks the rows in id order and keeps the old status for the change events
+    private static final String BATCH_APPROVE_SQL =
+            "UPDATE quiz_submissions s SET status = 'APPROVED', approved_by = ?, approved_at = ?, updated_at = ? " +
+            "FROM (SELECT id, CAST(status AS TEXT) AS old_status FROM quiz_submissions " +
+            "      WHERE id = ANY(?) ORDER BY id FOR UPDATE) o " +
+            "WHERE s.id = o.id AND o.old_status IS DISTINCT FROM 'APPROVED' " +
+            "RETURNING s.id, s.contributor_id, o.old_status, s.title, s.subject, CAST(s.difficulty_level AS TEXT)";
+
+    private static final String BATCH_REJECT_SQL =
+            "UPDATE quiz_submissions s SET status = 'REJECTED', admin_feedback = ?, approved_by = ?, updated_at = ? " +
+            "FROM (SELECT id, CAST(status AS TEXT) AS old_status FROM quiz_submissions " +
+            "      WHERE id = ANY(?) ORDER BY id FOR UPDATE) o " +
+            "WHERE s.id = o.id AND o.old_status IS DISTINCT FROM 'REJECTED' " +
+            "RETURNING s.id, s.contributor_id, o.old_status, s.title, s.subject, CAST(s.difficulty_level AS TEXT)";
+
+    private static final String EXISTING_IDS_SQL = "SELECT id FROM quiz_submissions WHERE id = ANY(?)";
+
+    // One row per contributor, in user id order so concurrent batches lock rankings in the same order
+    private static final String CREDIT_REWARDS_SQL =
+            "INSERT INTO user_rankings (user_id, total_points, daily_points, weekly_points, monthly_points, " +
+            "current_streak, max_streak, consumption_points, created_at, updated_at) " +
+            "SELECT c.user_id, 0, 0, 0, 0, 0, 0, c.points, ?, ? " +
+            "FROM unnest(?, ?) AS c(user_id, points) ORDER BY c.user_id " +
+            "ON CONFLICT (user_id) DO UPDATE SET " +
+            "consumption_points = COALESCE(user_rankings.consumption_points, 0) + EXCLUDED.consumption_points, " +
+            "updated_at = EXCLUDED.updated_at";
+
     @Autowired
     private QuizSubmissionRepository submissionRepository;
 
     @Autowired
     private UserRankingRepository userRankingRepository;
 
+    @Autowired
+    private SubmissionQuestionRepository submissionQuestionRepository;
+
+    @Autowired
+    private CompiledQuizCache compiledQuizCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CatalogQueryCache catalogQueryCache;
+
+    @Autowired
+    private QuizVersionService quizVersionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private QuestionDuplicateDetector questionDuplicateDetector;
+
     public QuizSubmission submitQuiz(QuizSubmissionDTO dto, Long contributorId){
         QuizSubmission submission = new QuizSubmission();
         submission.setTitle(dto.getTitle());
@@ -41,21 +122,166 @@ public class QuizSubmissionService {
         submission.setContributorId(contributorId);
         submission.setStatus(SubmissionStatus.PENDING);
         submission.setDifficultyLevel(dto.getDifficultyLevel());
+        submission.setPracticeOnly(Boolean.TRUE.equals(dto.getPracticeOnly()));
 
         // THÊM LOGIC XỬ LÝ CÂU HỎI
         if (dto.getQuestions() != null && !dto.getQuestions().isEmpty()) {
-            List<SubmissionQuestion> questions = dto.getQuestions().stream()
-                    .map(questionDTO -> mapToQuestion(questionDTO, submission))
-                    .collect(Collectors.toList());
+            List<SubmissionQuestion> questions = new ArrayList<>(dto.getQuestions().size());
+            for (QuestionDTO questionDTO : dto.getQuestions()) {
+                questions.add(mapToQuestion(questionDTO, submission, questions.size()));
+            }
             submission.setQuestions(questions);
         }
+        submission.setQuestionCount(submission.getQuestions().size());
+        questionDuplicateDetector.flag(submission);
+
+        QuizSubmission saved = submissionRepository.save(submission);
+        questionDuplicateDetector.indexAfterCommit(saved);
+        eventPublisher.publishEvent(new QuizSubmissionChangedEvent(saved.getId(), null, QuizSubmissionChangedEvent.State.of(saved)));
+        return saved;
+    }
+
+    /**
+     * Brings the stored questions in line with {@code incoming}, matching questions and options by id:
+     * matched rows are updated in place (Hibernate writes only the ones whose values changed), entries
+     * without an id are inserted and stored rows that are no longer listed are deleted. Unchanged questions
+     * keep their ids, so answers of earlier attempts still point at them. Returns whether anything changed.
+     * The order of {@code incoming} becomes the display order ({@code position}) of the questions.
+     * <p>
+     * Questions that belong to a published version are copy-on-write: a changed one is retired and a new
+     * row takes its place and position, a dropped one is only retired, so every version keeps its exact content.
+     * A version stores its own question order, so only {@code position} may still change on such a question.
+     */
+    private boolean mergeQuestions(QuizSubmission submission, List<QuestionDTO> incoming){
+        // one join query puts every question and its options in the persistence context
+        Map<Long, SubmissionQuestion> existing = new HashMap<>();
+        for(SubmissionQuestion q : submissionQuestionRepository.findBySubmissionIdWithOptions(submission.getId())){
+            existing.put(q.getId(), q);
+        }
+        Set<Long> frozen = quizVersionService.frozenQuestionIds(submission);
+
+        boolean changed = false;
+        Set<Long> kept = new HashSet<>();
+        List<SubmissionQuestion> added = new ArrayList<>();
+        for(int position = 0; position < incoming.size(); position++){
+            QuestionDTO dto = incoming.get(position);
+            if(dto.getId() == null){
+                added.add(mapToQuestion(dto, submission, position));
+                continue;
+            }
+            SubmissionQuestion question = existing.get(dto.getId());
+            if(question == null){
+                throw new BusinessException("Câu hỏi " + dto.getId() + " không thuộc đề thi này");
+            }
+            kept.add(question.getId());
+            if(frozen.contains(question.getId()) && questionDiffers(question, dto)){
+                question.setRetired(true);
+                added.add(mapToQuestion(dto, submission, position));
+                changed = true;
+                continue;
+            }
+            if(!frozen.contains(question.getId())){
+                changed |= applyQuestion(question, dto);
+            }
+            if(question.getPosition() != position){
+                question.setPosition(position);
+                changed = true;
+            }
+        }
+
+        for(SubmissionQuestion q : existing.values()){
+            if(!kept.contains(q.getId()) && frozen.contains(q.getId())){
+                q.setRetired(true);
+                changed = true;
+            }
+        }
+        // retired rows are not in existing and stay; only unversioned questions are really deleted
+        changed |= submission.getQuestions().removeIf(q ->
+                existing.containsKey(q.getId()) && !kept.contains(q.getId()) && !frozen.contains(q.getId()));
+        changed |= submission.getQuestions().addAll(added);
+        return changed;
+    }
+
+    /** Whether applying {@code dto} would change the question or any of its options. */
+    private boolean questionDiffers(SubmissionQuestion question, QuestionDTO dto){
+        if(!Objects.equals(question.getQuestionText(), dto.getQuestionText())
+                || question.getQuestionType() != dto.getQuestionType()
+                || !Objects.equals(question.getExplanation(), dto.getExplanation())
+                || !sameScore(question.getMaxScore(), dto.getMaxScore())
+                || !Objects.equals(question.getEssayGuidelines(), dto.getEssayGuidelines())){
+            return true;
+        }
+        List<AnswerOptionDTO> incoming = dto.getAnswerOptions() != null && dto.getQuestionType() != QuestionType.ESSAY
+                ? dto.getAnswerOptions() : List.of();
+        if(incoming.size() != question.getAnswerOptions().size()) return true;
+        Map<Long, SubmissionAnswerOption> options = new HashMap<>();
+        for(SubmissionAnswerOption o : question.getAnswerOptions()) options.put(o.getId(), o);
+        for(AnswerOptionDTO o : incoming){
+            SubmissionAnswerOption option = o.getId() != null ? options.get(o.getId()) : null;
+            if(option == null
+                    || !Objects.equals(option.getOptionText(), o.getOptionText())
+                    || !Objects.equals(option.getIsCorrect(), o.getIsCorrect())){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean applyQuestion(SubmissionQuestion question, QuestionDTO dto){
+        if(!Objects.equals(question.getQuestionText(), dto.getQuestionText())){
+            // re-signed by the duplicate check
+            question.setMinhashSignature(null);
+        }
+        boolean changed = !Objects.equals(question.getQuestionText(), dto.getQuestionText())
+                || question.getQuestionType() != dto.getQuestionType()
+                || !Objects.equals(question.getExplanation(), dto.getExplanation())
+                || !sameScore(question.getMaxScore(), dto.getMaxScore())
+                || !Objects.equals(question.getEssayGuidelines(), dto.getEssayGuidelines());
+        question.setQuestionText(dto.getQuestionText());
+        question.setQuestionType(dto.getQuestionType());
+        question.setExplanation(dto.getExplanation());
+        question.setMaxScore(dto.getMaxScore());
+        question.setEssayGuidelines(dto.getEssayGuidelines());
+
+        List<AnswerOptionDTO> incoming = dto.getAnswerOptions() != null && dto.getQuestionType() != QuestionType.ESSAY
+                ? dto.getAnswerOptions() : List.of();
+        Map<Long, SubmissionAnswerOption> options = new HashMap<>();
+        for(SubmissionAnswerOption o : question.getAnswerOptions()) options.put(o.getId(), o);
+
+        Set<Long> kept = new HashSet<>();
+        List<SubmissionAnswerOption> added = new ArrayList<>();
+        for(AnswerOptionDTO o : incoming){
+            if(o.getId() == null){
+                added.add(mapToAnswerOption(o, question));
+                continue;
+            }
+            SubmissionAnswerOption option = options.get(o.getId());
+            if(option == null){
+                throw new BusinessException("Đáp án " + o.getId() + " không thuộc câu hỏi " + question.getId());
+            }
+            kept.add(option.getId());
+            changed |= !Objects.equals(option.getOptionText(), o.getOptionText())
+                    || !Objects.equals(option.getIsCorrect(), o.getIsCorrect());
+            option.setOptionText(o.getOptionText());
+            option.setIsCorrect(o.getIsCorrect());
+        }
+        changed |= question.getAnswerOptions().removeIf(o -> !kept.contains(o.getId()));
+        changed |= question.getAnswerOptions().addAll(added);
+        return changed;
+    }
+
+    private static int liveQuestionCount(QuizSubmission submission){
+        return (int) submission.getQuestions().stream().filter(q -> !q.isRetired()).count();
+    }
 
-        return submissionRepository.save(submission);
+    private static boolean sameScore(BigDecimal a, BigDecimal b){
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
     }
 
-    private SubmissionQuestion mapToQuestion(QuestionDTO dto, QuizSubmission submission){
+    private SubmissionQuestion mapToQuestion(QuestionDTO dto, QuizSubmission submission, int position){
         SubmissionQuestion question = new SubmissionQuestion();
         question.setSubmission(submission);
+        question.setPosition(position);
         question.setQuestionText(dto.getQuestionText());
         question.setQuestionType(dto.getQuestionType());
         question.setExplanation(dto.getExplanation());
@@ -85,94 +311,189 @@ public class QuizSubmissionService {
         return submissionRepository.findAll(pageable);
     }
 
-    @Transactional(readOnly = true)
-    public Page<QuizSubmission> findPublicQuizzes(String keyword, String subject, String difficulty, Pageable pageable){
-        Specification<QuizSubmission> spec = isApproved();
-
-        if(StringUtils.hasText(keyword)){
-            spec = spec.and(hasKeyword(keyword));
+    // No transaction of its own: a cache hit must not check out a connection
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Page<SummaryView> findPublicQuizzes(String keyword, String subject, String difficulty, String sort, Pageable pageable){
+        CatalogSort catalogSort = null;
+        if(StringUtils.hasText(sort)){
+            try {
+                catalogSort = CatalogSort.valueOf(sort.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new BusinessException("Kiểu sắp xếp không hợp lệ: " + sort);
+            }
         }
-        if(StringUtils.hasText(subject)){
-            spec = spec.and(hasSubject(subject));
+        String subjectFilter = "";
+        String difficultyFilter = "";
+        try {
+            if(StringUtils.hasText(subject)) subjectFilter = Subject.valueOf(subject.toUpperCase()).toString();
+            if(StringUtils.hasText(difficulty)) difficultyFilter = DifficultyLevel.valueOf(difficulty.toUpperCase()).name();
+        } catch (IllegalArgumentException e) {
+            // an unknown subject or difficulty matches nothing
+            return Page.empty(pageable);
         }
-        if(StringUtils.hasText(difficulty)){
-            spec = spec.and(hasDifficulty(difficulty));
+
+        String normalizedKeyword = normalizeKeyword(keyword);
+        // without an explicit sort, keyword results are ranked by relevance (null) and listings show the newest first
+        CatalogSort effectiveSort = catalogSort != null || !normalizedKeyword.isEmpty() ? catalogSort : CatalogSort.NEWEST;
+        String subjectKey = subjectFilter;
+        String difficultyKey = difficultyFilter;
+        int page = pageable.getPageNumber();
+        int size = pageable.getPageSize();
+        return catalogQueryCache.get(normalizedKeyword, subjectKey, difficultyKey, effectiveSort, page, size, () -> {
+            if(!normalizedKeyword.isEmpty()){
+                // full-text index; relevance orders the matches unless a sort was asked for, then breaks its ties
+                return submissionRepository.searchApproved(normalizedKeyword, subjectKey, difficultyKey,
+                        effectiveSort == null ? "" : effectiveSort.name(), PageRequest.of(page, size));
+            }
+            return submissionRepository.findApprovedSummaries(subjectKey, difficultyKey,
+                    PageRequest.of(page, size, catalogOrder(effectiveSort)));
+        });
+    }
+
+    private static Sort catalogOrder(CatalogSort sort){
+        switch (sort) {
+            case TRENDING:
+                return Sort.by(Sort.Order.desc("trendingScore"), Sort.Order.desc("id"));
+            case MOST_ATTEMPTED:
+                return Sort.by(Sort.Order.desc("attemptCount"), Sort.Order.desc("id"));
+            case HIGHEST_RATED:
+                return Sort.by(Sort.Order.desc("averageScore"), Sort.Order.desc("attemptCount"), Sort.Order.desc("id"));
+            default:
+                return Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
         }
+    }
 
-        return submissionRepository.findAll(spec, pageable);
+    // Case and spacing do not change a full-text query, so they must not split cache entries either
+    private static String normalizeKeyword(String keyword){
+        if(!StringUtils.hasText(keyword)) return "";
+        return keyword.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
     }
 
-    private Specification<QuizSubmission> isApproved(){
-        return ((root, query, criteriaBuilder) ->
-                criteriaBuilder.equal(root.get("status"), SubmissionStatus.APPROVED));
+    @Transactional(readOnly = true)
+    public CursorPageDTO<SummaryView> scrollPublicQuizzes(String subject, String difficulty, String cursor, int size){
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        String subjectFilter = "";
+        String difficultyFilter = "";
+        try {
+            if(StringUtils.hasText(subject)) subjectFilter = Subject.valueOf(subject.toUpperCase()).toString();
+            if(StringUtils.hasText(difficulty)) difficultyFilter = DifficultyLevel.valueOf(difficulty.toUpperCase()).name();
+        } catch (IllegalArgumentException e) {
+            return new CursorPageDTO<>(List.of(), null, false);
+        }
+        return toCursorPage(submissionRepository.findApprovedAfter(
+                after.getCreatedAt(), after.getId(), subjectFilter, difficultyFilter, size + 1), size);
     }
 
-    private Specification<QuizSubmission> hasKeyword(String keyword){
-        return (root, query, criteriaBuilder) -> {
-                String likePattern = "%" + keyword.toLowerCase() +"%";
-                return criteriaBuilder.or(
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("title")), likePattern),
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("description")), likePattern)
-                );
-        };
+    @Transactional(readOnly = true)
+    public CursorPageDTO<SummaryView> scrollPendingSubmissions(String cursor, int size){
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        return toCursorPage(submissionRepository.findPendingAfter(
+                after.getCreatedAt(), after.getId(), size + 1), size);
     }
 
-    private Specification<QuizSubmission> hasSubject(String subject){
-        return (root, query, criteriaBuilder) -> {
-            try {
-                Subject subjectEnum = Subject.valueOf(subject.toUpperCase());
-                return criteriaBuilder.equal(root.get("subject"), subjectEnum.toString());
-            } catch (IllegalArgumentException e) {
-                return criteriaBuilder.disjunction();
-            }
-        };
+    @Transactional(readOnly = true)
+    public CursorPageDTO<SummaryView> scrollSubmissionsByContributor(Long contributorId, String cursor, int size){
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        return toCursorPage(submissionRepository.findByContributorAfter(
+                contributorId, after.getCreatedAt(), after.getId(), size + 1), size);
     }
 
-    private Specification<QuizSubmission> hasDifficulty(String difficulty){
-        return (root, query, criteriaBuilder) -> {
-            try {
-                DifficultyLevel difficultyEnum = DifficultyLevel.valueOf(difficulty.toUpperCase());
-                return criteriaBuilder.equal(root.get("difficultyLevel"), difficultyEnum);
-            } catch (IllegalArgumentException e){
-                return criteriaBuilder.disjunction();
-            }
-        };
+    /** {@code rows} holds up to {@code size + 1} rows; the extra one only tells whether another slice exists. */
+    private CursorPageDTO<SummaryView> toCursorPage(List<SummaryView> rows, int size){
+        boolean hasNext = rows.size() > size;
+        List<SummaryView> items = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            SummaryView last = items.get(items.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPageDTO<>(items, nextCursor, hasNext);
     }
 
     @Transactional(readOnly = true)
-    public Page<QuizSubmission> getPendingSubmissions(Pageable pageable){
-        return submissionRepository.findByStatus(SubmissionStatus.PENDING, pageable);
+    public Page<SummaryView> getPendingSubmissions(Pageable pageable){
+        return submissionRepository.findSummariesByStatus(SubmissionStatus.PENDING, pageable);
     }
 
     @Transactional(readOnly = true)
-    public Page<QuizSubmission> getSubmissionsByContributor(Long contributorId, Pageable pageable){
-        return submissionRepository.findByContributorId(contributorId, pageable);
+    public Page<SummaryView> getSubmissionsByContributor(Long contributorId, Pageable pageable){
+        return submissionRepository.findSummariesByContributor(contributorId, pageable);
     }
 
+    /** The submission with its questions and options, loaded with one join query; null if it does not exist. */
     @Transactional(readOnly = true)
-    public QuizSubmission getSubmissionById(Long id){
-        return submissionRepository.findByIdWithQuestions(id);
+    public QuizSubmissionDetailDTO getSubmissionDetail(Long id){
+        QuizSubmission submission = submissionRepository.findById(id).orElse(null);
+        if(submission == null) return null;
+
+        QuizSubmissionDetailDTO detail = new QuizSubmissionDetailDTO();
+        detail.setId(submission.getId());
+        detail.setTitle(submission.getTitle());
+        detail.setDescription(submission.getDescription());
+        detail.setSubject(submission.getSubject());
+        detail.setDurationMinutes(submission.getDurationMinutes());
+        detail.setDifficultyLevel(submission.getDifficultyLevel());
+        detail.setPracticeOnly(submission.isPracticeOnly());
+        detail.setContributorId(submission.getContributorId());
+        detail.setStatus(submission.getStatus());
+        detail.setAdminFeedback(submission.getAdminFeedback());
+        detail.setCreatedAt(submission.getCreatedAt());
+        detail.setUpdatedAt(submission.getUpdatedAt());
+        detail.setApprovedAt(submission.getApprovedAt());
+        detail.setApprovedBy(submission.getApprovedBy());
+
+        List<SubmissionQuestionDetailDTO> questions = new ArrayList<>();
+        for(SubmissionQuestion q : submissionQuestionRepository.findBySubmissionIdWithOptions(id)){
+            SubmissionQuestionDetailDTO qDTO = new SubmissionQuestionDetailDTO();
+            qDTO.setId(q.getId());
+            qDTO.setQuestionText(q.getQuestionText());
+            qDTO.setQuestionType(q.getQuestionType());
+            qDTO.setExplanation(q.getExplanation());
+            qDTO.setMaxScore(q.getMaxScore());
+            qDTO.setEssayGuidelines(q.getEssayGuidelines());
+            qDTO.setAnswerOptions(q.getAnswerOptions().stream()
+                    .map(o -> new ResultOptionDTO(o.getId(), o.getOptionText(), o.getIsCorrect()))
+                    .collect(Collectors.toList()));
+            qDTO.setDuplicateOfQuestionId(q.getDuplicateOfQuestionId());
+            qDTO.setDuplicateSimilarity(q.getDuplicateSimilarity());
+            questions.add(qDTO);
+        }
+        detail.setQuestions(questions);
+        detail.setQuestionCount(questions.size());
+        detail.setDuplicateQuestionCount(submission.getDuplicateQuestionCount());
+        return detail;
     }
 
     @Transactional
     public QuizSubmission updateSubmission(Long id, QuizSubmissionDTO dto, Long contributorId){
         QuizSubmission submission = submissionRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Không tìm thấy đề thi"));
+        QuizSubmissionChangedEvent.State before = QuizSubmissionChangedEvent.State.of(submission);
 
         submission.setTitle(dto.getTitle());
         submission.setDescription(dto.getDescription());
         submission.setSubject(dto.getSubject());
         submission.setDurationMinutes(dto.getDurationMinutes());
-
-        submission.getQuestions().clear();
-        if(dto.getQuestions() != null){
-            List<SubmissionQuestion> questions = dto.getQuestions().stream()
-                    .map(q -> mapToQuestion(q, submission))
-                    .collect(Collectors.toList());
-            submission.getQuestions().addAll(questions);
+        if(dto.getPracticeOnly() != null){
+            submission.setPracticeOnly(dto.getPracticeOnly());
         }
 
-        return submissionRepository.save(submission);
+        if(mergeQuestions(submission, dto.getQuestions() != null ? dto.getQuestions() : List.of())){
+            // child rows alone do not move updatedAt, but the content version is derived from it
+            submission.setUpdatedAt(LocalDateTime.now());
+        }
+        submission.setQuestionCount(liveQuestionCount(submission));
+        questionDuplicateDetector.flag(submission);
+
+        compiledQuizCache.invalidate(id);
+        QuizSubmission saved = submissionRepository.saveAndFlush(submission);
+        questionDuplicateDetector.indexAfterCommit(saved);
+        if(saved.getStatus() == SubmissionStatus.APPROVED){
+            // an edit of a published quiz goes live as a new version; running attempts stay on theirs
+            quizVersionService.publish(saved);
+        }
+        eventPublisher.publishEvent(new QuizSubmissionChangedEvent(id, before, QuizSubmissionChangedEvent.State.of(saved)));
+        return saved;
     }
 
     @Transactional
@@ -180,7 +501,11 @@ public class QuizSubmissionService {
         QuizSubmission submission = submissionRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Không tìm thấy đề thi"));
 
+        QuizSubmissionChangedEvent.State before = QuizSubmissionChangedEvent.State.of(submission);
+        quizVersionService.deleteVersions(id);
         submissionRepository.delete(submission);
+        questionDuplicateDetector.removeAfterCommit(id);
+        eventPublisher.publishEvent(new QuizSubmissionChangedEvent(id, before, null));
     }
 
     @Transactional
@@ -196,22 +521,144 @@ public class QuizSubmissionService {
                     return userRankingRepository.save(ranking);
                 });
 
-        userRanking.setConsumptionPoints(userRanking.getConsumptionPoints() + 50);
+        userRanking.setConsumptionPoints(userRanking.getConsumptionPoints() + APPROVAL_REWARD_POINTS);
 
+        QuizSubmissionChangedEvent.State before = QuizSubmissionChangedEvent.State.of(submission);
         submission.setStatus(SubmissionStatus.APPROVED);
         submission.setApprovedBy(adminId);
         submission.setApprovedAt(LocalDateTime.now());
 
-        return submissionRepository.save(submission);
+        QuizSubmission approved = submissionRepository.saveAndFlush(submission);
+        quizVersionService.publish(approved);
+        eventPublisher.publishEvent(new QuizSubmissionChangedEvent(id, before, QuizSubmissionChangedEvent.State.of(approved)));
+        return approved;
     }
 
     public QuizSubmission rejectSubmission(Long id, String reason, Long adminId){
         QuizSubmission submission = submissionRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Không tìm thấy đề thi"));
+        QuizSubmissionChangedEvent.State before = QuizSubmissionChangedEvent.State.of(submission);
         submission.setStatus(SubmissionStatus.REJECTED);
         submission.setAdminFeedback(reason);
         submission.setApprovedBy(adminId);
 
-        return submissionRepository.save(submission);
+        QuizSubmission rejected = submissionRepository.save(submission);
+        compiledQuizCache.invalidate(id);
+        eventPublisher.publishEvent(new QuizSubmissionChangedEvent(id, before, QuizSubmissionChangedEvent.State.of(rejected)));
+        return rejected;
+    }
+
+    /**
+     * Approves or rejects many submissions at once. The status change is a single UPDATE over all ids;
+     * approvals are published as versions with set-based statements and the rewards are credited with one
+     * upsert carrying the total per contributor. Ids already in the target status are left untouched.
+     */
+    public BatchModerationResultDTO moderateBatch(BatchModerationRequestDTO request, Long adminId){
+        ModerationAction action = request.getAction();
+        String reason = request.getReason() != null ? request.getReason().trim() : null;
+        if(action == ModerationAction.REJECT && !StringUtils.hasText(reason)){
+            throw new BusinessException("Lý do từ chối không được để trống");
+        }
+
+        Set<Long> requested = new LinkedHashSet<>();
+        for(Long id : request.getIds()){
+            if(id != null) requested.add(id);
+        }
+        Long[] ids = requested.toArray(new Long[0]);
+        LocalDateTime now = LocalDateTime.now();
+        SubmissionStatus target = action == ModerationAction.APPROVE ? SubmissionStatus.APPROVED : SubmissionStatus.REJECTED;
+
+        List<ModeratedRow> changed = jdbcTemplate.query(con -> {
+            PreparedStatement ps;
+            if(action == ModerationAction.APPROVE){
+                ps = con.prepareStatement(BATCH_APPROVE_SQL);
+                ps.setLong(1, adminId);
+                ps.setTimestamp(2, Timestamp.valueOf(now));
+            } else {
+                ps = con.prepareStatement(BATCH_REJECT_SQL);
+                ps.setString(1, reason);
+                ps.setLong(2, adminId);
+            }
+            ps.setTimestamp(3, Timestamp.valueOf(now));
+            ps.setArray(4, con.createArrayOf("bigint", ids));
+            return ps;
+        }, (rs, rowNum) -> new ModeratedRow(rs.getLong(1), rs.getLong(2), rs.getString(3),
+                rs.getString(4), rs.getString(5), rs.getString(6)));
+
+        Set<Long> changedIds = new HashSet<>();
+        Map<Long, Integer> rewards = new TreeMap<>();
+        for(ModeratedRow row : changed){
+            changedIds.add(row.id);
+            rewards.merge(row.contributorId, APPROVAL_REWARD_POINTS, Integer::sum);
+        }
+        Set<Long> existing = changedIds.size() == ids.length ? changedIds : new HashSet<>(jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(EXISTING_IDS_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", ids));
+            return ps;
+        }, (rs, rowNum) -> rs.getLong(1)));
+
+        int pointsCredited = 0;
+        if(action == ModerationAction.APPROVE && !changed.isEmpty()){
+            quizVersionService.publishAll(new ArrayList<>(changedIds), now);
+            creditRewards(rewards, now);
+            pointsCredited = changed.size() * APPROVAL_REWARD_POINTS;
+        } else {
+            changedIds.forEach(compiledQuizCache::invalidate);
+        }
+
+        for(ModeratedRow row : changed){
+            DifficultyLevel difficulty = row.difficultyLevel != null ? DifficultyLevel.valueOf(row.difficultyLevel) : null;
+            SubmissionStatus oldStatus = row.oldStatus != null ? SubmissionStatus.valueOf(row.oldStatus) : null;
+            eventPublisher.publishEvent(new QuizSubmissionChangedEvent(row.id,
+                    QuizSubmissionChangedEvent.State.of(oldStatus, row.title, row.subject, difficulty),
+                    QuizSubmissionChangedEvent.State.of(target, row.title, row.subject, difficulty)));
+        }
+
+        BatchModerationResultDTO result = new BatchModerationResultDTO();
+        result.setAction(action);
+        result.setRequested(ids.length);
+        result.setPointsCredited(pointsCredited);
+        ModerationOutcome done = action == ModerationAction.APPROVE ? ModerationOutcome.APPROVED : ModerationOutcome.REJECTED;
+        for(Long id : ids){
+            ModerationOutcome outcome = changedIds.contains(id) ? done
+                    : existing.contains(id) ? ModerationOutcome.UNCHANGED
+                    : ModerationOutcome.NOT_FOUND;
+            result.getOutcomes().add(new ModerationOutcomeDTO(id, outcome));
+        }
+        result.setUpdated(changedIds.size());
+        result.setNotFound(ids.length - existing.size());
+        result.setUnchanged(existing.size() - changedIds.size());
+        return result;
+    }
+
+    private void creditRewards(Map<Long, Integer> rewards, LocalDateTime now){
+        Long[] userIds = rewards.keySet().toArray(new Long[0]);
+        Integer[] points = rewards.values().toArray(new Integer[0]);
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(CREDIT_REWARDS_SQL);
+            ps.setTimestamp(1, Timestamp.valueOf(now));
+            ps.setTimestamp(2, Timestamp.valueOf(now));
+            ps.setArray(3, con.createArrayOf("bigint", userIds));
+            ps.setArray(4, con.createArrayOf("integer", points));
+            return ps;
+        });
+    }
+
+    private static final class ModeratedRow {
+        final long id;
+        final long contributorId;
+        final String oldStatus;
+        final String title;
+        final String subject;
+        final String difficultyLevel;
+
+        ModeratedRow(long id, long contributorId, String oldStatus, String title, String subject, String difficultyLevel) {
+            this.id = id;
+            this.contributorId = contributorId;
+            this.oldStatus = oldStatus;
+            this.title = title;
+            this.subject = subject;
+            this.difficultyLevel = difficultyLevel;
+        }
     }
 }
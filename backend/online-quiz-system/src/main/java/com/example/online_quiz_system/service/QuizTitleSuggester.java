@@ -0,0 +1,91 @@
+package com.example.online_quiz_system.service;
+
+import com.example.online_quiz_system.dto.QuizSuggestionDTO;
+import com.example.online_quiz_system.repository.QuizSubmissionRepository;
+import com.example.online_quiz_system.util.PrefixIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typeahead over the titles of approved quizzes, served from an in-memory {@link PrefixIndex}.
+ * The index is loaded once at startup and then kept current from {@link QuizSubmissionChangedEvent}s,
+ * so suggestions never touch the database. Newer quizzes rank first.
+ */
+@Component
+public class QuizTitleSuggester {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuizTitleSuggester.class);
+
+    private static final int MAX_PREFIX_LENGTH = 32;
+
+    @Autowired
+    private QuizSubmissionRepository quizSubmissionRepository;
+
+    private final int maxSuggestions;
+    private final PrefixIndex index;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public QuizTitleSuggester(@Value("${app.suggest.max-results:10}") int maxSuggestions) {
+        this.maxSuggestions = maxSuggestions;
+        this.index = new PrefixIndex(maxSuggestions, MAX_PREFIX_LENGTH);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<QuizSubmissionRepository.TitleView> titles = quizSubmissionRepository.findApprovedTitles();
+        lock.writeLock().lock();
+        try {
+            index.clear();
+            for (QuizSubmissionRepository.TitleView t : titles) {
+                index.put(t.getId(), t.getTitle(), t.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Indexed {} approved quiz titles for suggestions", titles.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onSubmissionChanged(QuizSubmissionChangedEvent event) {
+        if (!event.wasApproved() && !event.isApproved()) return;
+        lock.writeLock().lock();
+        try {
+            if (event.isApproved()) {
+                index.put(event.getQuizId(), event.getAfter().getTitle(), event.getQuizId());
+            } else {
+                index.remove(event.getQuizId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<QuizSuggestionDTO> suggest(String query, int limit) {
+        if (query == null || query.isBlank()) return List.of();
+        int n = Math.max(1, Math.min(limit, maxSuggestions));
+        List<PrefixIndex.Entry> entries;
+        lock.readLock().lock();
+        try {
+            entries = index.search(query, n);
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<QuizSuggestionDTO> suggestions = new ArrayList<>(entries.size());
+        for (PrefixIndex.Entry e : entries) {
+            suggestions.add(new QuizSuggestionDTO(e.getId(), e.getText()));
+        }
+        return suggestions;
+    }
+}
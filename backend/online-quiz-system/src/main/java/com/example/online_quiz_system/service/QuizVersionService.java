@@ -0,0 +1,160 @@
+package com.example.online_quiz_system.service;
+
+import com.example.online_quiz_system.entity.QuizSubmission;
+import com.example.online_quiz_system.entity.QuizVersion;
+import com.example.online_quiz_system.entity.SubmissionQuestion;
+import com.example.online_quiz_system.repository.QuizVersionRepository;
+import com.example.online_quiz_system.repository.SubmissionQuestionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Creates the immutable {@link QuizVersion} rows of approved quizzes.
+ * <p>
+ * A version copies the quiz metadata and lists the ids of the questions that were live at the time, in their
+ * display order ({@code submission_questions.position}).
+ * Questions are shared between versions rather than copied: once a question is referenced by a version
+ * it is never modified, an edit retires it and inserts a replacement (see {@link #frozenQuestionIds}),
+ * so consecutive versions only differ in the questions that actually changed.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class QuizVersionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuizVersionService.class);
+
+    private static final String INSERT_VERSIONS_SQL =
+            "INSERT INTO quiz_versions (quiz_submission_id, version_number, title, description, subject, " +
+            "duration_minutes, difficulty_level, practice_only, created_at) " +
+            "SELECT s.id, COALESCE((SELECT MAX(v.version_number) FROM quiz_versions v WHERE v.quiz_submission_id = s.id), 0) + 1, " +
+            "s.title, s.description, s.subject, s.duration_minutes, CAST(s.difficulty_level AS TEXT), s.practice_only, ? " +
+            "FROM quiz_submissions s WHERE s.id = ANY(?) " +
+            "RETURNING id";
+
+    private static final String LINK_QUESTIONS_SQL =
+            "INSERT INTO quiz_version_questions (quiz_version_id, position, question_id) " +
+            "SELECT v.id, ROW_NUMBER() OVER (PARTITION BY v.id ORDER BY q.position, q.id) - 1, q.id " +
+            "FROM quiz_versions v JOIN submission_questions q ON q.submission_id = v.quiz_submission_id AND q.retired = false " +
+            "WHERE v.id = ANY(?)";
+
+    private static final String SET_CURRENT_SQL =
+            "UPDATE quiz_submissions s SET current_version_id = v.id " +
+            "FROM quiz_versions v WHERE v.id = ANY(?) AND v.quiz_submission_id = s.id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private QuizVersionRepository quizVersionRepository;
+
+    @Autowired
+    private SubmissionQuestionRepository submissionQuestionRepository;
+
+    @Autowired
+    private CompiledQuizCache compiledQuizCache;
+
+    /**
+     * Makes the current content of an approved submission its published version. A new version is only
+     * created when the content differs from the current one; either way the submission ends up pointing at
+     * a version that matches it. Pending changes must already be flushed, so new questions have their ids.
+     */
+    public QuizVersion publish(QuizSubmission submission) {
+        List<Long> questionIds = submissionQuestionRepository.findBySubmissionIdWithOptions(submission.getId()).stream()
+                .map(SubmissionQuestion::getId)
+                .collect(Collectors.toList());
+
+        if (submission.getCurrentVersionId() != null) {
+            QuizVersion current = quizVersionRepository.findByIdWithQuestionIds(submission.getCurrentVersionId()).orElse(null);
+            if (current != null && matches(current, submission, questionIds)) {
+                // a cached draft of a re-approved quiz must give way to the version
+                compiledQuizCache.invalidate(submission.getId());
+                return current;
+            }
+        }
+
+        QuizVersion version = new QuizVersion();
+        version.setQuizSubmissionId(submission.getId());
+        version.setVersionNumber(quizVersionRepository.findLatestVersionNumber(submission.getId()) + 1);
+        version.setTitle(submission.getTitle());
+        version.setDescription(submission.getDescription());
+        version.setSubject(submission.getSubject());
+        version.setDurationMinutes(submission.getDurationMinutes());
+        version.setDifficultyLevel(submission.getDifficultyLevel());
+        version.setPracticeOnly(submission.isPracticeOnly());
+        version.setQuestionIds(questionIds);
+        QuizVersion saved = quizVersionRepository.saveAndFlush(version);
+
+        submission.setCurrentVersionId(saved.getId());
+        compiledQuizCache.publish(saved);
+        logger.info("Published version {} of quiz {} with {} questions", saved.getVersionNumber(), submission.getId(), questionIds.size());
+        return saved;
+    }
+
+    /**
+     * Set-based {@link #publish} for bulk moderation: one statement creates a version of every given quiz,
+     * one links their live questions and one points the quizzes at them. Every quiz gets a new version,
+     * without comparing against its current one.
+     */
+    public void publishAll(List<Long> quizIds, LocalDateTime now) {
+        if (quizIds.isEmpty()) return;
+        Long[] ids = quizIds.toArray(new Long[0]);
+        List<Long> versionIds = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(INSERT_VERSIONS_SQL);
+            ps.setTimestamp(1, Timestamp.valueOf(now));
+            ps.setArray(2, con.createArrayOf("bigint", ids));
+            return ps;
+        }, (rs, rowNum) -> rs.getLong(1));
+
+        Long[] versions = versionIds.toArray(new Long[0]);
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(LINK_QUESTIONS_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", versions));
+            return ps;
+        });
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(SET_CURRENT_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", versions));
+            return ps;
+        });
+        // heads are re-resolved to the new versions on the next read
+        quizIds.forEach(compiledQuizCache::invalidate);
+        logger.info("Published {} quiz versions in bulk", versionIds.size());
+    }
+
+    /** Ids of the questions some version of the quiz refers to; these must be retired rather than edited or deleted. */
+    public Set<Long> frozenQuestionIds(QuizSubmission submission) {
+        if (submission.getCurrentVersionId() == null) return Set.of();
+        return quizVersionRepository.findFrozenQuestionIds(submission.getId());
+    }
+
+    /** Removes every version of a quiz that is about to be deleted, unpinning its attempts first. */
+    public void deleteVersions(Long quizId) {
+        quizVersionRepository.unpinAttempts(quizId);
+        quizVersionRepository.deleteQuestionLinks(quizId);
+        quizVersionRepository.deleteByQuizId(quizId);
+        compiledQuizCache.evict(quizId);
+    }
+
+    private static boolean matches(QuizVersion version, QuizSubmission submission, List<Long> questionIds) {
+        return version.getQuestionIds().equals(questionIds)
+                && Objects.equals(version.getTitle(), submission.getTitle())
+                && Objects.equals(version.getDescription(), submission.getDescription())
+                && Objects.equals(version.getSubject(), submission.getSubject())
+                && Objects.equals(version.getDurationMinutes(), submission.getDurationMinutes())
+                && version.getDifficultyLevel() == submission.getDifficultyLevel()
+                && version.isPracticeOnly() == submission.isPracticeOnly();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.online_quiz_system.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Size- and time-bounded map: at most {@code maxEntries} entries, least recently used evicted first,
+ * and every entry expires {@code ttlMillis} after it was written. Counts hits, misses, evictions and
+ * expirations. Not thread-safe; callers synchronise.
+ */
+public class BoundedTtlCache<K, V> {
+
+    private static final class Slot<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Slot(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LinkedHashMap<K, Slot<V>> entries;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    public BoundedTtlCache(int maxEntries, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Slot<V>> eldest) {
+                if (size() <= BoundedTtlCache.this.maxEntries) return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    /** The live value for {@code key}, or null on a miss; an expired entry is dropped and counts as a miss. */
+    public V get(K key, long nowMillis) {
+        Slot<V> slot = entries.get(key);
+        if (slot != null && slot.expiresAt <= nowMillis) {
+            entries.remove(key);
+            expirations++;
+            slot = null;
+        }
+        if (slot == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return slot.value;
+    }
+
+    public void put(K key, V value, long nowMillis) {
+        entries.put(key, new Slot<>(value, nowMillis + ttlMillis));
+    }
+
+    /** Removes every entry whose key matches; returns how many were removed. */
+    public int removeIf(Predicate<K> matches) {
+        int removed = 0;
+        for (Iterator<K> it = entries.keySet().iterator(); it.hasNext(); ) {
+            if (matches.test(it.next())) {
+                it.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() { return entries.size(); }
+
+    public int getMaxEntries() { return maxEntries; }
+
+    public long getHits() { return hits; }
+
+    public long getMisses() { return misses; }
+
+    public long getEvictions() { return evictions; }
+
+    public long getExpirations() { return expirations; }
+}
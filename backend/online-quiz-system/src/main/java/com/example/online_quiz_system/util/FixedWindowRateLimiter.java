@@ -0,0 +1,52 @@
+package com.example.online_quiz_system.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-key request limiter: a key may pass at most {@code limit} times within a fixed window of
+ * {@code windowMillis}, counted from its first request. Windows of keys that went quiet are dropped by
+ * {@link #evictExpired}. Thread-safe.
+ */
+public class FixedWindowRateLimiter<K> {
+
+    private static final class Window {
+        private final long start;
+        private int count;
+
+        private Window(long start) {
+            this.start = start;
+        }
+    }
+
+    private final int limit;
+    private final long windowMillis;
+    private final ConcurrentHashMap<K, Window> windows = new ConcurrentHashMap<>();
+
+    public FixedWindowRateLimiter(int limit, long windowMillis) {
+        this.limit = limit;
+        this.windowMillis = windowMillis;
+    }
+
+    /** Counts a request of {@code key}; false once the key has used up its current window. */
+    public boolean tryAcquire(K key, long nowMillis) {
+        boolean[] allowed = new boolean[1];
+        windows.compute(key, (k, window) -> {
+            if (window == null || nowMillis - window.start >= windowMillis) window = new Window(nowMillis);
+            allowed[0] = window.count < limit;
+            if (allowed[0]) window.count++;
+            return window;
+        });
+        return allowed[0];
+    }
+
+    /** Drops every window that has ended; returns how many were dropped. */
+    public int evictExpired(long nowMillis) {
+        int before = windows.size();
+        windows.values().removeIf(window -> nowMillis - window.start >= windowMillis);
+        return before - windows.size();
+    }
+
+    public int size() {
+        return windows.size();
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.online_quiz_system.util;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Hierarchical timing wheel holding {@code long} ids with a deadline.
+ * <p>
+ * Level 0 has one slot per tick; each higher level covers {@code SLOTS} times the span of the one below.
+ * Adding and expiring an id is O(1) amortised, and an id is cascaded down at most once per level,
+ * so the wheel can track hundreds of thousands of deadlines with no scanning. Entries are stored in
+ * primitive arrays, two longs per entry. Not thread-safe on its own; callers synchronise.
+ */
+public class HierarchicalTimingWheel {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final Bucket[][] wheels = new Bucket[LEVELS][SLOTS];
+    private long currentTick;
+    private int size;
+
+    public HierarchicalTimingWheel(long tickMillis, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        for (Bucket[] wheel : wheels) {
+            for (int i = 0; i < SLOTS; i++) wheel[i] = new Bucket();
+        }
+    }
+
+    /**
+     * Schedules {@code id} to expire at {@code deadlineMillis}. Deadlines already in the past
+     * expire on the next {@link #advance} call.
+     */
+    public void add(long id, long deadlineMillis) {
+        long expiryTick = Math.max(ceilDiv(deadlineMillis, tickMillis), currentTick + 1);
+        place(id, expiryTick);
+        size++;
+    }
+
+    /** Moves the wheel forward to {@code nowMillis}, handing every expired id to {@code expired}. */
+    public void advance(long nowMillis, LongConsumer expired) {
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            Bucket bucket = wheels[0][(int) (currentTick & MASK)];
+            if (bucket.count == 0) continue;
+            long[] ids = Arrays.copyOf(bucket.ids, bucket.count);
+            long[] ticks = Arrays.copyOf(bucket.ticks, bucket.count);
+            bucket.clear();
+            for (int i = 0; i < ids.length; i++) {
+                if (ticks[i] <= currentTick) {
+                    size--;
+                    expired.accept(ids[i]);
+                } else {
+                    place(ids[i], ticks[i]);
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** When the lower wheels wrap around, redistribute the slot of the level above that has now come due. */
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            if ((currentTick & ((1L << (BITS * level)) - 1)) != 0) return;
+            Bucket bucket = wheels[level][(int) ((currentTick >>> (BITS * level)) & MASK)];
+            if (bucket.count == 0) continue;
+            long[] ids = Arrays.copyOf(bucket.ids, bucket.count);
+            long[] ticks = Arrays.copyOf(bucket.ticks, bucket.count);
+            bucket.clear();
+            for (int i = 0; i < ids.length; i++) {
+                place(ids[i], ticks[i]);
+            }
+        }
+    }
+
+    private void place(long id, long expiryTick) {
+        long delta = expiryTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (BITS * (level + 1)))) {
+            level++;
+        }
+        // Beyond the top wheel's span: park in the top wheel, it is re-placed when its slot comes due
+        long slotTick = level == LEVELS - 1 && delta >= (1L << (BITS * LEVELS))
+                ? currentTick + (1L << (BITS * LEVELS)) - 1
+                : expiryTick;
+        int slot = (int) ((slotTick >>> (BITS * level)) & MASK);
+        wheels[level][slot].add(id, expiryTick);
+    }
+
+    private static long ceilDiv(long x, long y) {
+        return -Math.floorDiv(-x, y);
+    }
+
+    private static final class Bucket {
+        private long[] ids = new long[4];
+        private long[] ticks = new long[4];
+        private int count;
+
+        void add(long id, long tick) {
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+                ticks = Arrays.copyOf(ticks, count * 2);
+            }
+            ids[count] = id;
+            ticks[count] = tick;
+            count++;
+        }
+
+        void clear() {
+            count = 0;
+            if (ids.length > 64) {
+                ids = new long[4];
+                ticks = new long[4];
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.online_quiz_system.util;
+
+import com.example.online_quiz_system.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Position in a listing ordered by {@code (created_at DESC, id DESC)}, encoded as an opaque URL-safe string.
+ * The timestamp is kept to the microsecond so it compares exactly against PostgreSQL's {@code timestamp}.
+ */
+public final class KeysetCursor {
+
+    /** Position before the first row: later than any stored timestamp and any id. */
+    public static final KeysetCursor START = new KeysetCursor(LocalDateTime.of(9999, 1, 1, 0, 0), Long.MAX_VALUE);
+
+    private final LocalDateTime createdAt;
+    private final long id;
+
+    public KeysetCursor(LocalDateTime createdAt, long id) {
+        this.createdAt = createdAt.truncatedTo(ChronoUnit.MICROS);
+        this.id = id;
+    }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public long getId() { return id; }
+
+    public String encode() {
+        long micros = ChronoUnit.MICROS.between(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC), createdAt);
+        String raw = micros + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /** Decodes a cursor from a client; a blank cursor means "from the start". */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return START;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            int sep = raw.indexOf(':');
+            long micros = Long.parseLong(raw.substring(0, sep));
+            long id = Long.parseLong(raw.substring(sep + 1));
+            return new KeysetCursor(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC).plus(micros, ChronoUnit.MICROS), id);
+        } catch (RuntimeException e) {
+            throw new BusinessException("Cursor không hợp lệ.");
+        }
+    }
+}
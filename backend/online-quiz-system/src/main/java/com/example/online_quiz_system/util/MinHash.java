@@ -0,0 +1,95 @@
+package com.example.online_quiz_system.util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * MinHash signatures of short texts. A text is accent-folded with {@link TextFolding}, cut into overlapping
+ * character 4-grams, and for each of {@link #NUM_HASHES} hash functions the minimum hash over its shingles is kept.
+ * The fraction of equal positions in two signatures estimates the Jaccard similarity of their shingle sets.
+ */
+public final class MinHash {
+
+    public static final int NUM_HASHES = 64;
+    public static final int SIGNATURE_BYTES = NUM_HASHES * Integer.BYTES;
+
+    private static final int SHINGLE_LENGTH = 4;
+
+    // fixed seeds: signatures are persisted, so the hash functions must never change between releases
+    private static final long[] SEEDS = new long[NUM_HASHES];
+
+    static {
+        long state = 0x5DEECE66DL;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            SEEDS[i] = mix(state);
+        }
+    }
+
+    private MinHash() {
+    }
+
+    /** Signature of {@code text}, or null when it has no letters or digits at all. */
+    public static int[] signature(String text) {
+        String folded = TextFolding.fold(text);
+        if (folded.isEmpty()) return null;
+
+        int count = Math.max(1, folded.length() - SHINGLE_LENGTH + 1);
+        long[] shingles = new long[count];
+        for (int start = 0; start < count; start++) {
+            long h = 1125899906842597L;
+            int end = Math.min(folded.length(), start + SHINGLE_LENGTH);
+            for (int i = start; i < end; i++) {
+                h = 31 * h + folded.charAt(i);
+            }
+            shingles[start] = h;
+        }
+        // repeated shingles do not change the minimum, hash each distinct one once
+        Arrays.sort(shingles);
+
+        int[] signature = new int[NUM_HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        long previous = 0;
+        for (int s = 0; s < shingles.length; s++) {
+            if (s > 0 && shingles[s] == previous) continue;
+            previous = shingles[s];
+            for (int i = 0; i < NUM_HASHES; i++) {
+                int v = (int) (mix(shingles[s] ^ SEEDS[i]) >>> 33);
+                if (v < signature[i]) signature[i] = v;
+            }
+        }
+        return signature;
+    }
+
+    /** Estimated Jaccard similarity of the texts behind two signatures, between 0 and 1. */
+    public static double similarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            if (a[i] == b[i]) equal++;
+        }
+        return (double) equal / NUM_HASHES;
+    }
+
+    public static byte[] toBytes(int[] signature) {
+        if (signature == null) return null;
+        ByteBuffer buffer = ByteBuffer.allocate(SIGNATURE_BYTES);
+        for (int v : signature) buffer.putInt(v);
+        return buffer.array();
+    }
+
+    /** Decodes a stored signature; null for missing or malformed values. */
+    public static int[] fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != SIGNATURE_BYTES) return null;
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int[] signature = new int[NUM_HASHES];
+        for (int i = 0; i < NUM_HASHES; i++) signature[i] = buffer.getInt();
+        return signature;
+    }
+
+    /** SplitMix64 finalizer. */
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
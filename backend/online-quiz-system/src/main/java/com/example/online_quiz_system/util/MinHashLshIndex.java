@@ -0,0 +1,140 @@
+package com.example.online_quiz_system.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Locality-sensitive hashing index over {@link MinHash} signatures: 16 bands of 4 rows each. Two texts
+ * land in a common bucket with probability 1 - (1 - s^4)^16 for similarity s, about 0.99 at s = 0.7 and 0.03
+ * at s = 0.2, so a lookup only compares the query against a handful of candidates instead of every entry.
+ * Entries are ids grouped by an owner id (the submission), so an owner's entries can be skipped or replaced together.
+ * Not thread-safe; callers synchronise.
+ */
+public class MinHashLshIndex {
+
+    public static final int BANDS = 16;
+    public static final int ROWS = MinHash.NUM_HASHES / BANDS;
+
+    public static final class Match {
+        private final long id;
+        private final long groupId;
+        private final double similarity;
+
+        private Match(long id, long groupId, double similarity) {
+            this.id = id;
+            this.groupId = groupId;
+            this.similarity = similarity;
+        }
+
+        public long getId() { return id; }
+
+        public long getGroupId() { return groupId; }
+
+        public double getSimilarity() { return similarity; }
+    }
+
+    private static final class Entry {
+        final long groupId;
+        final int[] signature;
+
+        Entry(long groupId, int[] signature) {
+            this.groupId = groupId;
+            this.signature = signature;
+        }
+    }
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<Long, LongList> buckets = new HashMap<>();
+    private final Map<Long, LongList> groups = new HashMap<>();
+
+    public void put(long id, long groupId, int[] signature) {
+        remove(id);
+        entries.put(id, new Entry(groupId, signature));
+        for (int band = 0; band < BANDS; band++) {
+            buckets.computeIfAbsent(bandKey(signature, band), k -> new LongList()).add(id);
+        }
+        groups.computeIfAbsent(groupId, k -> new LongList()).add(id);
+    }
+
+    public void remove(long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) return;
+        for (int band = 0; band < BANDS; band++) {
+            long key = bandKey(entry.signature, band);
+            LongList bucket = buckets.get(key);
+            if (bucket != null && bucket.remove(id) && bucket.size == 0) buckets.remove(key);
+        }
+        LongList group = groups.get(entry.groupId);
+        if (group != null && group.remove(id) && group.size == 0) groups.remove(entry.groupId);
+    }
+
+    public void removeGroup(long groupId) {
+        LongList group = groups.get(groupId);
+        if (group == null) return;
+        for (long id : Arrays.copyOf(group.ids, group.size)) remove(id);
+    }
+
+    /**
+     * The most similar entry at or above {@code threshold}, ignoring entries of {@code excludeGroupId}
+     * and entries whose id is not below {@code maxIdExclusive}; null if there is none.
+     */
+    public Match findBest(int[] signature, long excludeGroupId, long maxIdExclusive, double threshold) {
+        Match best = null;
+        for (int band = 0; band < BANDS; band++) {
+            LongList bucket = buckets.get(bandKey(signature, band));
+            if (bucket == null) continue;
+            for (int i = 0; i < bucket.size; i++) {
+                long id = bucket.ids[i];
+                if (id >= maxIdExclusive || (best != null && best.id == id)) continue;
+                Entry entry = entries.get(id);
+                if (entry.groupId == excludeGroupId) continue;
+                double similarity = MinHash.similarity(signature, entry.signature);
+                if (similarity >= threshold && (best == null || similarity > best.similarity
+                        || (similarity == best.similarity && id < best.id))) {
+                    best = new Match(id, entry.groupId, similarity);
+                }
+            }
+        }
+        return best;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+        buckets.clear();
+        groups.clear();
+    }
+
+    private static long bandKey(int[] signature, int band) {
+        long h = band;
+        int offset = band * ROWS;
+        for (int r = 0; r < ROWS; r++) {
+            h = MinHash.mix(h * 31 + signature[offset + r]);
+        }
+        return h;
+    }
+
+    private static final class LongList {
+        long[] ids = new long[2];
+        int size;
+
+        void add(long id) {
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            ids[size++] = id;
+        }
+
+        boolean remove(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    ids[i] = ids[--size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.online_quiz_system.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prefix trie over accent-folded text, answering "top-k entries whose text has a word starting with
+ * this prefix". Every word start of an entry's folded text is indexed, up to {@code maxDepth} characters,
+ * and every node keeps its own top-k so a lookup is a walk down the query plus a copy of at most k entries.
+ * Adding or removing an entry recomputes the top-k lists bottom-up along the affected paths only.
+ * Not thread-safe; callers synchronise.
+ */
+public class PrefixIndex {
+
+    public static final class Entry {
+        private final long id;
+        private final String text;
+        private final String folded;
+        private final long score;
+
+        private Entry(long id, String text, String folded, long score) {
+            this.id = id;
+            this.text = text;
+            this.folded = folded;
+            this.score = score;
+        }
+
+        public long getId() { return id; }
+
+        public String getText() { return text; }
+
+        public long getScore() { return score; }
+    }
+
+    private static final Comparator<Entry> BY_RANK =
+            Comparator.comparingLong((Entry e) -> e.score).reversed().thenComparingLong(e -> -e.id);
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private final List<Entry> terminal = new ArrayList<>(1);
+        private Entry[] top = new Entry[0];
+    }
+
+    private final int topK;
+    private final int maxDepth;
+    private final Node root = new Node();
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    public PrefixIndex(int topK, int maxDepth) {
+        this.topK = topK;
+        this.maxDepth = maxDepth;
+    }
+
+    /** Adds or replaces the entry with {@code id}. */
+    public void put(long id, String text, long score) {
+        remove(id);
+        String folded = TextFolding.fold(text);
+        if (folded.isEmpty()) return;
+        Entry entry = new Entry(id, text, folded, score);
+        entries.put(id, entry);
+        for (String key : keysOf(folded)) {
+            List<Node> path = new ArrayList<>(key.length() + 1);
+            Node node = root;
+            path.add(node);
+            for (int i = 0; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+                path.add(node);
+            }
+            node.terminal.add(entry);
+            recompute(path);
+        }
+    }
+
+    public void remove(long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) return;
+        for (String key : keysOf(entry.folded)) {
+            List<Node> path = new ArrayList<>(key.length() + 1);
+            Node node = root;
+            path.add(node);
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.children.get(key.charAt(i));
+                if (node != null) path.add(node);
+            }
+            if (node == null) continue;
+            node.terminal.removeIf(e -> e.id == id);
+            // prune nodes left without entries, then fix the top-k lists above them
+            for (int i = path.size() - 1; i > 0; i--) {
+                Node n = path.get(i);
+                if (!n.terminal.isEmpty() || !n.children.isEmpty()) break;
+                path.get(i - 1).children.remove(key.charAt(i - 1));
+                path.remove(i);
+            }
+            recompute(path);
+        }
+    }
+
+    /** Top entries having a word that starts with {@code prefix}, best first. */
+    public List<Entry> search(String prefix, int limit) {
+        String folded = TextFolding.fold(prefix);
+        if (folded.isEmpty()) return Collections.emptyList();
+        String walk = folded.length() > maxDepth ? folded.substring(0, maxDepth) : folded;
+        Node node = root;
+        for (int i = 0; i < walk.length() && node != null; i++) {
+            node = node.children.get(walk.charAt(i));
+        }
+        if (node == null) return Collections.emptyList();
+
+        int n = Math.min(limit, node.top.length);
+        List<Entry> result = new ArrayList<>(n);
+        for (Entry e : node.top) {
+            if (result.size() == n) break;
+            // keys are truncated at maxDepth, so longer queries are checked against the whole text
+            if (folded.length() > maxDepth && !hasWordStartingWith(e.folded, folded)) continue;
+            result.add(e);
+        }
+        return result;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+        root.children.clear();
+        root.terminal.clear();
+        root.top = new Entry[0];
+    }
+
+    private List<String> keysOf(String folded) {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < folded.length(); i++) {
+            if (i == 0 || folded.charAt(i - 1) == ' ') {
+                keys.add(folded.substring(i, Math.min(folded.length(), i + maxDepth)));
+            }
+        }
+        return keys;
+    }
+
+    /** Recomputes top-k from the deepest node of {@code path} up to the root. */
+    private void recompute(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            List<Entry> candidates = new ArrayList<>(node.terminal);
+            for (Node child : node.children.values()) {
+                Collections.addAll(candidates, child.top);
+            }
+            candidates.sort(BY_RANK);
+            List<Entry> top = new ArrayList<>(Math.min(topK, candidates.size()));
+            for (Entry e : candidates) {
+                if (top.size() == topK) break;
+                if (!containsId(top, e.id)) top.add(e);
+            }
+            node.top = top.toArray(new Entry[0]);
+        }
+    }
+
+    private static boolean containsId(List<Entry> list, long id) {
+        for (Entry e : list) {
+            if (e.id == id) return true;
+        }
+        return false;
+    }
+
+    private static boolean hasWordStartingWith(String text, String prefix) {
+        int idx = text.indexOf(prefix);
+        while (idx >= 0) {
+            if (idx == 0 || text.charAt(idx - 1) == ' ') return true;
+            idx = text.indexOf(prefix, idx + 1);
+        }
+        return false;
+    }
+}
@@ -4,7 +4,7 @@ CREATE TABLE payment_transactions (
     amount BIGINT NOT NULL,
     points_purchased INT NOT NULL,
     vnp_txn_ref VARCHAR(255) UNIQUE NOT NULL,
-    status status_enum NOT NULL, -- PENDING, SUCCESS, FAILED
+    status VARCHAR(20) NOT NULL, -- PENDING, SUCCESS, FAILED
     created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
     CONSTRAINT fk_user FOREIGN KEY (user_id) REFERENCES users(id)
@@ -0,0 +1,21 @@
+-- File: V009__create_outbox_events_table.sql
+
+-- Outbox: các tác vụ phụ sau khi chấm bài (thử thách, xếp hạng, điểm) được ghi cùng transaction
+-- với kết quả chấm và xử lý bất đồng bộ bởi OutboxDispatcher
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGSERIAL PRIMARY KEY,
+    event_type VARCHAR(50) NOT NULL,
+    partition_key BIGINT,
+    payload JSONB NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING', -- PENDING, PROCESSING, DONE, FAILED
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    locked_at TIMESTAMP,
+    last_error TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    processed_at TIMESTAMP
+);
+
+-- Chỉ các sự kiện chưa xử lý nằm trong index, nên việc quét tìm sự kiện đến hạn luôn nhỏ
+CREATE INDEX IF NOT EXISTS idx_outbox_events_due ON outbox_events(next_attempt_at, id) WHERE status IN ('PENDING', 'PROCESSING');
+CREATE INDEX IF NOT EXISTS idx_outbox_events_processed ON outbox_events(processed_at) WHERE status = 'DONE';
@@ -0,0 +1,10 @@
+-- File: V010__pooled_sequences_for_batch_inserts.sql
+
+-- Các entity UserAnswer, SubmissionQuestion, SubmissionAnswerOption, DailyPointHistory chuyển từ IDENTITY
+-- sang SEQUENCE (pooled optimizer, allocationSize = 50) để Hibernate có thể gom INSERT thành batch.
+-- Bước tăng của sequence phải bằng allocationSize; giá trị DEFAULT nextval() của cột id vẫn được giữ
+-- cho các câu INSERT viết tay.
+ALTER SEQUENCE user_answers_id_seq INCREMENT BY 50;
+ALTER SEQUENCE submission_questions_id_seq INCREMENT BY 50;
+ALTER SEQUENCE submission_answer_options_id_seq INCREMENT BY 50;
+ALTER SEQUENCE daily_point_history_id_seq INCREMENT BY 50;
@@ -0,0 +1,12 @@
+-- File: V011__add_quiz_attempt_expiry.sql
+
+-- Thời điểm hết hạn của lượt làm bài (start_time + duration_minutes của đề)
+ALTER TABLE quiz_attempts ADD COLUMN IF NOT EXISTS expires_at TIMESTAMP;
+
+UPDATE quiz_attempts qa
+SET expires_at = qa.start_time + make_interval(mins => qs.duration_minutes)
+FROM quiz_submissions qs
+WHERE qs.id = qa.quiz_submission_id AND qa.expires_at IS NULL;
+
+-- Chỉ các lượt đang làm mới cần đọc lại khi khởi động để dựng lại timing wheel
+CREATE INDEX IF NOT EXISTS idx_quiz_attempts_in_progress ON quiz_attempts(id) WHERE status = 'IN_PROGRESS';
@@ -0,0 +1,6 @@
+-- File: V012__add_quiz_attempt_result_snapshot.sql
+
+-- Kết quả đã chấm của lượt làm bài (câu hỏi, đáp án, câu trả lời, điểm, nhận xét) dạng JSONB,
+-- ghi một lần khi nộp bài và được cập nhật tại chỗ khi chấm tự luận.
+-- Các lượt làm cũ để NULL, snapshot được dựng lại từ user_answers ở lần xem đầu tiên.
+ALTER TABLE quiz_attempts ADD COLUMN IF NOT EXISTS result_snapshot JSONB;
@@ -0,0 +1,4 @@
+-- File: V013__add_quiz_attempt_idempotency_key.sql
+
+-- Idempotency-Key của lần nộp bài đã xử lý; nộp lại một bài đã COMPLETED chỉ trả về kết quả đã lưu
+ALTER TABLE quiz_attempts ADD COLUMN IF NOT EXISTS submit_idempotency_key VARCHAR(100);
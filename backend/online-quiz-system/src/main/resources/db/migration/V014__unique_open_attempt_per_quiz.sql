@@ -0,0 +1,19 @@
+-- File: V014__unique_open_attempt_per_quiz.sql
+
+-- Mỗi người dùng chỉ có tối đa một lượt làm đang dở (IN_PROGRESS) cho mỗi đề thi.
+-- Các lượt đang dở bị trùng từ trước được đánh dấu ABANDONED, chỉ giữ lại lượt mới nhất.
+UPDATE quiz_attempts
+SET status = 'ABANDONED', end_time = COALESCE(end_time, start_time)
+WHERE status = 'IN_PROGRESS'
+  AND id NOT IN (
+      SELECT MAX(id) FROM quiz_attempts
+      WHERE status = 'IN_PROGRESS'
+      GROUP BY user_id, quiz_submission_id
+  );
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_quiz_attempts_open_per_user_quiz
+    ON quiz_attempts(user_id, quiz_submission_id)
+    WHERE status = 'IN_PROGRESS';
+
+-- Phục vụ việc dọn dẹp định kỳ các lượt làm ABANDONED
+CREATE INDEX IF NOT EXISTS idx_quiz_attempts_abandoned ON quiz_attempts(end_time) WHERE status = 'ABANDONED';
@@ -0,0 +1,9 @@
+-- File: V015__create_question_practice_stats_table.sql
+
+-- Thống kê (lấy mẫu) số lần kiểm tra đáp án ở chế độ luyện tập, cộng dồn theo từng câu hỏi
+CREATE TABLE IF NOT EXISTS question_practice_stats (
+    question_id BIGINT PRIMARY KEY REFERENCES submission_questions(id) ON DELETE CASCADE,
+    sampled_checks BIGINT NOT NULL DEFAULT 0,
+    sampled_correct BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
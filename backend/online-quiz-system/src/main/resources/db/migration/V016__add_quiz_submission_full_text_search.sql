@@ -0,0 +1,19 @@
+-- File: V016__add_quiz_submission_full_text_search.sql
+
+-- Tìm kiếm toàn văn cho danh mục đề thi công khai.
+-- unaccent bỏ dấu tiếng Việt ("Hoá học" khớp "hoa hoc"); hàm bọc f_unaccent được khai báo IMMUTABLE
+-- để dùng được trong cột generated và index.
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+CREATE OR REPLACE FUNCTION f_unaccent(text) RETURNS text AS
+$$ SELECT public.unaccent('public.unaccent', $1) $$
+LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT;
+
+-- Tiêu đề có trọng số A, mô tả có trọng số B; cấu hình 'simple' vì PostgreSQL không có từ điển tiếng Việt
+ALTER TABLE quiz_submissions ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', f_unaccent(coalesce(title, ''))), 'A') ||
+        setweight(to_tsvector('simple', f_unaccent(coalesce(description, ''))), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_quiz_submissions_search_vector ON quiz_submissions USING GIN (search_vector);
@@ -0,0 +1,6 @@
+-- File: V017__keyset_pagination_indexes.sql
+
+-- Phân trang theo con trỏ (created_at, id) giảm dần cho danh mục công khai, hàng chờ duyệt
+-- và danh sách đề của người đóng góp
+CREATE INDEX IF NOT EXISTS idx_quiz_submissions_status_created ON quiz_submissions(status, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_quiz_submissions_contributor_created ON quiz_submissions(contributor_id, created_at DESC, id DESC);
@@ -0,0 +1,10 @@
+-- File: V018__add_quiz_submission_question_count.sql
+
+-- Số câu hỏi được lưu sẵn trên đề để danh sách (danh mục, kiểm duyệt, đề của tôi)
+-- không phải đọc bảng submission_questions
+ALTER TABLE quiz_submissions ADD COLUMN IF NOT EXISTS question_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE quiz_submissions qs
+SET question_count = c.cnt
+FROM (SELECT submission_id, COUNT(*) AS cnt FROM submission_questions GROUP BY submission_id) c
+WHERE c.submission_id = qs.id;
@@ -0,0 +1,22 @@
+-- File: V019__add_quiz_popularity_counters.sql
+
+-- Bộ đếm độ phổ biến của đề, cập nhật mỗi khi một lượt làm bài hoàn thành.
+-- trending_score là logarit của tổng trọng số giảm dần theo thời gian của các lượt làm bài
+ALTER TABLE quiz_submissions ADD COLUMN IF NOT EXISTS attempt_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE quiz_submissions ADD COLUMN IF NOT EXISTS score_sum NUMERIC(14,2) NOT NULL DEFAULT 0;
+ALTER TABLE quiz_submissions ADD COLUMN IF NOT EXISTS average_score NUMERIC(5,2) NOT NULL DEFAULT 0;
+ALTER TABLE quiz_submissions ADD COLUMN IF NOT EXISTS trending_score DOUBLE PRECISION NOT NULL DEFAULT 0;
+
+-- Khởi tạo số lượt và điểm trung bình từ các lượt đã hoàn thành
+UPDATE quiz_submissions qs
+SET attempt_count = a.cnt,
+    score_sum = a.total,
+    average_score = ROUND(a.total / a.cnt, 2)
+FROM (SELECT quiz_submission_id, COUNT(*) AS cnt, COALESCE(SUM(score), 0) AS total
+      FROM quiz_attempts WHERE status = 'COMPLETED' GROUP BY quiz_submission_id) a
+WHERE a.quiz_submission_id = qs.id;
+
+-- Các cách sắp xếp danh mục chỉ áp dụng cho đề đã duyệt
+CREATE INDEX IF NOT EXISTS idx_quiz_submissions_trending ON quiz_submissions(trending_score DESC, id DESC) WHERE status = 'APPROVED';
+CREATE INDEX IF NOT EXISTS idx_quiz_submissions_most_attempted ON quiz_submissions(attempt_count DESC, id DESC) WHERE status = 'APPROVED';
+CREATE INDEX IF NOT EXISTS idx_quiz_submissions_highest_rated ON quiz_submissions(average_score DESC, attempt_count DESC, id DESC) WHERE status = 'APPROVED';
@@ -0,0 +1,54 @@
+-- File: V020__add_immutable_quiz_versions.sql
+
+-- Mỗi lần đề thi được duyệt hoặc đề đã duyệt được chỉnh sửa sẽ sinh một phiên bản bất biến.
+-- Phiên bản chỉ lưu id câu hỏi, các phiên bản liên tiếp dùng chung những câu hỏi không đổi.
+CREATE TABLE IF NOT EXISTS quiz_versions (
+    id BIGSERIAL PRIMARY KEY,
+    quiz_submission_id BIGINT NOT NULL REFERENCES quiz_submissions(id) ON DELETE CASCADE,
+    version_number INT NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    subject VARCHAR(255) NOT NULL,
+    duration_minutes INT NOT NULL,
+    difficulty_level VARCHAR(20),
+    created_at TIMESTAMP,
+    UNIQUE (quiz_submission_id, version_number)
+);
+
+CREATE TABLE IF NOT EXISTS quiz_version_questions (
+    quiz_version_id BIGINT NOT NULL REFERENCES quiz_versions(id) ON DELETE CASCADE,
+    position INT NOT NULL,
+    question_id BIGINT NOT NULL REFERENCES submission_questions(id),
+    PRIMARY KEY (quiz_version_id, position)
+);
+CREATE INDEX IF NOT EXISTS idx_quiz_version_questions_question ON quiz_version_questions(question_id);
+
+-- Câu hỏi thuộc một phiên bản không bị sửa: khi chỉnh sửa, bản cũ được đánh dấu retired và thay bằng bản sao
+ALTER TABLE submission_questions ADD COLUMN IF NOT EXISTS retired BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE quiz_submissions ADD COLUMN IF NOT EXISTS current_version_id BIGINT REFERENCES quiz_versions(id);
+ALTER TABLE quiz_attempts ADD COLUMN IF NOT EXISTS quiz_version_id BIGINT REFERENCES quiz_versions(id);
+
+-- Phiên bản 1 cho các đề đã duyệt, gồm các câu hỏi hiện có theo thứ tự id
+INSERT INTO quiz_versions (quiz_submission_id, version_number, title, description, subject, duration_minutes, difficulty_level, created_at)
+SELECT id, 1, title, description, subject, duration_minutes, CAST(difficulty_level AS TEXT), COALESCE(approved_at, updated_at, NOW())
+FROM quiz_submissions qs
+WHERE status = 'APPROVED'
+  AND NOT EXISTS (SELECT 1 FROM quiz_versions v WHERE v.quiz_submission_id = qs.id);
+
+INSERT INTO quiz_version_questions (quiz_version_id, position, question_id)
+SELECT v.id, ROW_NUMBER() OVER (PARTITION BY v.id ORDER BY q.id) - 1, q.id
+FROM quiz_versions v
+JOIN submission_questions q ON q.submission_id = v.quiz_submission_id AND q.retired = FALSE
+WHERE NOT EXISTS (SELECT 1 FROM quiz_version_questions l WHERE l.quiz_version_id = v.id);
+
+UPDATE quiz_submissions qs
+SET current_version_id = v.id
+FROM quiz_versions v
+WHERE v.quiz_submission_id = qs.id AND qs.current_version_id IS NULL
+  AND v.version_number = (SELECT MAX(version_number) FROM quiz_versions m WHERE m.quiz_submission_id = qs.id);
+
+-- Các lượt làm bài hiện có gắn với phiên bản 1 của đề
+UPDATE quiz_attempts a
+SET quiz_version_id = qs.current_version_id
+FROM quiz_submissions qs
+WHERE qs.id = a.quiz_submission_id AND qs.current_version_id IS NOT NULL AND a.quiz_version_id IS NULL;
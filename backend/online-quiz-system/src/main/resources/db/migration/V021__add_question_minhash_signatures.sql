@@ -0,0 +1,13 @@
+-- File: V021__add_question_minhash_signatures.sql
+
+-- Chữ ký MinHash (64 giá trị int, 256 byte) của từng câu hỏi để phát hiện câu hỏi gần trùng giữa các đề.
+-- Chữ ký được tính trong ứng dụng; các câu hỏi cũ được QuestionDuplicateDetector bổ sung khi khởi động.
+ALTER TABLE submission_questions ADD COLUMN IF NOT EXISTS minhash_signature BYTEA;
+ALTER TABLE submission_questions ADD COLUMN IF NOT EXISTS duplicate_of_question_id BIGINT;
+ALTER TABLE submission_questions ADD COLUMN IF NOT EXISTS duplicate_similarity DOUBLE PRECISION;
+
+ALTER TABLE quiz_submissions ADD COLUMN IF NOT EXISTS duplicate_question_count INT NOT NULL DEFAULT 0;
+
+-- Tìm nhanh các câu hỏi chưa có chữ ký khi bổ sung
+CREATE INDEX IF NOT EXISTS idx_submission_questions_unsigned ON submission_questions(id)
+    WHERE minhash_signature IS NULL AND retired = FALSE;
@@ -0,0 +1,11 @@
+-- File: V022__unique_daily_challenge_per_template.sql
+
+-- Thử thách hàng ngày được sinh trước bởi DailyChallengeScheduler; mỗi mẫu chỉ xuất hiện một lần trong một ngày.
+-- V003 đã có ràng buộc này, nhưng các cơ sở dữ liệu do ddl-auto tạo thì chưa. Xoá các bản trùng (giữ id nhỏ nhất) trước khi tạo.
+DELETE FROM daily_challenges d
+USING daily_challenges k
+WHERE d.challenge_date = k.challenge_date
+  AND d.template_id = k.template_id
+  AND d.id > k.id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_daily_challenges_date_template ON daily_challenges(challenge_date, template_id);
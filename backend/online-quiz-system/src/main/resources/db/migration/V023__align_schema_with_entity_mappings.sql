@@ -0,0 +1,12 @@
+-- File: V023__align_schema_with_entity_mappings.sql
+
+-- Hibernate chạy với ddl-auto=validate, schema do Flyway quản lý phải khớp với các entity.
+-- Cột điểm tiêu dùng của UserRanking trước đây chỉ được ddl-auto thêm vào, chưa có migration nào tạo.
+ALTER TABLE user_rankings ADD COLUMN IF NOT EXISTS consumption_points INTEGER DEFAULT 0;
+
+-- Role và PaymentStatus được lưu dạng chuỗi (EnumType.STRING), không phải kiểu enum của PostgreSQL.
+-- status_enum (PENDING, APPROVED, REJECTED) cũng không chứa SUCCESS/FAILED của giao dịch thanh toán.
+ALTER TABLE users ALTER COLUMN role DROP DEFAULT;
+ALTER TABLE users ALTER COLUMN role TYPE VARCHAR(20) USING role::text;
+ALTER TABLE users ALTER COLUMN role SET DEFAULT 'USER';
+ALTER TABLE payment_transactions ALTER COLUMN status TYPE VARCHAR(20) USING status::text;
@@ -0,0 +1,14 @@
+-- File: V024__add_submission_question_position.sql
+
+-- Thứ tự hiển thị của câu hỏi trong đề. Trước đây thứ tự lấy theo id, nên bản sao thay thế (copy-on-write)
+-- của một câu hỏi đã xuất bản bị đẩy xuống cuối đề; nay bản sao nhận lại vị trí của câu hỏi cũ.
+ALTER TABLE submission_questions ADD COLUMN IF NOT EXISTS position INTEGER NOT NULL DEFAULT 0;
+
+-- Câu hỏi hiện có được đánh số theo thứ tự id như trước
+UPDATE submission_questions q
+SET position = n.position
+FROM (SELECT id, ROW_NUMBER() OVER (PARTITION BY submission_id ORDER BY id) - 1 AS position
+      FROM submission_questions) n
+WHERE n.id = q.id;
+
+CREATE INDEX IF NOT EXISTS idx_submission_questions_submission_position ON submission_questions(submission_id, position);
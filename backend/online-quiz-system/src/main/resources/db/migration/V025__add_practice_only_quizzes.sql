@@ -0,0 +1,6 @@
+-- File: V025__add_practice_only_quizzes.sql
+
+-- Đề tự luyện: chế độ luyện tập trả về đáp án đúng và lời giải ngay khi kiểm tra từng câu.
+-- Với đề thường, đáp án chỉ được trả về cho người đã hoàn thành ít nhất một lượt làm bài.
+ALTER TABLE quiz_submissions ADD COLUMN IF NOT EXISTS practice_only BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE quiz_versions ADD COLUMN IF NOT EXISTS practice_only BOOLEAN NOT NULL DEFAULT FALSE;
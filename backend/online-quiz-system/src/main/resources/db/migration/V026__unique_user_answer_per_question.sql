@@ -0,0 +1,12 @@
+-- File: V026__unique_user_answer_per_question.sql
+
+-- AttemptAnswerFlusher ghi câu trả lời tự lưu bằng INSERT ... ON CONFLICT (quiz_attempt_id, question_id).
+-- V006 đã có ràng buộc này, nhưng các cơ sở dữ liệu do ddl-auto tạo thì chưa. Xoá các bản trùng (giữ bản ghi mới nhất) trước khi tạo.
+-- Tên chỉ mục trùng với tên PostgreSQL tự đặt cho ràng buộc của V006, nên IF NOT EXISTS bỏ qua các cơ sở dữ liệu đã có.
+DELETE FROM user_answers d
+USING user_answers k
+WHERE d.quiz_attempt_id = k.quiz_attempt_id
+  AND d.question_id = k.question_id
+  AND d.id < k.id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS user_answers_quiz_attempt_id_question_id_key ON user_answers(quiz_attempt_id, question_id);
@@ -0,0 +1,142 @@
+package com.example.online_quiz_system.repository;
+
+import com.example.online_quiz_system.entity.QuizAttempt;
+import com.example.online_quiz_system.entity.QuizSubmission;
+import com.example.online_quiz_system.entity.SubmissionAnswerOption;
+import com.example.online_quiz_system.entity.SubmissionQuestion;
+import com.example.online_quiz_system.entity.UserAnswer;
+import com.example.online_quiz_system.enums.QuestionType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the JDBC statements Hibernate prepares to persist a large quiz and a full answer sheet. With pooled
+ * sequences and batching every 50 rows cost one {@code nextval} and one batched INSERT; with IDENTITY ids each row
+ * was its own INSERT. The schema comes from the Flyway migrations, so this also checks them against the entities.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class BatchInsertStatementCountTest {
+
+    private static final int QUESTIONS = 100;
+    private static final int OPTIONS_PER_QUESTION = 4;
+    private static final int BATCH_SIZE = 50;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withUrlParam("reWriteBatchedInserts", "true");
+
+    @Autowired
+    private QuizSubmissionRepository quizSubmissionRepository;
+
+    @Autowired
+    private QuizAttemptRepository quizAttemptRepository;
+
+    @Autowired
+    private UserAnswerRepository userAnswerRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void submittedQuizIsInsertedInBatches() {
+        QuizSubmission submission = newSubmission();
+
+        quizSubmissionRepository.saveAndFlush(submission);
+
+        int options = QUESTIONS * OPTIONS_PER_QUESTION;
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1 + QUESTIONS + options);
+        // 1 quiz INSERT, then per 50 rows one nextval and one batched INSERT for questions and for options
+        assertThat(statistics.getPrepareStatementCount())
+                .isLessThanOrEqualTo(1 + 2L * (batches(QUESTIONS) + batches(options)));
+    }
+
+    @Test
+    void answerSheetIsInsertedInBatches() {
+        QuizSubmission submission = quizSubmissionRepository.saveAndFlush(newSubmission());
+        QuizAttempt attempt = new QuizAttempt();
+        attempt.setUserId(1L);
+        attempt.setQuizSubmission(submission);
+        attempt.setStartTime(LocalDateTime.now());
+        attempt.setEndTime(LocalDateTime.now());
+        attempt.setTotalQuestions(QUESTIONS);
+        attempt.setStatus("COMPLETED");
+        quizAttemptRepository.saveAndFlush(attempt);
+        entityManager.clear();
+        statistics.clear();
+
+        List<UserAnswer> answers = new ArrayList<>();
+        for (SubmissionQuestion question : submission.getQuestions()) {
+            UserAnswer answer = new UserAnswer();
+            answer.setQuizAttempt(entityManager.getReference(QuizAttempt.class, attempt.getId()));
+            answer.setQuestion(entityManager.getReference(SubmissionQuestion.class, question.getId()));
+            answer.setSelectedOption(entityManager.getReference(SubmissionAnswerOption.class,
+                    question.getAnswerOptions().get(0).getId()));
+            answer.setIsCorrect(true);
+            answers.add(answer);
+        }
+        userAnswerRepository.saveAll(answers);
+        userAnswerRepository.flush();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(QUESTIONS);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2L * batches(QUESTIONS));
+    }
+
+    private static QuizSubmission newSubmission() {
+        QuizSubmission submission = new QuizSubmission();
+        submission.setTitle("Đề kiểm tra");
+        submission.setSubject("MATH");
+        submission.setDurationMinutes(45);
+        submission.setContributorId(1L);
+        for (int i = 0; i < QUESTIONS; i++) {
+            SubmissionQuestion question = new SubmissionQuestion();
+            question.setSubmission(submission);
+            question.setQuestionText("Câu hỏi " + i);
+            question.setQuestionType(QuestionType.MULTIPLE_CHOICE);
+            for (int j = 0; j < OPTIONS_PER_QUESTION; j++) {
+                SubmissionAnswerOption option = new SubmissionAnswerOption();
+                option.setQuestion(question);
+                option.setOptionText("Đáp án " + j);
+                option.setIsCorrect(j == 0);
+                question.getAnswerOptions().add(option);
+            }
+            submission.getQuestions().add(question);
+        }
+        submission.setQuestionCount(QUESTIONS);
+        return submission;
+    }
+
+    private static long batches(int rows) {
+        return (rows + BATCH_SIZE - 1) / BATCH_SIZE;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.online_quiz_system.service;
+
+import com.example.online_quiz_system.repository.QuizAttemptRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AttemptExpirySchedulerTest {
+
+    @Mock
+    private AttemptDeadlineRegistry attemptDeadlineRegistry;
+
+    @Mock
+    private QuizAttemptService quizAttemptService;
+
+    @Mock
+    private QuizAttemptRepository quizAttemptRepository;
+
+    @InjectMocks
+    private AttemptExpiryScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(scheduler, "batchSize", 200);
+        ReflectionTestUtils.setField(scheduler, "graceSeconds", 60L);
+    }
+
+    @Test
+    void failedBatchIsRetriedPerAttemptAndOnlyTheFailingOneIsPutBack() {
+        when(attemptDeadlineRegistry.pollExpired(any(Long.class))).thenReturn(List.of(1L, 2L, 3L));
+        when(quizAttemptService.expireAttempts(anyList())).thenReturn(1);
+        when(quizAttemptService.expireAttempts(List.of(1L, 2L, 3L))).thenThrow(new IllegalStateException("bad row"));
+        when(quizAttemptService.expireAttempts(List.of(2L))).thenThrow(new IllegalStateException("bad row"));
+
+        scheduler.expireDueAttempts();
+
+        verify(quizAttemptService).expireAttempts(List.of(1L));
+        verify(quizAttemptService).expireAttempts(List.of(3L));
+        verify(attemptDeadlineRegistry).register(eq(2L), any(LocalDateTime.class));
+        verify(attemptDeadlineRegistry, never()).register(eq(1L), any(LocalDateTime.class));
+        verify(attemptDeadlineRegistry, never()).register(eq(3L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void rescanRegistersOverdueAttemptsButLeavesBackedOffOnesAlone() {
+        when(attemptDeadlineRegistry.pollExpired(any(Long.class))).thenReturn(List.of(2L));
+        when(quizAttemptService.expireAttempts(anyList())).thenThrow(new IllegalStateException("bad row"));
+        scheduler.expireDueAttempts();
+        when(quizAttemptRepository.findOverdueAttemptIds(any(LocalDateTime.class), anyInt())).thenReturn(List.of(2L, 5L));
+
+        scheduler.rescanOverdue();
+
+        verify(attemptDeadlineRegistry).register(eq(5L), any(LocalDateTime.class));
+        // only the backoff registration from the failed retry
+        verify(attemptDeadlineRegistry).register(eq(2L), any(LocalDateTime.class));
+    }
+}
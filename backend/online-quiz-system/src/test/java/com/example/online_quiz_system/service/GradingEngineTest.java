@@ -0,0 +1,113 @@
+package com.example.online_quiz_system.service;
+
+import com.example.online_quiz_system.dto.QuestionResultDTO;
+import com.example.online_quiz_system.dto.UserAnswerRequestDTO;
+import com.example.online_quiz_system.entity.QuizAttempt;
+import com.example.online_quiz_system.entity.QuizSubmission;
+import com.example.online_quiz_system.entity.SubmissionAnswerOption;
+import com.example.online_quiz_system.entity.SubmissionQuestion;
+import com.example.online_quiz_system.enums.QuestionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradingEngineTest {
+
+    private final GradingEngine engine = new GradingEngine(List.of(new ChoiceQuestionScorer(), new EssayQuestionScorer()));
+
+    @ParameterizedTest
+    @CsvSource({"10, 1", "10, 2", "50, 3", "50, 4", "200, 5", "200, 6", "1, 7"})
+    void gradesMixedQuizzesLikeThePerAnswerLoop(int questionCount, long seed) {
+        QuizSubmission quiz = GradingFixtures.quiz(questionCount, seed);
+        List<UserAnswerRequestDTO> answers = GradingFixtures.answers(quiz, seed * 31);
+        GradingFixtures.LegacyResult expected = GradingFixtures.gradeLegacy(quiz, new QuizAttempt(), answers);
+
+        CompiledQuiz compiled = CompiledQuiz.compile(quiz, quiz.getQuestions());
+        GradingEngine.GradedAttempt graded = engine.grade(compiled, engine.sheetOf(compiled, answers));
+
+        assertThat(graded.getCorrectCount()).isEqualTo(expected.correctAnswers);
+        assertThat(graded.getScore()).isEqualByComparingTo(expected.score);
+        for (int i = 0; i < compiled.getQuestionCount(); i++) {
+            QuestionResultDTO legacy = expected.questionResults.get(i);
+            assertThat(compiled.getQuestionId(i)).isEqualTo(legacy.getQuestionId());
+            assertThat(isCorrect(compiled, graded, i)).as("question %d", legacy.getQuestionId()).isEqualTo(legacy.getIsCorrect());
+        }
+    }
+
+    @Test
+    void essaysAreLeftForManualGradingAndReduceTheObjectiveShare() {
+        QuizSubmission quiz = GradingFixtures.quiz(0, 0);
+        quiz.getQuestions().add(question(1L, QuestionType.ESSAY, "4.00"));
+        quiz.getQuestions().add(question(2L, QuestionType.MULTIPLE_CHOICE, "10.0"));
+        quiz.getQuestions().add(question(3L, QuestionType.TRUE_FALSE, "10.0"));
+        quiz.getQuestions().add(question(4L, QuestionType.MULTIPLE_CHOICE, "10.0"));
+        List<UserAnswerRequestDTO> answers = List.of(
+                answer(1L, null, "Bài làm"),
+                answer(2L, 21L, null),
+                answer(3L, 31L, null),
+                answer(4L, 42L, null));
+
+        CompiledQuiz compiled = CompiledQuiz.compile(quiz, quiz.getQuestions());
+        GradingEngine.GradedAttempt graded = engine.grade(compiled, engine.sheetOf(compiled, answers));
+        GradingFixtures.LegacyResult expected = GradingFixtures.gradeLegacy(quiz, new QuizAttempt(), answers);
+
+        // (10 - 4) / 3 = 2.00 per objective question, two of them right
+        assertThat(graded.getScore()).isEqualByComparingTo(new BigDecimal("4.00"));
+        assertThat(graded.getScore()).isEqualByComparingTo(expected.score);
+        assertThat(graded.getCorrectCount()).isEqualTo(2);
+        assertThat(graded.getOutcome(0)).isEqualTo(QuestionScorer.PENDING);
+        assertThat(graded.getOutcome(3)).isEqualTo(QuestionScorer.INCORRECT);
+    }
+
+    @Test
+    void unansweredQuestionsScoreNothing() {
+        QuizSubmission quiz = GradingFixtures.quiz(20, 11);
+        CompiledQuiz compiled = CompiledQuiz.compile(quiz, quiz.getQuestions());
+
+        GradingEngine.GradedAttempt graded = engine.grade(compiled, engine.sheetOf(compiled, List.of()));
+
+        assertThat(graded.getScoreCents()).isZero();
+        assertThat(graded.getCorrectCount()).isZero();
+        for (int i = 0; i < compiled.getQuestionCount(); i++) {
+            assertThat(graded.getOutcome(i)).isEqualTo(GradingEngine.UNANSWERED);
+        }
+    }
+
+    /** The engine's outcome in the shape of the legacy QuestionResultDTO.isCorrect. */
+    private static Boolean isCorrect(CompiledQuiz quiz, GradingEngine.GradedAttempt graded, int position) {
+        if (quiz.getQuestionType(position) == QuestionType.ESSAY) return null;
+        return graded.getOutcome(position) == QuestionScorer.CORRECT;
+    }
+
+    private static SubmissionQuestion question(long id, QuestionType type, String maxScore) {
+        SubmissionQuestion question = new SubmissionQuestion();
+        question.setId(id);
+        question.setQuestionText("Câu " + id);
+        question.setQuestionType(type);
+        question.setMaxScore(new BigDecimal(maxScore));
+        if (type != QuestionType.ESSAY) {
+            for (int j = 1; j <= 2; j++) {
+                SubmissionAnswerOption option = new SubmissionAnswerOption();
+                option.setId(id * 10 + j);
+                option.setQuestion(question);
+                option.setOptionText("Đáp án " + j);
+                option.setIsCorrect(j == 1);
+                question.getAnswerOptions().add(option);
+            }
+        }
+        return question;
+    }
+
+    private static UserAnswerRequestDTO answer(long questionId, Long optionId, String text) {
+        UserAnswerRequestDTO answer = new UserAnswerRequestDTO();
+        answer.setQuestionId(questionId);
+        answer.setSelectedOptionId(optionId);
+        answer.setAnswerText(text);
+        return answer;
+    }
+}
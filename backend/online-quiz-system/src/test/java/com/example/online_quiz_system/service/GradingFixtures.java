@@ -0,0 +1,205 @@
+package com.example.online_quiz_system.service;
+
+import com.example.online_quiz_system.dto.QuestionResultDTO;
+import com.example.online_quiz_system.dto.ResultOptionDTO;
+import com.example.online_quiz_system.dto.UserAnswerRequestDTO;
+import com.example.online_quiz_system.entity.QuizAttempt;
+import com.example.online_quiz_system.entity.QuizSubmission;
+import com.example.online_quiz_system.entity.SubmissionAnswerOption;
+import com.example.online_quiz_system.entity.SubmissionQuestion;
+import com.example.online_quiz_system.entity.UserAnswer;
+import com.example.online_quiz_system.enums.QuestionType;
+import com.example.online_quiz_system.enums.SubmissionStatus;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Random quizzes and answer sheets for grading tests and benchmarks, plus {@link #gradeLegacy}, the per-answer
+ * loop {@code submitAndGradeQuiz} used before {@link GradingEngine}, kept as the reference for its results.
+ */
+public final class GradingFixtures {
+
+    private GradingFixtures() {
+    }
+
+    /**
+     * A quiz of mostly 4-option multiple choice questions, with true/false questions, essays worth 0.25 points
+     * and now and then a question without a correct option. Ids are assigned as if the quiz had been stored.
+     */
+    public static QuizSubmission quiz(int questionCount, long seed) {
+        Random random = new Random(seed);
+        QuizSubmission quiz = new QuizSubmission();
+        quiz.setId(1L);
+        quiz.setTitle("Đề " + questionCount + " câu");
+        quiz.setSubject("MATH");
+        quiz.setDurationMinutes(45);
+        quiz.setStatus(SubmissionStatus.APPROVED);
+        quiz.setUpdatedAt(LocalDateTime.of(2025, 1, 1, 0, 0));
+
+        long optionId = 1000;
+        for (int i = 0; i < questionCount; i++) {
+            SubmissionQuestion question = new SubmissionQuestion();
+            question.setId(100L + i);
+            question.setSubmission(quiz);
+            question.setPosition(i);
+            question.setQuestionText("Câu hỏi " + i);
+            int kind = random.nextInt(10);
+            QuestionType type = kind < 7 ? QuestionType.MULTIPLE_CHOICE : kind < 9 ? QuestionType.TRUE_FALSE : QuestionType.ESSAY;
+            question.setQuestionType(type);
+            question.setMaxScore(type == QuestionType.ESSAY ? new BigDecimal("0.25") : BigDecimal.valueOf(10.0));
+            if (type != QuestionType.ESSAY) {
+                int optionCount = type == QuestionType.TRUE_FALSE ? 2 : 4;
+                int correct = random.nextInt(20) == 0 ? -1 : random.nextInt(optionCount);
+                for (int j = 0; j < optionCount; j++) {
+                    SubmissionAnswerOption option = new SubmissionAnswerOption();
+                    option.setId(optionId++);
+                    option.setQuestion(question);
+                    option.setOptionText("Đáp án " + j);
+                    option.setIsCorrect(j == correct);
+                    question.getAnswerOptions().add(option);
+                }
+            }
+            quiz.getQuestions().add(question);
+        }
+        return quiz;
+    }
+
+    /**
+     * Answers to most questions of {@code quiz}: mostly right, some wrong, some with no option, some naming an
+     * option of another question; essays get a text.
+     */
+    public static List<UserAnswerRequestDTO> answers(QuizSubmission quiz, long seed) {
+        Random random = new Random(seed);
+        List<UserAnswerRequestDTO> answers = new ArrayList<>();
+        for (SubmissionQuestion question : quiz.getQuestions()) {
+            if (random.nextInt(10) == 0) continue;
+            UserAnswerRequestDTO answer = new UserAnswerRequestDTO();
+            answer.setQuestionId(question.getId());
+            if (question.getQuestionType() == QuestionType.ESSAY) {
+                answer.setAnswerText("Bài làm " + question.getId());
+            } else {
+                List<SubmissionAnswerOption> options = question.getAnswerOptions();
+                int pick = random.nextInt(10);
+                if (pick < 6) {
+                    answer.setSelectedOptionId(options.stream().filter(SubmissionAnswerOption::getIsCorrect)
+                            .map(SubmissionAnswerOption::getId).findFirst().orElse(options.get(0).getId()));
+                } else if (pick < 8) {
+                    answer.setSelectedOptionId(options.get(random.nextInt(options.size())).getId());
+                } else if (pick == 8) {
+                    answer.setSelectedOptionId(null);
+                } else {
+                    answer.setSelectedOptionId(999_999L);
+                }
+            }
+            answers.add(answer);
+        }
+        Collections.shuffle(answers, random);
+        return answers;
+    }
+
+    /** Result of {@link #gradeLegacy}. */
+    public static final class LegacyResult {
+        public final int correctAnswers;
+        public final BigDecimal score;
+        public final List<UserAnswer> userAnswers;
+        public final List<QuestionResultDTO> questionResults;
+
+        LegacyResult(int correctAnswers, BigDecimal score, List<UserAnswer> userAnswers, List<QuestionResultDTO> questionResults) {
+            this.correctAnswers = correctAnswers;
+            this.score = score;
+            this.userAnswers = userAnswers;
+            this.questionResults = questionResults;
+        }
+    }
+
+    /** The grading part of the original {@code submitAndGradeQuiz}, minus persistence. */
+    public static LegacyResult gradeLegacy(QuizSubmission quiz, QuizAttempt attempt, List<UserAnswerRequestDTO> answers) {
+        List<SubmissionQuestion> allQuestions = quiz.getQuestions();
+        BigDecimal totalEssayMaxScore = allQuestions.stream()
+                .filter(q -> q.getQuestionType() == QuestionType.ESSAY)
+                .map(SubmissionQuestion::getMaxScore)
+                .filter(Objects::nonNull)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        long mcqCount = allQuestions.stream()
+                .filter(q -> q.getQuestionType() != QuestionType.ESSAY)
+                .count();
+
+        BigDecimal totalMcqMaxScore = BigDecimal.TEN.subtract(totalEssayMaxScore);
+        BigDecimal scorePerMcq = BigDecimal.ZERO;
+        if (mcqCount > 0) {
+            scorePerMcq = totalMcqMaxScore.divide(BigDecimal.valueOf(mcqCount), 2, RoundingMode.HALF_UP);
+        }
+
+        int correctAnswersCount = 0;
+        List<UserAnswer> userAnswersToSave = new ArrayList<>();
+        BigDecimal calculatedScore = BigDecimal.ZERO;
+
+        Map<Long, UserAnswerRequestDTO> userAnswerMap = Optional.ofNullable(answers).orElse(Collections.emptyList())
+                .stream()
+                .collect(Collectors.toMap(UserAnswerRequestDTO::getQuestionId, Function.identity()));
+
+        for (SubmissionQuestion question : allQuestions) {
+            UserAnswerRequestDTO userAnswerDTO = userAnswerMap.get(question.getId());
+
+            if (userAnswerDTO != null) {
+                UserAnswer userAnswer = new UserAnswer();
+                userAnswer.setQuizAttempt(attempt);
+                userAnswer.setQuestion(question);
+
+                if (question.getQuestionType() == QuestionType.MULTIPLE_CHOICE || question.getQuestionType() == QuestionType.TRUE_FALSE) {
+                    Optional<SubmissionAnswerOption> selectedOption = question.getAnswerOptions().stream()
+                            .filter(o -> Objects.equals(o.getId(), userAnswerDTO.getSelectedOptionId()))
+                            .findFirst();
+                    selectedOption.ifPresent(userAnswer::setSelectedOption);
+
+                    SubmissionAnswerOption correctOption = question.getAnswerOptions().stream()
+                            .filter(SubmissionAnswerOption::getIsCorrect).findFirst().orElse(null);
+
+                    boolean isCorrect = correctOption != null && Objects.equals(userAnswerDTO.getSelectedOptionId(), correctOption.getId());
+                    userAnswer.setIsCorrect(isCorrect);
+                    if (isCorrect) {
+                        correctAnswersCount++;
+                        calculatedScore = calculatedScore.add(scorePerMcq);
+                    }
+                } else if (question.getQuestionType() == QuestionType.ESSAY) {
+                    userAnswer.setAnswerText(userAnswerDTO.getAnswerText());
+                    userAnswer.setIsCorrect(null);
+                }
+                userAnswersToSave.add(userAnswer);
+            }
+        }
+
+        List<QuestionResultDTO> questionResults = allQuestions.stream().map(question -> {
+            QuestionResultDTO questionResult = new QuestionResultDTO();
+            questionResult.setQuestionId(question.getId());
+            questionResult.setQuestionText(question.getQuestionText());
+            questionResult.setExplanation(question.getExplanation());
+            questionResult.setUserAnswer(userAnswerMap.get(question.getId()));
+
+            SubmissionAnswerOption correctOption = question.getAnswerOptions().stream()
+                    .filter(SubmissionAnswerOption::getIsCorrect).findFirst().orElse(null);
+            questionResult.setCorrectAnswer(correctOption != null
+                    ? new ResultOptionDTO(correctOption.getId(), correctOption.getOptionText(), true)
+                    : null);
+
+            boolean isCorrect = correctOption != null && userAnswerMap.containsKey(question.getId())
+                    && Objects.equals(userAnswerMap.get(question.getId()).getSelectedOptionId(), correctOption.getId());
+            questionResult.setIsCorrect(question.getQuestionType() == QuestionType.ESSAY ? null : isCorrect);
+            return questionResult;
+        }).collect(Collectors.toList());
+
+        return new LegacyResult(correctAnswersCount, calculatedScore, userAnswersToSave, questionResults);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.online_quiz_system.service;
+
+import com.example.online_quiz_system.dto.AttemptResultDTO;
+import com.example.online_quiz_system.dto.GradeDTO;
+import com.example.online_quiz_system.dto.GradeSubmissionDTO;
+import com.example.online_quiz_system.dto.ResultAnswerDTO;
+import com.example.online_quiz_system.entity.EssayGradingRequest;
+import com.example.online_quiz_system.entity.QuizAttempt;
+import com.example.online_quiz_system.entity.SubmissionQuestion;
+import com.example.online_quiz_system.entity.UserAnswer;
+import com.example.online_quiz_system.enums.GradingStatus;
+import com.example.online_quiz_system.repository.EssayGradingRequestRepository;
+import com.example.online_quiz_system.repository.QuizAttemptRepository;
+import com.example.online_quiz_system.repository.UserAnswerRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GradingServiceTest {
+
+    @Mock
+    private EssayGradingRequestRepository gradingRequestRepository;
+
+    @Mock
+    private QuizAttemptRepository quizAttemptRepository;
+
+    @Mock
+    private UserAnswerRepository userAnswerRepository;
+
+    @InjectMocks
+    private GradingService gradingService;
+
+    @Test
+    void zeroScoreIsStoredInANewSnapshot() {
+        SubmissionQuestion essay = new SubmissionQuestion();
+        essay.setId(11L);
+        essay.setMaxScore(new BigDecimal("2.00"));
+        UserAnswer answer = new UserAnswer();
+        answer.setId(21L);
+        answer.setQuestion(essay);
+        answer.setAnswerText("Bài làm");
+
+        ResultAnswerDTO storedAnswer = new ResultAnswerDTO();
+        storedAnswer.setQuestionId(11L);
+        storedAnswer.setAnswerText("Bài làm");
+        AttemptResultDTO stored = new AttemptResultDTO();
+        stored.setAttemptId(5L);
+        stored.setScore(new BigDecimal("6.00"));
+        stored.setUserAnswers(List.of(storedAnswer));
+
+        QuizAttempt attempt = new QuizAttempt();
+        attempt.setId(5L);
+        attempt.setScore(new BigDecimal("6.00"));
+        attempt.setResultSnapshot(stored);
+        EssayGradingRequest request = new EssayGradingRequest();
+        request.setQuizAttempt(attempt);
+
+        when(quizAttemptRepository.findById(5L)).thenReturn(Optional.of(attempt));
+        when(userAnswerRepository.findById(21L)).thenReturn(Optional.of(answer));
+        when(gradingRequestRepository.findByQuizAttemptId(5L)).thenReturn(Optional.of(request));
+
+        GradeDTO grade = new GradeDTO();
+        grade.setUserAnswerId(21L);
+        grade.setScore(BigDecimal.ZERO);
+        grade.setFeedback("Chưa đúng trọng tâm");
+        GradeSubmissionDTO submission = new GradeSubmissionDTO();
+        submission.setAttemptId(5L);
+        submission.setGrades(List.of(grade));
+
+        gradingService.submitGrades(submission);
+
+        AttemptResultDTO snapshot = attempt.getResultSnapshot();
+        assertThat(snapshot).isNotSameAs(stored);
+        assertThat(snapshot.getScore()).isEqualByComparingTo("6.00");
+        ResultAnswerDTO graded = snapshot.getUserAnswers().get(0);
+        assertThat(graded.getScore()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(graded.getIsCorrect()).isFalse();
+        assertThat(graded.getFeedback()).isEqualTo("Chưa đúng trọng tâm");
+        // the loaded snapshot is left as it was
+        assertThat(storedAnswer.getScore()).isNull();
+        assertThat(answer.getIsCorrect()).isFalse();
+        assertThat(attempt.getScore()).isEqualByComparingTo("6.00");
+        assertThat(request.getStatus()).isEqualTo(GradingStatus.COMPLETED);
+    }
+}
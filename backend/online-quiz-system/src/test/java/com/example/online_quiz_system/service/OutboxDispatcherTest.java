@@ -0,0 +1,103 @@
+package com.example.online_quiz_system.service;
+
+import com.example.online_quiz_system.entity.OutboxEvent;
+import com.example.online_quiz_system.enums.OutboxStatus;
+import com.example.online_quiz_system.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxDispatcherTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private OutboxEventHandler handler;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final OutboxDispatcher dispatcher = new OutboxDispatcher();
+    private final OutboxEvent event = new OutboxEvent();
+
+    @BeforeEach
+    void setUp() {
+        when(handler.getEventType()).thenReturn("QUIZ_COMPLETED");
+        ReflectionTestUtils.setField(dispatcher, "outboxEventRepository", outboxEventRepository);
+        ReflectionTestUtils.setField(dispatcher, "eventHandlers", List.of(handler));
+        ReflectionTestUtils.setField(dispatcher, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 100);
+        ReflectionTestUtils.setField(dispatcher, "workerCount", 1);
+        ReflectionTestUtils.setField(dispatcher, "queueCapacity", 10);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 10);
+        ReflectionTestUtils.setField(dispatcher, "lockTimeoutSeconds", 300L);
+        dispatcher.init();
+
+        event.setId(7L);
+        event.setEventType("QUIZ_COMPLETED");
+        event.setPartitionKey(3L);
+        event.setPayload("{\"attemptId\":11}");
+        when(outboxEventRepository.lockDueEvents(any(LocalDateTime.class), any(LocalDateTime.class), anyInt()))
+                .thenReturn(List.of(event));
+    }
+
+    @Test
+    void eventIsHandledAndCompletedUnderItsOwnClaim() throws Exception {
+        when(outboxEventRepository.findClaimForUpdate(eq(7L), any(LocalDateTime.class))).thenReturn(Optional.of(event));
+
+        dispatcher.dispatch();
+        dispatcher.shutdown();
+
+        ArgumentCaptor<LocalDateTime> claim = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(handler).handle("{\"attemptId\":11}");
+        verify(outboxEventRepository).markProcessed(eq(7L), claim.capture(), eq(OutboxStatus.DONE), any(LocalDateTime.class));
+        assertThat(claim.getValue()).isEqualTo(event.getLockedAt());
+        assertThat(claim.getValue().getNano() % 1_000).isZero();
+    }
+
+    @Test
+    void reclaimedEventIsSkipped() throws Exception {
+        when(outboxEventRepository.findClaimForUpdate(eq(7L), any(LocalDateTime.class))).thenReturn(Optional.empty());
+
+        dispatcher.dispatch();
+        dispatcher.shutdown();
+
+        verify(handler, never()).handle(anyString());
+        verify(outboxEventRepository, never()).markProcessed(any(), any(), any(), any());
+        verify(outboxEventRepository, never()).markFailedAttempt(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void failureIsRecordedOnlyAgainstTheClaim() throws Exception {
+        when(outboxEventRepository.findClaimForUpdate(eq(7L), any(LocalDateTime.class))).thenReturn(Optional.of(event));
+        doThrow(new IllegalStateException("boom")).when(handler).handle(anyString());
+
+        dispatcher.dispatch();
+        dispatcher.shutdown();
+
+        verify(outboxEventRepository).markFailedAttempt(eq(7L), eq(event.getLockedAt()), eq(OutboxStatus.PENDING),
+                anyString(), any(LocalDateTime.class));
+        verify(outboxEventRepository, never()).markProcessed(any(), any(), any(), any());
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.online_quiz_system.service;
+
+import com.example.online_quiz_system.dto.QuizAttemptRequestDTO;
+import com.example.online_quiz_system.entity.QuizAttempt;
+import com.example.online_quiz_system.exception.ConflictException;
+import com.example.online_quiz_system.repository.QuizAttemptRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class QuizAttemptServiceTest {
+
+    @Mock
+    private QuizAttemptRepository quizAttemptRepository;
+
+    @InjectMocks
+    private QuizAttemptService quizAttemptService;
+
+    @Test
+    void submitWithAnotherKeyToACompletedAttemptIsAConflict() {
+        QuizAttempt attempt = new QuizAttempt();
+        attempt.setId(7L);
+        attempt.setUserId(1L);
+        attempt.setStatus("COMPLETED");
+        attempt.setSubmitIdempotencyKey("first-submit");
+        when(quizAttemptRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(attempt));
+
+        assertThatThrownBy(() -> quizAttemptService.submitAndGradeQuiz(7L, new QuizAttemptRequestDTO(), 1L, "second-submit"))
+                .isInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    void submitWithAKeyToAnAttemptFinalizedWithoutOneIsAConflict() {
+        QuizAttempt attempt = new QuizAttempt();
+        attempt.setId(7L);
+        attempt.setUserId(1L);
+        attempt.setStatus("COMPLETED");
+        when(quizAttemptRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(attempt));
+
+        assertThatThrownBy(() -> quizAttemptService.submitAndGradeQuiz(7L, new QuizAttemptRequestDTO(), 1L, "late-submit"))
+                .isInstanceOf(ConflictException.class);
+    }
+}
@@ -0,0 +1,479 @@
+package com.example.online_quiz_system.service;
+
+import com.example.online_quiz_system.dto.AnswerOptionDTO;
+import com.example.online_quiz_system.dto.BatchModerationRequestDTO;
+import com.example.online_quiz_system.dto.BatchModerationResultDTO;
+import com.example.online_quiz_system.dto.CursorPageDTO;
+import com.example.online_quiz_system.dto.ModerationOutcomeDTO;
+import com.example.online_quiz_system.dto.QuestionDTO;
+import com.example.online_quiz_system.dto.QuizSubmissionDTO;
+import com.example.online_quiz_system.entity.QuizSubmission;
+import com.example.online_quiz_system.entity.SubmissionAnswerOption;
+import com.example.online_quiz_system.entity.SubmissionQuestion;
+import com.example.online_quiz_system.enums.CatalogSort;
+import com.example.online_quiz_system.enums.ModerationAction;
+import com.example.online_quiz_system.enums.ModerationOutcome;
+import com.example.online_quiz_system.enums.QuestionType;
+import com.example.online_quiz_system.enums.SubmissionStatus;
+import com.example.online_quiz_system.exception.BusinessException;
+import com.example.online_quiz_system.repository.QuizSubmissionRepository;
+import com.example.online_quiz_system.repository.QuizSubmissionRepository.SummaryView;
+import com.example.online_quiz_system.repository.SubmissionQuestionRepository;
+import com.example.online_quiz_system.util.KeysetCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class QuizSubmissionServiceTest {
+
+    @Mock
+    private QuizSubmissionRepository submissionRepository;
+
+    @Mock
+    private SubmissionQuestionRepository submissionQuestionRepository;
+
+    @Mock
+    private CompiledQuizCache compiledQuizCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private QuizVersionService quizVersionService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private QuestionDuplicateDetector questionDuplicateDetector;
+
+    @Mock
+    private CatalogQueryCache catalogQueryCache;
+
+    @InjectMocks
+    private QuizSubmissionService service;
+
+    @Nested
+    class UpdateMergesQuestions {
+
+        private final QuizSubmission submission = submission();
+
+        @Test
+        void editsInPlaceDeletesDroppedAndInsertsNewQuestionsInTheGivenOrder() {
+            SubmissionQuestion first = submission.getQuestions().get(0);
+            SubmissionQuestion second = submission.getQuestions().get(1);
+            stubUpdate(Set.of());
+
+            QuestionDTO added = question(null, "Câu mới");
+            QuestionDTO edited = question(first, "Câu 1 đã sửa");
+
+            service.updateSubmission(1L, update(added, edited), 5L);
+
+            assertThat(submission.getQuestions()).hasSize(2).contains(first).doesNotContain(second);
+            assertThat(first.getQuestionText()).isEqualTo("Câu 1 đã sửa");
+            assertThat(first.getPosition()).isEqualTo(1);
+            SubmissionQuestion inserted = submission.getQuestions().stream().filter(q -> q.getId() == null).findFirst().orElseThrow();
+            assertThat(inserted.getQuestionText()).isEqualTo("Câu mới");
+            assertThat(inserted.getPosition()).isZero();
+            assertThat(submission.getQuestionCount()).isEqualTo(2);
+            assertThat(submission.getUpdatedAt()).isNotNull();
+        }
+
+        @Test
+        void optionsAreMergedById() {
+            SubmissionQuestion first = submission.getQuestions().get(0);
+            SubmissionAnswerOption keptOption = first.getAnswerOptions().get(0);
+            stubUpdate(Set.of());
+
+            QuestionDTO dto = question(first, first.getQuestionText());
+            dto.getAnswerOptions().remove(1);
+            dto.getAnswerOptions().get(0).setIsCorrect(false);
+            AnswerOptionDTO newOption = new AnswerOptionDTO();
+            newOption.setOptionText("Đáp án mới");
+            newOption.setIsCorrect(true);
+            dto.getAnswerOptions().add(newOption);
+
+            service.updateSubmission(1L, update(dto, question(submission.getQuestions().get(1), "Câu 2")), 5L);
+
+            assertThat(first.getAnswerOptions()).hasSize(2).startsWith(keptOption);
+            assertThat(keptOption.getIsCorrect()).isFalse();
+            assertThat(first.getAnswerOptions().get(1).getOptionText()).isEqualTo("Đáp án mới");
+        }
+
+        @Test
+        void unchangedQuestionsLeaveTheSubmissionUntouched() {
+            stubUpdate(Set.of());
+
+            service.updateSubmission(1L, update(
+                    question(submission.getQuestions().get(0), "Câu 1"),
+                    question(submission.getQuestions().get(1), "Câu 2")), 5L);
+
+            assertThat(submission.getUpdatedAt()).isNull();
+            assertThat(submission.getQuestions()).extracting(SubmissionQuestion::getId).containsExactly(10L, 20L);
+        }
+
+        @Test
+        void publishedQuestionsAreRetiredInsteadOfChanged() {
+            SubmissionQuestion first = submission.getQuestions().get(0);
+            SubmissionQuestion second = submission.getQuestions().get(1);
+            stubUpdate(Set.of(10L, 20L));
+
+            // the first question is edited, the second dropped
+            service.updateSubmission(1L, update(question(first, "Câu 1 đã sửa")), 5L);
+
+            assertThat(first.isRetired()).isTrue();
+            assertThat(first.getQuestionText()).isEqualTo("Câu 1");
+            assertThat(second.isRetired()).isTrue();
+            assertThat(submission.getQuestions()).hasSize(3).contains(first, second);
+            SubmissionQuestion replacement = submission.getQuestions().get(2);
+            assertThat(replacement.getId()).isNull();
+            assertThat(replacement.getQuestionText()).isEqualTo("Câu 1 đã sửa");
+            assertThat(replacement.getPosition()).isZero();
+            assertThat(submission.getQuestionCount()).isEqualTo(1);
+        }
+
+        @Test
+        void publishedQuestionsMayStillMove() {
+            SubmissionQuestion first = submission.getQuestions().get(0);
+            SubmissionQuestion second = submission.getQuestions().get(1);
+            stubUpdate(Set.of(10L, 20L));
+
+            service.updateSubmission(1L, update(question(second, "Câu 2"), question(first, "Câu 1")), 5L);
+
+            assertThat(first.isRetired()).isFalse();
+            assertThat(second.isRetired()).isFalse();
+            assertThat(second.getPosition()).isZero();
+            assertThat(first.getPosition()).isEqualTo(1);
+            assertThat(submission.getUpdatedAt()).isNotNull();
+        }
+
+        @Test
+        void questionOfAnotherQuizIsRejected() {
+            when(submissionRepository.findById(1L)).thenReturn(Optional.of(submission));
+            when(submissionQuestionRepository.findBySubmissionIdWithOptions(1L)).thenReturn(submission.getQuestions());
+            when(quizVersionService.frozenQuestionIds(submission)).thenReturn(Set.of());
+            QuestionDTO foreign = question(null, "Câu lạ");
+            foreign.setId(999L);
+
+            assertThatThrownBy(() -> service.updateSubmission(1L, update(foreign), 5L))
+                    .isInstanceOf(BusinessException.class);
+        }
+
+        private void stubUpdate(Set<Long> frozen) {
+            when(submissionRepository.findById(1L)).thenReturn(Optional.of(submission));
+            when(submissionQuestionRepository.findBySubmissionIdWithOptions(1L)).thenReturn(new ArrayList<>(submission.getQuestions()));
+            when(quizVersionService.frozenQuestionIds(submission)).thenReturn(frozen);
+            when(submissionRepository.saveAndFlush(submission)).thenReturn(submission);
+        }
+    }
+
+    @Nested
+    class ModerateBatch {
+
+        @Test
+        void approvesChangedRowsAndReportsTheRest() throws Exception {
+            // 1 and 2 change, 3 is already approved, 9 does not exist
+            List<Object[]> changed = List.of(
+                    new Object[]{1L, 100L, "PENDING", "Đề 1", "MATH", "EASY"},
+                    new Object[]{2L, 100L, "REJECTED", "Đề 2", "MATH", null},
+                    new Object[]{4L, 200L, "PENDING", "Đề 4", "PHYSICS", "HARD"});
+            stubQueries(changed, List.of(new Object[]{1L}, new Object[]{2L}, new Object[]{3L}, new Object[]{4L}));
+
+            BatchModerationResultDTO result = service.moderateBatch(request(ModerationAction.APPROVE, null,
+                    1L, 2L, 3L, 3L, null, 9L, 4L), 7L);
+
+            assertThat(result.getRequested()).isEqualTo(5);
+            assertThat(result.getUpdated()).isEqualTo(3);
+            assertThat(result.getUnchanged()).isEqualTo(1);
+            assertThat(result.getNotFound()).isEqualTo(1);
+            assertThat(result.getPointsCredited()).isEqualTo(150);
+            assertThat(result.getOutcomes()).extracting(ModerationOutcomeDTO::getId, ModerationOutcomeDTO::getOutcome)
+                    .containsExactly(
+                            tuple(1L, ModerationOutcome.APPROVED),
+                            tuple(2L, ModerationOutcome.APPROVED),
+                            tuple(3L, ModerationOutcome.UNCHANGED),
+                            tuple(9L, ModerationOutcome.NOT_FOUND),
+                            tuple(4L, ModerationOutcome.APPROVED));
+            verify(quizVersionService).publishAll(any(), any());
+            verify(eventPublisher, times(3)).publishEvent(any(QuizSubmissionChangedEvent.class));
+
+            // one reward row per contributor, in user id order, with the total of their approvals
+            ArgumentCaptor<PreparedStatementCreator> credit = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+            verify(jdbcTemplate).update(credit.capture());
+            Connection con = mock(Connection.class);
+            when(con.prepareStatement(anyString())).thenReturn(mock(PreparedStatement.class));
+            ArgumentCaptor<Object[]> arrays = ArgumentCaptor.forClass(Object[].class);
+            when(con.createArrayOf(anyString(), arrays.capture())).thenReturn(mock(Array.class));
+            credit.getValue().createPreparedStatement(con);
+            assertThat(arrays.getAllValues().get(0)).containsExactly(100L, 200L);
+            assertThat(arrays.getAllValues().get(1)).containsExactly(100, 50);
+        }
+
+        @Test
+        void rejectingInvalidatesCachesAndCreditsNothing() throws Exception {
+            stubQueries(List.<Object[]>of(new Object[]{1L, 100L, "APPROVED", "Đề 1", "MATH", "EASY"}), List.of());
+
+            BatchModerationResultDTO result = service.moderateBatch(request(ModerationAction.REJECT, " Trùng nội dung ", 1L), 7L);
+
+            assertThat(result.getUpdated()).isEqualTo(1);
+            assertThat(result.getNotFound()).isZero();
+            assertThat(result.getPointsCredited()).isZero();
+            verify(compiledQuizCache).invalidate(1L);
+            verify(quizVersionService, never()).publishAll(any(), any());
+            verify(jdbcTemplate, never()).update(any(PreparedStatementCreator.class));
+        }
+
+        @Test
+        void rejectionNeedsAReason() {
+            assertThatThrownBy(() -> service.moderateBatch(request(ModerationAction.REJECT, "  ", 1L), 7L))
+                    .isInstanceOf(BusinessException.class);
+            verifyNoInteractions(jdbcTemplate);
+        }
+
+        /** Runs the service's row mappers over the given rows: first the changed rows, then the existing ids. */
+        @SuppressWarnings("unchecked")
+        private void stubQueries(List<Object[]> changed, List<Object[]> existing) {
+            List<List<Object[]>> results = List.of(changed, existing);
+            int[] call = {0};
+            when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(RowMapper.class))).thenAnswer(invocation -> {
+                RowMapper<Object> mapper = invocation.getArgument(1);
+                List<Object> mapped = new ArrayList<>();
+                for (Object[] row : results.get(call[0]++)) {
+                    mapped.add(mapper.mapRow(resultSet(row), mapped.size()));
+                }
+                return mapped;
+            });
+        }
+
+        private ResultSet resultSet(Object[] row) throws Exception {
+            ResultSet rs = mock(ResultSet.class);
+            for (int i = 0; i < row.length; i++) {
+                if (row[i] instanceof Long l) when(rs.getLong(i + 1)).thenReturn(l);
+                else when(rs.getString(i + 1)).thenReturn((String) row[i]);
+            }
+            return rs;
+        }
+
+        private BatchModerationRequestDTO request(ModerationAction action, String reason, Long... ids) {
+            BatchModerationRequestDTO request = new BatchModerationRequestDTO();
+            request.setAction(action);
+            request.setReason(reason);
+            request.setIds(Arrays.asList(ids));
+            return request;
+        }
+    }
+
+    @Nested
+    class PublicCatalogSort {
+
+        private final Page<SummaryView> page = Page.empty();
+
+        @BeforeEach
+        void loadThroughTheCache() {
+            when(catalogQueryCache.get(anyString(), anyString(), anyString(), any(), anyInt(), anyInt(), any()))
+                    .thenAnswer(invocation -> invocation.<Supplier<Page<SummaryView>>>getArgument(6).get());
+        }
+
+        @Test
+        void keywordSearchKeepsTheRequestedSort() {
+            when(submissionRepository.searchApproved("dao ham", "", "", "TRENDING", PageRequest.of(0, 12))).thenReturn(page);
+
+            service.findPublicQuizzes("  Dao  Ham ", null, null, "trending", PageRequest.of(0, 12));
+
+            verify(catalogQueryCache).get(eq("dao ham"), eq(""), eq(""), eq(CatalogSort.TRENDING), eq(0), eq(12), any());
+        }
+
+        @Test
+        void keywordSearchWithoutSortIsRankedByRelevance() {
+            when(submissionRepository.searchApproved("dao ham", "", "", "", PageRequest.of(0, 12))).thenReturn(page);
+
+            service.findPublicQuizzes("dao ham", null, null, null, PageRequest.of(0, 12));
+
+            verify(catalogQueryCache).get(eq("dao ham"), eq(""), eq(""), isNull(), eq(0), eq(12), any());
+        }
+
+        @Test
+        void listingWithoutSortShowsTheNewestFirst() {
+            when(submissionRepository.findApprovedSummaries(eq(""), eq(""), any(Pageable.class))).thenReturn(page);
+
+            service.findPublicQuizzes(null, null, null, null, PageRequest.of(0, 12));
+
+            verify(catalogQueryCache).get(eq(""), eq(""), eq(""), eq(CatalogSort.NEWEST), eq(0), eq(12), any());
+            verify(submissionRepository, never()).searchApproved(any(), any(), any(), any(), any());
+        }
+    }
+
+    @Nested
+    class ScrollListings {
+
+        private final LocalDateTime now = LocalDateTime.of(2025, 6, 1, 12, 0, 0, 123_456_000);
+
+        @Test
+        void fullSliceEndsWithACursorAtItsLastRow() {
+            List<SummaryView> rows = List.of(row(9L, now), row(8L, now), row(7L, now.minusSeconds(1)));
+            when(submissionRepository.findApprovedAfter(KeysetCursor.START.getCreatedAt(), Long.MAX_VALUE, "", "", 3))
+                    .thenReturn(rows);
+
+            CursorPageDTO<SummaryView> page = service.scrollPublicQuizzes(null, null, null, 2);
+
+            assertThat(page.getItems()).extracting(SummaryView::getId).containsExactly(9L, 8L);
+            assertThat(page.isHasNext()).isTrue();
+            KeysetCursor next = KeysetCursor.decode(page.getNextCursor());
+            assertThat(next.getCreatedAt()).isEqualTo(now);
+            assertThat(next.getId()).isEqualTo(8L);
+        }
+
+        @Test
+        void lastSliceHasNoCursor() {
+            List<SummaryView> rows = List.of(row(2L, now), row(1L, now));
+            when(submissionRepository.findByContributorAfter(5L, KeysetCursor.START.getCreatedAt(), Long.MAX_VALUE, 3))
+                    .thenReturn(rows);
+
+            CursorPageDTO<SummaryView> page = service.scrollSubmissionsByContributor(5L, "", 2);
+
+            assertThat(page.getItems()).hasSize(2);
+            assertThat(page.isHasNext()).isFalse();
+            assertThat(page.getNextCursor()).isNull();
+        }
+
+        @Test
+        void cursorFromThePreviousSliceContinuesAfterItsRow() {
+            String cursor = new KeysetCursor(now, 8L).encode();
+            when(submissionRepository.findPendingAfter(now, 8L, 21)).thenReturn(List.of());
+
+            CursorPageDTO<SummaryView> page = service.scrollPendingSubmissions(cursor, 20);
+
+            assertThat(page.getItems()).isEmpty();
+            assertThat(page.isHasNext()).isFalse();
+        }
+
+        @Test
+        void filtersAreNormalizedAndUnknownOnesMatchNothing() {
+            when(submissionRepository.findApprovedAfter(KeysetCursor.START.getCreatedAt(), Long.MAX_VALUE, "MATH", "EASY", 11))
+                    .thenReturn(List.of());
+
+            service.scrollPublicQuizzes("math", "easy", null, 10);
+            CursorPageDTO<SummaryView> unknown = service.scrollPublicQuizzes("alchemy", null, null, 10);
+
+            assertThat(unknown.getItems()).isEmpty();
+            assertThat(unknown.getNextCursor()).isNull();
+            verify(submissionRepository, times(1)).findApprovedAfter(any(), any(), anyString(), anyString(), anyInt());
+        }
+
+        @Test
+        void malformedCursorIsRejectedBeforeQuerying() {
+            assertThatThrownBy(() -> service.scrollPendingSubmissions("not a cursor!", 20))
+                    .isInstanceOf(BusinessException.class);
+            verifyNoInteractions(submissionRepository);
+        }
+
+        private SummaryView row(long id, LocalDateTime createdAt) {
+            SummaryView row = mock(SummaryView.class);
+            lenient().when(row.getId()).thenReturn(id);
+            lenient().when(row.getCreatedAt()).thenReturn(createdAt);
+            return row;
+        }
+    }
+
+    private static QuizSubmission submission() {
+        QuizSubmission submission = new QuizSubmission();
+        submission.setId(1L);
+        submission.setTitle("Đề kiểm tra");
+        submission.setSubject("MATH");
+        submission.setDurationMinutes(45);
+        submission.setContributorId(5L);
+        submission.setStatus(SubmissionStatus.PENDING);
+        for (int i = 0; i < 2; i++) {
+            SubmissionQuestion question = new SubmissionQuestion();
+            question.setId(10L * (i + 1));
+            question.setSubmission(submission);
+            question.setPosition(i);
+            question.setQuestionText("Câu " + (i + 1));
+            question.setQuestionType(QuestionType.MULTIPLE_CHOICE);
+            question.setMaxScore(BigDecimal.valueOf(10.0));
+            for (int j = 0; j < 2; j++) {
+                SubmissionAnswerOption option = new SubmissionAnswerOption();
+                option.setId(question.getId() * 10 + j);
+                option.setQuestion(question);
+                option.setOptionText("Đáp án " + j);
+                option.setIsCorrect(j == 0);
+                question.getAnswerOptions().add(option);
+            }
+            submission.getQuestions().add(question);
+        }
+        submission.setQuestionCount(2);
+        return submission;
+    }
+
+    /** The DTO of {@code stored} with a new text, or of a new question when {@code stored} is null. */
+    private static QuestionDTO question(SubmissionQuestion stored, String text) {
+        QuestionDTO dto = new QuestionDTO();
+        dto.setQuestionText(text);
+        dto.setQuestionType(QuestionType.MULTIPLE_CHOICE);
+        dto.setMaxScore(BigDecimal.valueOf(10.0));
+        List<AnswerOptionDTO> options = new ArrayList<>();
+        for (int j = 0; j < 2; j++) {
+            AnswerOptionDTO option = new AnswerOptionDTO();
+            option.setOptionText("Đáp án " + j);
+            option.setIsCorrect(j == 0);
+            options.add(option);
+        }
+        if (stored != null) {
+            dto.setId(stored.getId());
+            for (int j = 0; j < 2; j++) options.get(j).setId(stored.getAnswerOptions().get(j).getId());
+        }
+        dto.setAnswerOptions(options);
+        return dto;
+    }
+
+    private static QuizSubmissionDTO update(QuestionDTO... questions) {
+        QuizSubmissionDTO dto = new QuizSubmissionDTO();
+        dto.setTitle("Đề kiểm tra");
+        dto.setSubject("MATH");
+        dto.setDurationMinutes(45);
+        dto.setQuestions(new ArrayList<>(List.of(questions)));
+        return dto;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.online_quiz_system.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedTtlCacheTest {
+
+    @Test
+    void returnsLiveValuesAndCountsHitsAndMisses() {
+        BoundedTtlCache<String, Integer> cache = new BoundedTtlCache<>(10, 1000);
+        cache.put("a", 1, 0);
+
+        assertThat(cache.get("a", 10)).isEqualTo(1);
+        assertThat(cache.get("b", 10)).isNull();
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void entriesExpireTtlAfterTheyWereWritten() {
+        BoundedTtlCache<String, Integer> cache = new BoundedTtlCache<>(10, 1000);
+        cache.put("a", 1, 0);
+
+        assertThat(cache.get("a", 999)).isEqualTo(1);
+        assertThat(cache.get("a", 1000)).isNull();
+        assertThat(cache.getExpirations()).isEqualTo(1);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void rewritingAnEntryRestartsItsTtl() {
+        BoundedTtlCache<String, Integer> cache = new BoundedTtlCache<>(10, 1000);
+        cache.put("a", 1, 0);
+        cache.put("a", 2, 800);
+
+        assertThat(cache.get("a", 1500)).isEqualTo(2);
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntryWhenFull() {
+        BoundedTtlCache<String, Integer> cache = new BoundedTtlCache<>(2, 1000);
+        cache.put("a", 1, 0);
+        cache.put("b", 2, 0);
+        cache.get("a", 1);
+        cache.put("c", 3, 2);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getEvictions()).isEqualTo(1);
+        assertThat(cache.get("b", 3)).isNull();
+        assertThat(cache.get("a", 3)).isEqualTo(1);
+        assertThat(cache.get("c", 3)).isEqualTo(3);
+    }
+
+    @Test
+    void removeIfDropsMatchingKeys() {
+        BoundedTtlCache<String, Integer> cache = new BoundedTtlCache<>(10, 1000);
+        cache.put("quiz:1", 1, 0);
+        cache.put("quiz:2", 2, 0);
+        cache.put("user:1", 3, 0);
+
+        assertThat(cache.removeIf(key -> key.startsWith("quiz:"))).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(1);
+        cache.clear();
+        assertThat(cache.size()).isZero();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.online_quiz_system.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvRecordReaderTest {
+
+    @Test
+    void readsPlainRecords() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("a,b,c\n1,2,3\n"));
+
+        assertThat(reader.next()).containsExactly("a", "b", "c");
+        assertThat(reader.next()).containsExactly("1", "2", "3");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void quotedFieldsKeepCommasQuotesAndLineBreaks() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(
+                "\"Câu hỏi, có dấu phẩy\",\"Nói \"\"xin chào\"\"\",\"dòng 1\ndòng 2\"\nnext,row,here"));
+
+        assertThat(reader.next()).containsExactly("Câu hỏi, có dấu phẩy", "Nói \"xin chào\"", "dòng 1\ndòng 2");
+        assertThat(reader.next()).containsExactly("next", "row", "here");
+        assertThat(reader.getRecordLine()).isEqualTo(3);
+    }
+
+    @Test
+    void emptyFieldsAndMissingTrailingNewlineAreKept() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(",x,,\n\"\",y"));
+
+        assertThat(reader.next()).containsExactly("", "x", "", "");
+        assertThat(reader.next()).containsExactly("", "y");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void handlesCrLfAndSkipsBlankLines() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("a,b\r\n\r\n\nc,d\r\n"));
+
+        assertThat(reader.next()).containsExactly("a", "b");
+        assertThat(reader.getRecordLine()).isEqualTo(1);
+        List<String> second = reader.next();
+        assertThat(second).containsExactly("c", "d");
+        assertThat(reader.getRecordLine()).isEqualTo(4);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void quoteInsideAnUnquotedFieldIsLiteral() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("5\" screen,ok"));
+
+        assertThat(reader.next()).containsExactly("5\" screen", "ok");
+    }
+
+    @Test
+    void unterminatedQuoteIsAnError() {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("a\n\"never closed,b"));
+
+        assertThatThrownBy(() -> {
+            reader.next();
+            reader.next();
+        }).isInstanceOf(IOException.class).hasMessageContaining("line 2");
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.online_quiz_system.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FixedWindowRateLimiterTest {
+
+    private final FixedWindowRateLimiter<Long> limiter = new FixedWindowRateLimiter<>(3, 1000);
+
+    @Test
+    void allowsUpToTheLimitWithinAWindow() {
+        assertThat(limiter.tryAcquire(1L, 0)).isTrue();
+        assertThat(limiter.tryAcquire(1L, 100)).isTrue();
+        assertThat(limiter.tryAcquire(1L, 200)).isTrue();
+        assertThat(limiter.tryAcquire(1L, 300)).isFalse();
+        assertThat(limiter.tryAcquire(1L, 999)).isFalse();
+    }
+
+    @Test
+    void newWindowStartsWhenTheOldOneHasEnded() {
+        for (int i = 0; i < 3; i++) limiter.tryAcquire(1L, 0);
+
+        assertThat(limiter.tryAcquire(1L, 1000)).isTrue();
+    }
+
+    @Test
+    void keysAreCountedSeparately() {
+        for (int i = 0; i < 3; i++) limiter.tryAcquire(1L, 0);
+
+        assertThat(limiter.tryAcquire(2L, 0)).isTrue();
+    }
+
+    @Test
+    void evictExpiredDropsOnlyEndedWindows() {
+        limiter.tryAcquire(1L, 0);
+        limiter.tryAcquire(2L, 500);
+
+        assertThat(limiter.evictExpired(1000)).isEqualTo(1);
+        assertThat(limiter.size()).isEqualTo(1);
+        assertThat(limiter.evictExpired(1500)).isEqualTo(1);
+        assertThat(limiter.size()).isZero();
+    }
+}
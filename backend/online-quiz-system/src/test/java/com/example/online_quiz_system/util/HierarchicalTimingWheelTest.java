@@ -0,0 +1,87 @@
+package com.example.online_quiz_system.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HierarchicalTimingWheelTest {
+
+    private static final long TICK = 1000;
+    private static final long START = 1_000_000_000L * TICK;
+
+    private final HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(TICK, START);
+
+    @Test
+    void idsWithTheSameDeadlineExpireOnTheSameTick() {
+        for (long id = 1; id <= 100; id++) {
+            wheel.add(id, START + 5 * TICK);
+        }
+
+        assertThat(advance(START + 4 * TICK)).isEmpty();
+        assertThat(advance(START + 5 * TICK)).hasSize(100).doesNotHaveDuplicates();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void deadlineIsRoundedUpToTheNextTick() {
+        wheel.add(1L, START + 5 * TICK + 1);
+
+        assertThat(advance(START + 5 * TICK)).isEmpty();
+        assertThat(advance(START + 6 * TICK)).containsExactly(1L);
+    }
+
+    @Test
+    void pastDeadlinesExpireOnTheNextAdvance() {
+        wheel.add(1L, START - 10 * TICK);
+
+        assertThat(advance(START)).isEmpty();
+        assertThat(advance(START + TICK)).containsExactly(1L);
+    }
+
+    @Test
+    void entriesCascadeDownThroughEveryLevelAndExpireOnTime() {
+        // one deadline on each level, and one just past each level boundary
+        long[] ticks = {63, 64, 65, 4095, 4096, 4097, 262_143, 262_144, 262_145, 1_000_000};
+        for (int i = 0; i < ticks.length; i++) {
+            wheel.add(i, START + ticks[i] * TICK);
+        }
+
+        for (int i = 0; i < ticks.length; i++) {
+            assertThat(advance(START + (ticks[i] - 1) * TICK)).as("before tick %d", ticks[i]).isEmpty();
+            assertThat(advance(START + ticks[i] * TICK)).as("at tick %d", ticks[i]).containsExactly((long) i);
+        }
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void deadlinesBeyondTheTopWheelAreParkedUntilTheyComeDue() {
+        long span = 1L << 24;
+        wheel.add(1L, START + (span + 10) * TICK);
+        wheel.add(2L, START + (3 * span) * TICK);
+
+        assertThat(advance(START + (span + 9) * TICK)).isEmpty();
+        assertThat(advance(START + (span + 10) * TICK)).containsExactly(1L);
+        assertThat(advance(START + (3 * span - 1) * TICK)).isEmpty();
+        assertThat(advance(START + 3 * span * TICK)).containsExactly(2L);
+    }
+
+    @Test
+    void entriesAddedAfterTheWheelMovedUseTheCurrentTick() {
+        advance(START + 100 * TICK);
+        wheel.add(1L, START + 164 * TICK);
+        wheel.add(2L, START + 101 * TICK);
+
+        assertThat(advance(START + 101 * TICK)).containsExactly(2L);
+        assertThat(advance(START + 163 * TICK)).isEmpty();
+        assertThat(advance(START + 164 * TICK)).containsExactly(1L);
+    }
+
+    private List<Long> advance(long nowMillis) {
+        List<Long> expired = new ArrayList<>();
+        wheel.advance(nowMillis, expired::add);
+        return expired;
+    }
+}
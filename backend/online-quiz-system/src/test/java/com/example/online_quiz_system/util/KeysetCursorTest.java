@@ -0,0 +1,56 @@
+package com.example.online_quiz_system.util;
+
+import com.example.online_quiz_system.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void encodedCursorDecodesToTheSamePosition() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2025, 3, 14, 9, 26, 53, 589_793_000), 42L);
+
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+        assertThat(decoded.getCreatedAt()).isEqualTo(cursor.getCreatedAt());
+        assertThat(decoded.getId()).isEqualTo(42L);
+    }
+
+    @Test
+    void timestampIsTruncatedToMicroseconds() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2025, 3, 14, 9, 26, 53, 589_793_238), 1L);
+
+        assertThat(cursor.getCreatedAt().getNano()).isEqualTo(589_793_000);
+        assertThat(KeysetCursor.decode(cursor.encode()).getCreatedAt()).isEqualTo(cursor.getCreatedAt());
+    }
+
+    @Test
+    void timestampsBeforeTheEpochSurviveTheRoundTrip() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_000), 7L);
+
+        assertThat(KeysetCursor.decode(cursor.encode()).getCreatedAt()).isEqualTo(cursor.getCreatedAt());
+    }
+
+    @Test
+    void encodingIsUrlSafe() {
+        String encoded = new KeysetCursor(LocalDateTime.of(2025, 1, 1, 0, 0), Long.MAX_VALUE).encode();
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void blankCursorStartsFromTheBeginning() {
+        assertThat(KeysetCursor.decode(null)).isSameAs(KeysetCursor.START);
+        assertThat(KeysetCursor.decode("  ")).isSameAs(KeysetCursor.START);
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not a cursor!")).isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode("MTIz")).isInstanceOf(BusinessException.class);
+    }
+}
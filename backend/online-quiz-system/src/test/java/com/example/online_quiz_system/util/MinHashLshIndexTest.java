@@ -0,0 +1,66 @@
+package com.example.online_quiz_system.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MinHashLshIndexTest {
+
+    private static final int[] CAPITAL = MinHash.signature("Thủ đô của nước Việt Nam là thành phố nào?");
+    private static final int[] CAPITAL_REWORDED = MinHash.signature("Thủ đô của nước Việt Nam là thành phố nào vậy?");
+    private static final int[] DERIVATIVE = MinHash.signature("Tính đạo hàm của hàm số y = x^3 + 2x");
+
+    private final MinHashLshIndex index = new MinHashLshIndex();
+
+    @Test
+    void findsANearDuplicateAboveTheThreshold() {
+        index.put(1L, 100L, CAPITAL);
+        index.put(2L, 100L, DERIVATIVE);
+
+        MinHashLshIndex.Match match = index.findBest(CAPITAL_REWORDED, 200L, Long.MAX_VALUE, 0.7);
+
+        assertThat(match).isNotNull();
+        assertThat(match.getId()).isEqualTo(1L);
+        assertThat(match.getGroupId()).isEqualTo(100L);
+        assertThat(match.getSimilarity()).isGreaterThanOrEqualTo(0.7);
+    }
+
+    @Test
+    void ignoresUnrelatedTexts() {
+        index.put(1L, 100L, DERIVATIVE);
+
+        assertThat(index.findBest(CAPITAL, 200L, Long.MAX_VALUE, 0.5)).isNull();
+    }
+
+    @Test
+    void skipsTheExcludedGroupAndNewerIds() {
+        index.put(5L, 100L, CAPITAL);
+
+        assertThat(index.findBest(CAPITAL_REWORDED, 100L, Long.MAX_VALUE, 0.7)).isNull();
+        assertThat(index.findBest(CAPITAL_REWORDED, 200L, 5L, 0.7)).isNull();
+        assertThat(index.findBest(CAPITAL_REWORDED, 200L, 6L, 0.7)).isNotNull();
+    }
+
+    @Test
+    void prefersTheOlderOfTwoEqualMatches() {
+        index.put(8L, 100L, CAPITAL);
+        index.put(3L, 101L, CAPITAL);
+
+        assertThat(index.findBest(CAPITAL, 200L, Long.MAX_VALUE, 0.9).getId()).isEqualTo(3L);
+    }
+
+    @Test
+    void removedEntriesAndGroupsAreNoLongerFound() {
+        index.put(1L, 100L, CAPITAL);
+        index.put(2L, 100L, CAPITAL_REWORDED);
+        index.put(3L, 101L, CAPITAL);
+
+        index.remove(3L);
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.findBest(CAPITAL, 100L, Long.MAX_VALUE, 0.5)).isNull();
+
+        index.removeGroup(100L);
+        assertThat(index.size()).isZero();
+        assertThat(index.findBest(CAPITAL, 200L, Long.MAX_VALUE, 0.5)).isNull();
+    }
+}
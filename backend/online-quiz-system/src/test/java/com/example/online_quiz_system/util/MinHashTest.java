@@ -0,0 +1,45 @@
+package com.example.online_quiz_system.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MinHashTest {
+
+    @Test
+    void identicalTextsUpToAccentsAndCaseHaveEqualSignatures() {
+        int[] a = MinHash.signature("Phương trình bậc hai có mấy nghiệm?");
+        int[] b = MinHash.signature("PHUONG TRINH BAC HAI CO MAY NGHIEM");
+
+        assertThat(a).hasSize(MinHash.NUM_HASHES).isEqualTo(b);
+        assertThat(MinHash.similarity(a, b)).isEqualTo(1.0);
+    }
+
+    @Test
+    void similarityTracksTextOverlap() {
+        int[] base = MinHash.signature("Thủ đô của nước Việt Nam là thành phố nào?");
+        int[] close = MinHash.signature("Thủ đô của nước Việt Nam là thành phố nào vậy?");
+        int[] unrelated = MinHash.signature("Tính đạo hàm của hàm số y = x^3 + 2x");
+
+        assertThat(MinHash.similarity(base, close)).isGreaterThan(0.7);
+        assertThat(MinHash.similarity(base, unrelated)).isLessThan(0.2);
+    }
+
+    @Test
+    void textWithoutLettersOrDigitsHasNoSignature() {
+        assertThat(MinHash.signature(" ?! -- ")).isNull();
+        assertThat(MinHash.signature(null)).isNull();
+    }
+
+    @Test
+    void signatureSurvivesByteEncoding() {
+        int[] signature = MinHash.signature("Nguyên tố hoá học có ký hiệu Fe là gì?");
+
+        byte[] bytes = MinHash.toBytes(signature);
+
+        assertThat(bytes).hasSize(MinHash.SIGNATURE_BYTES);
+        assertThat(MinHash.fromBytes(bytes)).isEqualTo(signature);
+        assertThat(MinHash.fromBytes(null)).isNull();
+        assertThat(MinHash.fromBytes(new byte[3])).isNull();
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.online_quiz_system.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrefixIndexTest {
+
+    private final PrefixIndex index = new PrefixIndex(3, 8);
+
+    @Test
+    void findsEntriesByAnyWordPrefixIgnoringAccents() {
+        index.put(1L, "Hoá học lớp 10", 5);
+        index.put(2L, "Vật lý đại cương", 3);
+
+        assertThat(ids(index.search("hoa", 10))).containsExactly(1L);
+        assertThat(ids(index.search("LỚP", 10))).containsExactly(1L);
+        assertThat(ids(index.search("dai", 10))).containsExactly(2L);
+        assertThat(index.search("oa", 10)).isEmpty();
+    }
+
+    @Test
+    void ranksByScoreThenByNewestIdAndKeepsOnlyTopK() {
+        index.put(1L, "Toán 1", 10);
+        index.put(2L, "Toán 2", 30);
+        index.put(3L, "Toán 3", 20);
+        index.put(4L, "Toán 4", 20);
+        index.put(5L, "Toán 5", 1);
+
+        assertThat(ids(index.search("to", 10))).containsExactly(2L, 4L, 3L);
+        assertThat(ids(index.search("toan", 2))).containsExactly(2L, 4L);
+    }
+
+    @Test
+    void entryMatchingOnSeveralWordsIsListedOnce() {
+        index.put(1L, "toan toan toan", 1);
+
+        assertThat(ids(index.search("toa", 10))).containsExactly(1L);
+    }
+
+    @Test
+    void removedEntryMakesRoomForTheNextBest() {
+        index.put(1L, "Sinh học", 3);
+        index.put(2L, "Sinh học nâng cao", 2);
+        index.put(3L, "Sinh học cơ bản", 1);
+        index.put(4L, "Sinh học thực hành", 0);
+
+        index.remove(1L);
+
+        assertThat(ids(index.search("sinh", 10))).containsExactly(2L, 3L, 4L);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void putReplacesTheTextAndScoreOfAnId() {
+        index.put(1L, "Lịch sử", 1);
+        index.put(1L, "Địa lý", 9);
+
+        assertThat(index.search("lich", 10)).isEmpty();
+        assertThat(index.search("dia", 10)).singleElement().satisfies(e -> {
+            assertThat(e.getText()).isEqualTo("Địa lý");
+            assertThat(e.getScore()).isEqualTo(9);
+        });
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void queriesLongerThanTheIndexedDepthAreCheckedAgainstTheText() {
+        index.put(1L, "phuongtrinh bac hai", 2);
+        index.put(2L, "phuongtrieu so hoc", 1);
+
+        assertThat(ids(index.search("phuongtr", 10))).containsExactly(1L, 2L);
+        assertThat(ids(index.search("phuongtrinh", 10))).containsExactly(1L);
+        assertThat(ids(index.search("phuongtrieu", 10))).containsExactly(2L);
+    }
+
+    @Test
+    void blankAndUnknownQueriesFindNothing() {
+        index.put(1L, "Tiếng Anh", 1);
+
+        assertThat(index.search("  ", 10)).isEmpty();
+        assertThat(index.search("xyz", 10)).isEmpty();
+        index.clear();
+        assertThat(index.search("tieng", 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    private static List<Long> ids(List<PrefixIndex.Entry> entries) {
+        return entries.stream().map(PrefixIndex.Entry::getId).toList();
+    }
+}
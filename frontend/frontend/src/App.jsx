@@ -572,7 +572,7 @@ function HomePage() {
                         </div>
                       )}
                       <p>Thời gian: {quiz.durationMinutes} phút</p>
-                      <p>{quiz.questions?.length || 0} câu hỏi</p>
+                      <p>{quiz.questionCount ?? quiz.questions?.length ?? 0} câu hỏi</p>
                     </div>
                   </div>
                 </Link>
@@ -71,7 +71,7 @@ const SubmissionItem = ({ submission, onViewDetails, onEdit, onDeleteRequest })
         <div className="flex items-center gap-4 text-sm text-gray-500">
           <span>Môn: {subjectDisplayMap[submission.subject] || submission.subject}</span>
           <span>Thời gian: {submission.durationMinutes}p</span>
-          <span>Câu hỏi: {submission.questions?.length || 0}</span>
+          <span>Câu hỏi: {submission.questionCount ?? submission.questions?.length ?? 0}</span>
         </div>
       </div>
       <div className="text-right">
@@ -78,11 +78,26 @@ export default function QuizTakingPage() {
       try {
         // Step 1: Start the attempt and get quiz data + attemptId
         const startResponse = await quizService.startAttempt(quizId);
-        const { quizData, attemptId: newAttemptId } = startResponse;
+        const { quizData, attemptId: newAttemptId, remainingSeconds, resumed, savedAnswers } = startResponse;
 
         setQuiz(quizData);
         setAttemptId(newAttemptId);
-        if (quizData.durationMinutes) {
+        // Khôi phục các câu trả lời đã lưu của lượt làm đang dở
+        if (resumed && savedAnswers?.length) {
+          const restored = {};
+          savedAnswers.forEach(({ questionId, selectedOptionId, answerText }) => {
+            if (selectedOptionId != null) {
+              restored[questionId] = String(selectedOptionId);
+            } else if (answerText != null) {
+              restored[questionId] = answerText;
+            }
+          });
+          setUserAnswers(restored);
+        }
+        // Lượt làm đang dở được tiếp tục với thời gian còn lại do server tính
+        if (remainingSeconds != null) {
+          setTimeLeft(remainingSeconds);
+        } else if (quizData.durationMinutes) {
           setTimeLeft(quizData.durationMinutes * 60);
         }
         setQuizState('IN_PROGRESS');